@@ -0,0 +1,133 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.annotation.RateLimiter;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.aman.authservice.ratelimit.registry.RateLimiterDefinitionRegistry;
+import com.aman.authservice.ratelimit.resolver.FixedWindowBucketResolver;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.aman.authservice.ratelimit.resolver.SlidingWindowResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-check cost of the rate-limit key pipeline: resolving the limiter definition, extracting the username
+ * and building the fixed- and sliding-window keys.
+ * <p>
+ * {@code legacy*} benchmarks reproduce the previous implementation ({@code String.format}, regex
+ * {@code replaceAll}, streams and rebuilding the definition per call). Run with {@code ./gradlew jmh};
+ * the {@code gc} profiler reports {@code gc.alloc.rate.norm} (bytes allocated per check).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitKeyBenchmark {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private RateLimitingProperties properties;
+    private RateLimiterDefinitionRegistry registry;
+    private RateLimitKeyResolver keyResolver;
+    private FixedWindowBucketResolver fixedWindowBucketResolver;
+    private SlidingWindowResolver slidingWindowResolver;
+    private RateLimitKeyResolver.RateLimitRequestMetadata metadata;
+    private Method limitedMethod;
+    private RateLimiter rateLimiter;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        properties = new RateLimitingProperties();
+        registry = new RateLimiterDefinitionRegistry(properties, null);
+        keyResolver = new RateLimitKeyResolver(null, new RedisKeyLayout(properties));
+        fixedWindowBucketResolver = new FixedWindowBucketResolver(CLOCK);
+        slidingWindowResolver = new SlidingWindowResolver(CLOCK);
+        metadata = keyResolver.buildMetadata("203.0.113.42", "Tenant-A", "Alice.Smith@Example.com");
+        limitedMethod = RateLimitKeyBenchmark.class.getDeclaredMethod("limited", String.class);
+        rateLimiter = limitedMethod.getAnnotation(RateLimiter.class);
+        args = new Object[]{null, 42, "Alice.Smith@Example.com"};
+    }
+
+    @Benchmark
+    public void keyBuilder(Blackhole blackhole) {
+        RateLimiterDefinition definition = registry.get(limitedMethod, rateLimiter);
+        blackhole.consume(keyResolver.extractUsername(args));
+        blackhole.consume(fixedWindowBucketResolver.resolveBucketKey(
+                keyResolver.baseKey(definition, definition.getFixedWindowKeyStrategy(), metadata),
+                definition.getFixedWindowDuration()));
+        blackhole.consume(slidingWindowResolver.resolveKey(
+                keyResolver.baseKey(definition, definition.getSlidingWindowKeyStrategy(), metadata)));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        RateLimiterDefinition definition = legacyDefinition(rateLimiter);
+        blackhole.consume(Arrays.stream(args)
+                .map(arg -> arg instanceof String s && s.contains("@") ? s : null)
+                .filter(name -> name != null && !name.isBlank())
+                .findFirst()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT)));
+        String fixedBase = legacyResolve(definition.getName(), definition.getFixedWindowKeyStrategy());
+        long bucket = Instant.now(CLOCK).getEpochSecond() / Math.max(1, definition.getFixedWindowDuration().getSeconds());
+        blackhole.consume(String.format("%s:fw:%d", fixedBase, bucket));
+        String slidingBase = legacyResolve(definition.getName(), definition.getSlidingWindowKeyStrategy());
+        blackhole.consume(String.format("%s:sw", slidingBase));
+    }
+
+    @RateLimiter(
+            name = "login-rate-limiter",
+            fixedWindowKey = RateLimitKeyStrategy.IP,
+            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME_TENANT
+    )
+    @SuppressWarnings("unused")
+    private void limited(String username) {
+    }
+
+    private RateLimiterDefinition legacyDefinition(RateLimiter limiter) {
+        RateLimitingProperties.Window fixed = properties.getFixedWindow();
+        RateLimitingProperties.Window sliding = properties.getSlidingWindow();
+        return RateLimiterDefinition.builder()
+                .name(limiter.name())
+                .fixedWindowKeyStrategy(limiter.fixedWindowKey())
+                .slidingWindowKeyStrategy(limiter.slidingWindowKey())
+                .fixedWindowLimit(limiter.fixedWindowLimit() > 0 ? limiter.fixedWindowLimit() : fixed.getLimit())
+                .fixedWindowDuration(limiter.fixedWindowSeconds() > 0
+                        ? Duration.ofSeconds(limiter.fixedWindowSeconds()) : fixed.getDuration())
+                .slidingWindowLimit(limiter.slidingWindowLimit() > 0 ? limiter.slidingWindowLimit() : sliding.getLimit())
+                .slidingWindowDuration(limiter.slidingWindowSeconds() > 0
+                        ? Duration.ofSeconds(limiter.slidingWindowSeconds()) : sliding.getDuration())
+                .build();
+    }
+
+    private String legacyResolve(String limiterName, RateLimitKeyStrategy strategy) {
+        String ip = legacySanitize(metadata.ip());
+        String username = legacySanitize(metadata.username());
+        String tenant = legacySanitize(metadata.tenant());
+        String safeLimiterName = legacySanitize(limiterName);
+        return switch (strategy) {
+            case IP -> String.format("rl:%s:ip:%s", safeLimiterName, ip);
+            case IP_USERNAME -> String.format("rl:%s:ip-user:%s:%s", safeLimiterName, ip, username);
+            case IP_USERNAME_TENANT -> String.format("rl:%s:ip-user-tenant:%s:%s:%s", safeLimiterName, ip, username, tenant);
+        };
+    }
+
+    private static String legacySanitize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9:@\\-\\.]", "_");
+    }
+}
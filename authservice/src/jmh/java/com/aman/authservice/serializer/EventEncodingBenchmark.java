@@ -0,0 +1,119 @@
+package com.aman.authservice.serializer;
+
+import com.aman.authservice.events.UserLoggedInEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.compress.Compression;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.utils.ByteBufferOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of the JSON and compact encodings of {@link UserLoggedInEvent}.
+ * <p>
+ * {@code encode*}/{@code decode*} time a single record. {@code batch*} encode a 100-event producer batch and run it
+ * through Kafka's own compression codec; their time is per event. {@code batchJsonGzip} is the current production
+ * setting. Record sizes are measured by {@code CompactEventCodecTest}. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventEncodingBenchmark {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36";
+    private static final int BATCH = 100;
+
+    private final UserEventSerializer json = new UserEventSerializer(EventEncoding.JSON);
+    private final UserEventSerializer compact = new UserEventSerializer(EventEncoding.COMPACT);
+    private final ObjectMapper reader = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private UserLoggedInEvent[] events;
+    private byte[] jsonRecord;
+    private byte[] compactRecord;
+
+    @Setup
+    public void setUp() {
+        events = new UserLoggedInEvent[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            events[i] = new UserLoggedInEvent(UUID.randomUUID().toString(), "203.0.113." + i, USER_AGENT);
+        }
+        jsonRecord = json.serialize("t", events[0]);
+        compactRecord = compact.serialize("t", events[0]);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return json.serialize("t", events[0]);
+    }
+
+    @Benchmark
+    public byte[] encodeCompact() {
+        return compact.serialize("t", events[0]);
+    }
+
+    @Benchmark
+    public Object decodeJson() throws IOException {
+        return reader.readValue(jsonRecord, UserLoggedInEvent.class);
+    }
+
+    @Benchmark
+    public Object decodeCompact() {
+        return CompactEventCodec.decode(compactRecord);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBufferOutputStream batchJsonGzip() throws IOException {
+        return batch(json, Compression.gzip().build());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBufferOutputStream batchJsonLz4() throws IOException {
+        return batch(json, Compression.lz4().build());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBufferOutputStream batchCompactNone() throws IOException {
+        return batch(compact, Compression.NONE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBufferOutputStream batchCompactLz4() throws IOException {
+        return batch(compact, Compression.lz4().build());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBufferOutputStream batchCompactGzip() throws IOException {
+        return batch(compact, Compression.gzip().build());
+    }
+
+    private ByteBufferOutputStream batch(UserEventSerializer serializer, Compression compression) throws IOException {
+        ByteBufferOutputStream buffer = new ByteBufferOutputStream(16 * 1024);
+        try (OutputStream out = compression.wrapForOutput(buffer, RecordBatch.CURRENT_MAGIC_VALUE)) {
+            for (UserLoggedInEvent event : events) {
+                out.write(serializer.serialize("t", event));
+            }
+        }
+        return buffer;
+    }
+}
@@ -1,12 +1,18 @@
 package com.aman.authservice;
 
+import com.aman.authservice.config.DeliveryProperties;
+import com.aman.authservice.config.EventDispatchProperties;
+import com.aman.authservice.config.OutboxProperties;
 import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.config.TopicProvisioningProperties;
+import com.aman.authservice.config.TopicRoutingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(RateLimitingProperties.class)
+@EnableConfigurationProperties({RateLimitingProperties.class, OutboxProperties.class, EventDispatchProperties.class,
+		DeliveryProperties.class, TopicRoutingProperties.class, TopicProvisioningProperties.class})
 public class AuthserviceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,68 @@
+package com.aman.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Delivery class of each dispatched event type, and the settings of the telemetry producer.
+ */
+@Data
+@ConfigurationProperties(prefix = "sentinel.delivery")
+public class DeliveryProperties {
+
+    public enum DeliveryClass {
+        /**
+         * {@code acks=all}, idempotent, acknowledged before the event counts as sent; spilled to disk otherwise.
+         * The acknowledgement is awaited by the dispatcher's sender thread, not by the caller.
+         */
+        DURABLE,
+        /**
+         * Separate {@code acks=1} producer tuned for throughput; fire-and-forget, so a broker failover can lose events.
+         */
+        TELEMETRY
+    }
+
+    /**
+     * Class of event types not listed in {@link #eventTypes}.
+     */
+    private DeliveryClass defaultClass = DeliveryClass.DURABLE;
+
+    /**
+     * Delivery class per event class name. Events written through the outbox are always durable.
+     */
+    private Map<String, DeliveryClass> eventTypes = new HashMap<>(Map.of(
+            "UserLoginFailedEvent", DeliveryClass.TELEMETRY,
+            "TokenRefreshedEvent", DeliveryClass.TELEMETRY,
+            "UserActivitySummaryEvent", DeliveryClass.TELEMETRY));
+
+    private Telemetry telemetry = new Telemetry();
+
+    public DeliveryClass classOf(String eventType) {
+        return eventTypes.getOrDefault(eventType, defaultClass);
+    }
+
+    @Data
+    public static class Telemetry {
+        private String acks = "1";
+        /**
+         * lz4 has a pure-Java fallback; zstd needs its native library, which the Alpine image may lack.
+         */
+        private String compressionType = "lz4";
+        private int batchSize = 128 * 1024;
+        private Duration linger = Duration.ofMillis(50);
+        private long bufferMemory = 16L * 1024 * 1024;
+        /**
+         * How long a request thread may block when the telemetry buffer is full before the event is dropped.
+         */
+        private Duration maxBlock = Duration.ofMillis(50);
+        private Duration requestTimeout = Duration.ofSeconds(10);
+        /**
+         * Must be at least {@code linger + requestTimeout}.
+         */
+        private Duration deliveryTimeout = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,94 @@
+package com.aman.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for the buffered, non-transactional event dispatcher and its disk spill.
+ */
+@Data
+@ConfigurationProperties(prefix = "sentinel.event-dispatch")
+public class EventDispatchProperties {
+
+    /**
+     * Events held in memory waiting for the sender; further events spill to disk.
+     */
+    private int bufferCapacity = 10_000;
+
+    /**
+     * Maximum number of events sent to Kafka before waiting for their acknowledgements.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the sender waits for a first event before checking the spill again.
+     */
+    private Duration linger = Duration.ofMillis(50);
+
+    /**
+     * Upper bound on sending one batch and waiting for its acknowledgements; events still unsent when it passes
+     * are spilled.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Pause after a failed send before spilled events are replayed.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Replays after which the oldest spilled event, if it keeps failing with a non-retriable error, is moved to the
+     * parked spill so the events behind it can go out.
+     */
+    private int maxAttempts = 5;
+
+    private Spill spill = new Spill();
+    private Coalescing coalescing = new Coalescing();
+
+    @Data
+    public static class Spill {
+        /**
+         * Directory of the memory-mapped spill segments. Blank disables spilling; overflow is then dropped.
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/authservice-event-spill";
+        private int segmentBytes = 64 * 1024 * 1024;
+        /**
+         * Segments kept on disk at most; events beyond them are dropped.
+         */
+        private int maxSegments = 16;
+        /**
+         * Segments of the parked spill ({@code parked/} under the directory), which keeps events given up on for
+         * inspection; events beyond them are dropped.
+         */
+        private int parkedMaxSegments = 1;
+    }
+
+    @Data
+    public static class Coalescing {
+        private boolean enabled = false;
+        /**
+         * Event classes folded per user; everything else is dispatched as is.
+         */
+        private Set<String> eventTypes = new HashSet<>(Set.of("TokenRefreshedEvent", "UserLoginFailedEvent"));
+        /**
+         * Time from the first folded event until its summary is emitted.
+         */
+        private Duration window = Duration.ofSeconds(10);
+        /**
+         * How often windows are checked; a summary is emitted at most this long after its window closes.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+        /**
+         * Users with open summaries at most; events of further users are dispatched as is.
+         */
+        private int maxKeys = 100_000;
+        /**
+         * Distinct IPs listed per summary.
+         */
+        private int maxDistinctIps = 16;
+    }
+}
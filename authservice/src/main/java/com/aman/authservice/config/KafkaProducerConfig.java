@@ -1,14 +1,19 @@
 package com.aman.authservice.config;
 
+import com.aman.authservice.serializer.EventEncoding;
 import com.aman.authservice.serializer.UserEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
@@ -16,12 +21,13 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Production-ready Kafka producer configuration with:
+ * Production-ready Kafka producer configuration. The primary (durable) producer has:
  * - Reliable delivery (acks=all)
  * - Idempotent producer (prevents duplicates)
  * - Retry mechanism with exponential backoff
  * - Compression for better performance
  * - Proper timeout configurations
+ * A second producer with its own buffer carries telemetry events (see {@link DeliveryProperties}).
  */
 @Slf4j
 @Configuration
@@ -39,26 +45,43 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.producer.delivery-timeout-ms:120000}")
     private Integer deliveryTimeoutMs;
 
+    @Value("${spring.kafka.producer.max-block-ms:5000}")
+    private Long maxBlockMs;
+
     @Value("${spring.kafka.producer.enable-idempotence:true}")
     private Boolean enableIdempotence;
 
     @Value("${spring.kafka.producer.compression-type:gzip}")
     private String compressionType;
 
+    @Value("${spring.kafka.producer.event-encoding:JSON}")
+    private EventEncoding eventEncoding;
+
+    /**
+     * Shared with {@code UserEventProducer}, which serializes outbox and dispatched events up front.
+     */
+    @Bean
+    public UserEventSerializer userEventSerializer() {
+        return new UserEventSerializer(eventEncoding);
+    }
+
     /**
      * Creates producer factory with production-ready settings.
      * Configuration ensures exactly-once semantics and reliable delivery.
      */
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    @Primary
+    public ProducerFactory<String, Object> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         
         // Bootstrap servers
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "authservice-durable");
         
         // Serializers
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UserEventSerializer.class);
+        props.put(UserEventSerializer.ENCODING_CONFIG, eventEncoding.name());
         
         // Reliability settings
         props.put(ProducerConfig.ACKS_CONFIG, "all"); // Wait for all replicas
@@ -69,6 +92,9 @@ public class KafkaProducerConfig {
         // Timeouts
         props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
         props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        // Bounds how long send() blocks on missing metadata or a full buffer (Kafka default: 60s); the dispatcher's
+        // sender thread would otherwise stall for that long per event while the broker is unreachable
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
 
         props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
         props.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384); // 16KB batch size
@@ -77,19 +103,67 @@ public class KafkaProducerConfig {
         // Batching and buffer settings
         props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432); // 32MB buffer
         
-        log.info("Kafka producer factory configured | bootstrapServers={} | enableIdempotence={} | compression={}",
-                bootstrapServers, enableIdempotence, compressionType);
+        log.info("Kafka producer factory configured | bootstrapServers={} | enableIdempotence={} | compression={} | encoding={}",
+                bootstrapServers, enableIdempotence, compressionType, eventEncoding);
         
-        return new DefaultKafkaProducerFactory<>(props);
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), userEventSerializer());
+        // Binds the client's own metrics (kafka.producer.record.queue.time.avg, batch.size.avg,
+        // buffer.available.bytes, ...) as gauges for tuning linger.ms and batch.size
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     /**
      * Creates KafkaTemplate with transaction support for exactly-once delivery.
      */
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory());
+    @Primary
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
         template.setObservationEnabled(true); // Enable Micrometer metrics
         return template;
     }
+
+    /**
+     * Producer for telemetry events: leader-only acks, larger batches and a separate buffer, so telemetry bursts
+     * never delay durable events in the primary producer's accumulator.
+     */
+    @Bean
+    public ProducerFactory<String, Object> telemetryProducerFactory(DeliveryProperties deliveryProperties,
+                                                                    MeterRegistry meterRegistry) {
+        DeliveryProperties.Telemetry telemetry = deliveryProperties.getTelemetry();
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "authservice-telemetry");
+        props.put(UserEventSerializer.ENCODING_CONFIG, eventEncoding.name());
+
+        props.put(ProducerConfig.ACKS_CONFIG, telemetry.getAcks());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false); // Requires acks=all
+        props.put(ProducerConfig.RETRIES_CONFIG, retries);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) telemetry.getRequestTimeout().toMillis());
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) telemetry.getDeliveryTimeout().toMillis());
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, telemetry.getMaxBlock().toMillis());
+
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, telemetry.getCompressionType());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, telemetry.getBatchSize());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) telemetry.getLinger().toMillis());
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, telemetry.getBufferMemory());
+
+        log.info("Kafka telemetry producer factory configured | acks={} | compression={} | batchSize={} | linger={}",
+                telemetry.getAcks(), telemetry.getCompressionType(), telemetry.getBatchSize(), telemetry.getLinger());
+
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), userEventSerializer());
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> telemetryKafkaTemplate(
+            @Qualifier("telemetryProducerFactory") ProducerFactory<String, Object> telemetryProducerFactory) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(telemetryProducerFactory);
+        template.setObservationEnabled(true);
+        return template;
+    }
 }
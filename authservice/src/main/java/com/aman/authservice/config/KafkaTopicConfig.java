@@ -0,0 +1,57 @@
+package com.aman.authservice.config;
+
+import com.aman.authservice.eventProducer.EventTopicRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Declares the user event topics so they are created with enough partitions for the consumer concurrency, instead of
+ * being auto-created by the broker on first publish.
+ */
+@Slf4j
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${spring.kafka.producer.bootstrap-servers}")
+    private String bootstrapServers;
+
+    /**
+     * Admin client settings follow the producer's bootstrap servers; Boot's default admin would use
+     * {@code spring.kafka.bootstrap-servers}, which this service does not set.
+     */
+    @Bean
+    public KafkaAdmin kafkaAdmin(TopicProvisioningProperties properties) {
+        KafkaAdmin admin = new KafkaAdmin(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) properties.getAdminTimeout().toMillis()));
+        admin.setAutoCreate(properties.isEnabled());
+        admin.setModifyTopicConfigs(true); // Apply retention changes to existing topics
+        admin.setOperationTimeout((int) properties.getAdminTimeout().toSeconds());
+        return admin;
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics userEventTopics(TopicProvisioningProperties properties, EventTopicRouter topicRouter) {
+        Set<String> names = topicRouter.declaredTopics();
+        NewTopic[] topics = names.stream()
+                .map(name -> TopicBuilder.name(name)
+                        .partitions(properties.getPartitions())
+                        .replicas(properties.getReplicationFactor())
+                        .config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(properties.getRetention().toMillis()))
+                        .build())
+                .toArray(NewTopic[]::new);
+        log.info("User event topics declared | topics={} | partitions={} | replicationFactor={} | retention={}",
+                names, properties.getPartitions(), properties.getReplicationFactor(), properties.getRetention());
+        return new KafkaAdmin.NewTopics(topics);
+    }
+}
@@ -0,0 +1,45 @@
+package com.aman.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the transactional outbox and its Kafka relay.
+ */
+@Data
+@ConfigurationProperties(prefix = "sentinel.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether this node relays pending events. Events are written to the outbox either way.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Maximum number of events claimed and published per relay batch.
+     */
+    private int batchSize = 200;
+
+    /**
+     * Pause between relay runs once the outbox has been drained.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Upper bound on waiting for the broker to acknowledge one batch.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long a relay owns the events it claimed. Must exceed the send timeout; claims of a relay that died are
+     * picked up by another relay once it has passed.
+     */
+    private Duration claimTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Failed attempts after which an event that keeps failing with a non-retriable error is parked.
+     */
+    private int maxAttempts = 5;
+}
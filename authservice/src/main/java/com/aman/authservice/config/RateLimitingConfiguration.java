@@ -1,16 +1,28 @@
 package com.aman.authservice.config;
 
+import com.aman.authservice.ratelimit.filter.RateLimitFilter;
+import com.aman.authservice.ratelimit.policy.RateLimitPolicyStore;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scripting.support.ResourceScriptSource;
 
 import java.time.Clock;
+import java.util.List;
 
 @Configuration
+@EnableScheduling
 public class RateLimitingConfiguration {
 
     @Bean
@@ -19,34 +31,86 @@ public class RateLimitingConfiguration {
     }
 
     @Bean
-    public DefaultRedisScript<Long> fixedWindowScript() {
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setResultType(Long.class);
-        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("lua/fixed_window.lua")));
-        return script;
+    public RedisScript<List<Long>> fixedWindowScript() {
+        return longListScript("lua/fixed_window.lua");
     }
 
     @Bean
-    public DefaultRedisScript<Long> slidingWindowScript() {
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setResultType(Long.class);
-        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("lua/sliding_window.lua")));
-        return script;
+    public RedisScript<List<Long>> slidingWindowScript() {
+        return longListScript("lua/sliding_window.lua");
     }
 
     @Bean
-    public DefaultRedisScript<Long> bruteForceScript() {
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setResultType(Long.class);
-        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("lua/brute_force.lua")));
+    public RedisScript<List<Long>> gcraScript() {
+        return longListScript("lua/gcra.lua");
+    }
+
+    @Bean
+    public RedisScript<List<Long>> leaseScript() {
+        return longListScript("lua/lease.lua");
+    }
+
+    @Bean
+    public RedisScript<List<Long>> concurrencyAcquireScript() {
+        return longListScript("lua/concurrency_acquire.lua");
+    }
+
+    @Bean
+    public RedisScript<List<Long>> bruteForceScript() {
+        return longListScript("lua/brute_force.lua");
+    }
+
+    @Bean
+    public RedisScript<List<Long>> credentialStuffingScript() {
+        return longListScript("lua/credential_stuffing.lua");
+    }
+
+    /**
+     * Loads a rate-limit script. Every script returns a flat array of integers, which Redis delivers as
+     * {@code List<Long>}.
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Long>> longListScript(String path) {
+        DefaultRedisScript<List<Long>> script = new DefaultRedisScript<>();
+        script.setResultType((Class<List<Long>>) (Class<?>) List.class);
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
         return script;
     }
 
+    @Bean
+    public RedisMessageListenerContainer rateLimitPolicyListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           RateLimitPolicyStore policyStore,
+                                                                           RateLimitingProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(policyStore, new ChannelTopic(properties.getPolicy().getChannel()));
+        return container;
+    }
+
+    /**
+     * Runs the rate-limit filter ahead of the Spring Security chain so rejected requests skip authentication work.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
     @Bean
     public CircuitBreakerRegistry circuitBreakerRegistry() {
         return CircuitBreakerRegistry.ofDefaults();
     }
 
+    /**
+     * Publishes {@code resilience4j.circuitbreaker.state} and call metrics for the breakers of the registry above,
+     * which the resilience4j auto-configuration does not instrument because it is user-defined.
+     */
+    @Bean
+    public TaggedCircuitBreakerMetrics circuitBreakerMetrics(CircuitBreakerRegistry registry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry);
+    }
+
     @Bean
     public CircuitBreaker redisCircuitBreaker(CircuitBreakerRegistry registry) {
         return registry.circuitBreaker("redisRateLimiter");
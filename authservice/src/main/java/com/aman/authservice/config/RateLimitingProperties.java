@@ -23,9 +23,92 @@ public class RateLimitingProperties {
      */
     private String metricTag = "authservice";
 
+    /**
+     * Redis key layout. Switch to {@code MIGRATING} while nodes roll over from {@code LEGACY}, then to
+     * {@code HASH_TAGGED} once the longest lockout has elapsed.
+     */
+    private KeyLayout keyLayout = KeyLayout.LEGACY;
+
+    /**
+     * How client identities are written into Redis keys. Changing it starts fresh counters, like a key layout change.
+     */
+    private KeyEncoding keyEncoding = KeyEncoding.PLAIN;
+
+    private KeyReverseMap keyReverseMap = new KeyReverseMap();
+
+    /**
+     * Upper bound on waiting for the combined Redis gate checks of one request before failing open.
+     */
+    private Duration redisTimeout = Duration.ofMillis(500);
+
+    /**
+     * Where {@code @RateLimiter} is enforced. {@code FILTER} rejects before the request body is parsed.
+     */
+    private Enforcement enforcement = Enforcement.ASPECT;
+
+    /**
+     * Largest JSON body the filter buffers to read the username for username-keyed limiters.
+     */
+    private int peekMaxBytes = 16 * 1024;
+
     private Window fixedWindow = Window.defaults(5, Duration.ofMinutes(1));
     private Window slidingWindow = Window.defaults(10, Duration.ofMinutes(5));
+    private Gcra gcra = Gcra.defaults(20, Duration.ofMinutes(1), 10);
     private BruteForce bruteForce = BruteForce.defaults(3, Duration.ofMinutes(5), Duration.ofMinutes(15));
+    private Policy policy = new Policy();
+    private CredentialStuffing credentialStuffing = new CredentialStuffing();
+    private Tarpit tarpit = new Tarpit();
+    private HeavyHitters heavyHitters = new HeavyHitters();
+    private Lease lease = new Lease();
+    private Concurrency concurrency = new Concurrency();
+
+    public enum Enforcement {
+        /**
+         * Around the controller method, after body deserialization and validation.
+         */
+        ASPECT,
+        /**
+         * In a servlet filter, before the dispatcher; the aspect only checks what the filter could not.
+         */
+        FILTER
+    }
+
+    public enum KeyLayout {
+        /**
+         * Untagged keys ({@code rl:name:ip:...}, {@code bf:fail:ip:user}); only safe on a single Redis node.
+         */
+        LEGACY,
+        /**
+         * Writes hash-tagged keys, but also honours brute-force locks still held under legacy keys.
+         */
+        MIGRATING,
+        /**
+         * Hash-tagged keys only ({@code rl:{name:ip:...}:fw:n}, {@code bf:{ip:user}:lock}); Redis Cluster safe.
+         */
+        HASH_TAGGED
+    }
+
+    public enum KeyEncoding {
+        /**
+         * Sanitized identity parts as-is ({@code rl:{login:ip-user:203.0.113.7:bob@example.com}:sw}).
+         */
+        PLAIN,
+        /**
+         * Identity parts replaced by a 16-character digest under a 4-character limiter code
+         * ({@code rl:{Xk3a:Qm9iQGV4YW1wbGUu}:sw}).
+         */
+        HASHED
+    }
+
+    @Data
+    public static class KeyReverseMap {
+        /**
+         * Records digest -> original key parts for {@link KeyEncoding#HASHED} keys. Troubleshooting only.
+         */
+        private boolean enabled = false;
+        private String hashKey = "rl:keymap";
+        private Duration ttl = Duration.ofHours(1);
+    }
 
     @Data
     public static class Window {
@@ -40,11 +123,140 @@ public class RateLimitingProperties {
         }
     }
 
+    @Data
+    public static class Gcra {
+        /**
+         * Sustained number of unit-cost requests allowed per period.
+         */
+        private int limit;
+        private Duration period;
+        /**
+         * Number of unit-cost requests that may arrive back to back before the sustained rate applies.
+         */
+        private int burst;
+
+        public static Gcra defaults(int limit, Duration period, int burst) {
+            Gcra gcra = new Gcra();
+            gcra.setLimit(limit);
+            gcra.setPeriod(period);
+            gcra.setBurst(burst);
+            return gcra;
+        }
+    }
+
+    @Data
+    public static class Policy {
+        /**
+         * Redis hash holding per-tenant policies ({@code tenant:limiter -> JSON}).
+         */
+        private String hashKey = "rl:policies";
+        /**
+         * Pub/sub channel used to tell every node to reload its local policy cache.
+         */
+        private String channel = "rl:policies:changed";
+        /**
+         * Safety-net reload interval in case a change notification is missed.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class CredentialStuffing {
+        private boolean enabled = true;
+        /**
+         * Window over which distinct usernames per IP and distinct IPs per username are counted.
+         */
+        private Duration window = Duration.ofMinutes(10);
+        /**
+         * Distinct usernames with failed logins from one IP before the IP is blocked (password spraying).
+         */
+        private int usernamesPerIp = 20;
+        /**
+         * Distinct IPs with failed logins for one username before the account is throttled (distributed guessing).
+         */
+        private int ipsPerUsername = 10;
+        private Duration ipBlock = Duration.ofMinutes(15);
+        private Duration accountBlock = Duration.ofMinutes(5);
+        /**
+         * Maximum number of active blocks remembered locally to skip Redis for blocked subjects.
+         */
+        private long localCacheSize = 100_000;
+    }
+
+    @Data
+    public static class Tarpit {
+        /**
+         * Delays rejections of limiters marked {@code tarpit}; requires {@code FILTER} enforcement.
+         */
+        private boolean enabled = false;
+        /**
+         * Base delay applied to a flagged response.
+         */
+        private Duration delay = Duration.ofSeconds(3);
+        /**
+         * Random extra delay of up to this much, so callers cannot calibrate against a fixed delay.
+         */
+        private Duration jitter = Duration.ofSeconds(1);
+        /**
+         * Delayed responses held at once; beyond this, flagged callers are answered immediately.
+         */
+        private int maxPending = 10_000;
+        /**
+         * Resolution of the timer wheel.
+         */
+        private Duration tickDuration = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class HeavyHitters {
+        private boolean enabled = true;
+        /**
+         * Keys tracked per source and dimension; memory is fixed at this many entries each.
+         */
+        private int capacity = 256;
+        /**
+         * Top ranks exported as gauges per source and dimension.
+         */
+        private int metricRanks = 5;
+        /**
+         * Interval at which all counts are halved so the ranking follows recent traffic.
+         */
+        private Duration decayInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Lease {
+        /**
+         * Maximum number of buckets with a local quota lease.
+         */
+        private long localCacheSize = 10_000;
+        /**
+         * Leases of buckets not used for this long are dropped; their unspent quota is forfeited.
+         */
+        private Duration idleExpiry = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Concurrency {
+        /**
+         * Default expiry of an unreleased permit.
+         */
+        private Duration lease = Duration.ofSeconds(30);
+        /**
+         * Reported as Retry-After on rejection; in-flight calls usually finish within this.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
     @Data
     public static class BruteForce {
         private int limit;
         private Duration duration;
         private Duration lockout;
+        /**
+         * Maximum number of active lockouts remembered locally to skip Redis for locked-out clients.
+         */
+        private long localCacheSize = 100_000;
 
         public static BruteForce defaults(int limit, Duration duration, Duration lockout) {
             BruteForce bruteForce = new BruteForce();
@@ -100,6 +100,8 @@ public class SecurityConfig implements WebMvcConfigurer {
      * - CSRF disabled for stateless JWT authentication
      * - CORS disabled (TODO: Configure CORS for production with specific allowed origins)
      * - Public endpoints: /auth/v1/** and /health
+     * - Heavy-hitter (client usernames and IPs) and topic-partition (can add partitions) actuator endpoints:
+     *   ADMIN only
      * - All other endpoints require authentication
      * - Stateless session management (no session cookies)
      * - JWT filter added before UsernamePasswordAuthenticationFilter
@@ -124,6 +126,9 @@ public class SecurityConfig implements WebMvcConfigurer {
                                 "/auth/v1/**",  // Authentication endpoints
                                 "/health"       // Health check
                         ).permitAll()
+                        // Operator endpoints exposing client identities or changing Kafka topics
+                        .requestMatchers("/actuator/heavyhitters/**", "/actuator/topicpartitions/**")
+                        .hasAuthority("ADMIN")
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,39 @@
+package com.aman.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the user event topics created at startup.
+ */
+@Data
+@ConfigurationProperties(prefix = "sentinel.topics")
+public class TopicProvisioningProperties {
+
+    /**
+     * Off: topics are left to broker auto-creation, usually with a single partition.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Partitions per topic; an upper bound on consumer threads per group. Existing topics with fewer partitions are
+     * expanded at startup, never shrunk.
+     */
+    private int partitions = 6;
+
+    private short replicationFactor = 1;
+
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Largest partition count the {@code topicpartitions} endpoint will expand a topic to.
+     */
+    private int maxPartitions = 64;
+
+    /**
+     * Upper bound on waiting for the broker during admin operations.
+     */
+    private Duration adminTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,26 @@
+package com.aman.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for routing user events to topics by event type.
+ */
+@Data
+@ConfigurationProperties(prefix = "sentinel.topic-routing")
+public class TopicRoutingProperties {
+
+    /**
+     * Off: every event goes to {@code spring.kafka.topic-json.name}. Enable only once the consumers listen on the
+     * routed topics.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Topic per event class name; unlisted types go to {@code spring.kafka.topic-json.name}.
+     */
+    private Map<String, String> routes = new HashMap<>();
+}
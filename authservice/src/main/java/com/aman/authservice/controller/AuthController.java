@@ -3,7 +3,9 @@ package com.aman.authservice.controller;
 import com.aman.authservice.dto.ChangePasswordDTO;
 import com.aman.authservice.dto.UserInfoDTO;
 import com.aman.authservice.entities.RefreshToken;
+import com.aman.authservice.ratelimit.annotation.ConcurrencyLimit;
 import com.aman.authservice.ratelimit.annotation.RateLimiter;
+import com.aman.authservice.ratelimit.model.RateLimitAlgorithm;
 import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
 import com.aman.authservice.response.JwtResponseDTO;
 import com.aman.authservice.service.JwtService;
@@ -38,15 +40,22 @@ public class AuthController {
 
     /**
      * Registers a new user and returns access and refresh tokens.
+     * At most two signups per IP are processed at once; each holds a BCrypt hash and a database connection.
+     * Besides its windows, a signup costs five units of the per-IP GCRA budget it shares with token refreshes.
      *
      * @param userInfoDto User information DTO (validated)
      * @return JWT response with access token, refresh token, and user ID
      */
     @RateLimiter(
             name = "register-rate-limiter",
+            algorithm = RateLimitAlgorithm.WINDOW_AND_GCRA,
             fixedWindowKey = RateLimitKeyStrategy.IP,
-            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME_TENANT
+            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME_TENANT,
+            gcraKey = RateLimitKeyStrategy.IP,
+            gcraBudget = "auth-ip-budget",
+            cost = 5
     )
+    @ConcurrencyLimit(name = "register-concurrency", key = RateLimitKeyStrategy.IP, maxInFlight = 2)
     @PostMapping({"/signup", "/register"})
     public ResponseEntity<JwtResponseDTO> signup(
             @Valid @RequestBody UserInfoDTO userInfoDto) {
@@ -0,0 +1,40 @@
+package com.aman.authservice.controller;
+
+import com.aman.authservice.ratelimit.resolver.KeyDigestReverseMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin API to reverse-map digests found in hashed rate-limit keys.
+ * Only answers while {@code sentinel.rate-limit.key-reverse-map.enabled} is on.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/v1/rate-limit/keys")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class RateLimitKeyController {
+
+    private final KeyDigestReverseMap reverseMap;
+
+    /**
+     * Returns the original key parts a digest stands for.
+     *
+     * @param digest 16-character digest taken from a hashed key
+     * @return the original parts, 404 if unknown, or 409 if reverse mapping is disabled
+     */
+    @GetMapping("/{digest}")
+    public ResponseEntity<String> reverse(@PathVariable String digest) {
+        if (!reverseMap.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Key reverse mapping is disabled");
+        }
+        return reverseMap.lookup(digest)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
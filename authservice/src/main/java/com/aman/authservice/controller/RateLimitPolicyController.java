@@ -0,0 +1,122 @@
+package com.aman.authservice.controller;
+
+import com.aman.authservice.ratelimit.model.RateLimitPolicy;
+import com.aman.authservice.ratelimit.policy.RateLimitPolicyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+
+/**
+ * Admin API for per-tenant rate-limit policies.
+ * Changes are stored in Redis and picked up by every node without a restart. Tenant ids are case-insensitive; a
+ * tenant's policy only applies to principals holding the {@code TENANT_<id>} authority.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/v1/rate-limit/policies")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class RateLimitPolicyController {
+
+    private final RateLimitPolicyStore policyStore;
+
+    /**
+     * Lists the policies currently cached on this node.
+     *
+     * @return all known policies
+     */
+    @GetMapping
+    public ResponseEntity<Collection<RateLimitPolicy>> list() {
+        return ResponseEntity.ok(policyStore.findAll());
+    }
+
+    /**
+     * Returns the policy for a tenant and limiter.
+     *
+     * @param tenant tenant identifier, or {@code *} for the default policy
+     * @param limiter limiter name as declared in {@code @RateLimiter}
+     * @return the policy, or 404 if none exists
+     */
+    @GetMapping("/{tenant}/{limiter}")
+    public ResponseEntity<RateLimitPolicy> get(@PathVariable String tenant, @PathVariable String limiter) {
+        return policyStore.find(tenant, limiter)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Creates or replaces the policy for a tenant and limiter.
+     *
+     * @param tenant tenant identifier, or {@code *} for the default policy
+     * @param limiter limiter name as declared in {@code @RateLimiter}
+     * @param policy limit overrides; null fields inherit the annotation defaults
+     * @return the stored policy
+     * @throws IllegalArgumentException if a limit or duration is not positive
+     */
+    @PutMapping("/{tenant}/{limiter}")
+    public ResponseEntity<RateLimitPolicy> put(@PathVariable String tenant,
+                                               @PathVariable String limiter,
+                                               @RequestBody RateLimitPolicy policy) {
+        policy.setTenant(RateLimitPolicy.normalizeTenant(tenant));
+        policy.setLimiter(limiter);
+        validate(policy);
+        log.info("Rate limit policy update requested | tenant={} | limiter={}", tenant, limiter);
+        return ResponseEntity.ok(policyStore.save(policy));
+    }
+
+    /**
+     * Removes the policy for a tenant and limiter; the limiter falls back to its defaults.
+     *
+     * @return 204 if removed, 404 if no policy existed
+     */
+    @DeleteMapping("/{tenant}/{limiter}")
+    public ResponseEntity<Void> delete(@PathVariable String tenant, @PathVariable String limiter) {
+        log.info("Rate limit policy removal requested | tenant={} | limiter={}", tenant, limiter);
+        return policyStore.delete(tenant, limiter)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Forces this node to reload policies from Redis.
+     *
+     * @return policies after the reload
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Collection<RateLimitPolicy>> reload() {
+        policyStore.reload();
+        return ResponseEntity.ok(policyStore.findAll());
+    }
+
+    private void validate(RateLimitPolicy policy) {
+        if (!StringUtils.hasText(policy.getTenant()) || !StringUtils.hasText(policy.getLimiter())) {
+            throw new IllegalArgumentException("Tenant and limiter are required");
+        }
+        requirePositive("cost", policy.getCost());
+        requirePositive("fixedWindowLimit", policy.getFixedWindowLimit());
+        requirePositive("fixedWindowSeconds", policy.getFixedWindowSeconds());
+        requirePositive("slidingWindowLimit", policy.getSlidingWindowLimit());
+        requirePositive("slidingWindowSeconds", policy.getSlidingWindowSeconds());
+        requirePositive("gcraLimit", policy.getGcraLimit());
+        requirePositive("gcraPeriodSeconds", policy.getGcraPeriodSeconds());
+        requirePositive("gcraBurst", policy.getGcraBurst());
+    }
+
+    private static void requirePositive(String field, Integer value) {
+        if (value != null && value <= 0) {
+            throw new IllegalArgumentException(field + " must be positive");
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.aman.authservice.events.UserLoginFailedEvent;
 import com.aman.authservice.exception.TokenValidationException;
 import com.aman.authservice.exception.UserNotFoundException;
 import com.aman.authservice.ratelimit.annotation.RateLimiter;
+import com.aman.authservice.ratelimit.model.RateLimitAlgorithm;
 import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
 import com.aman.authservice.ratelimit.service.BruteForceProtectionService;
 import com.aman.authservice.request.AuthRequestDTO;
@@ -55,7 +56,10 @@ public class TokenController {
 
     /**
      * Authenticates a user and returns access and refresh tokens.
-     * Extracts IP address and User-Agent from request for logging.
+     * Extracts IP address and User-Agent from request for logging. Rejections by the limiter, including callers
+     * locked out by failed attempts, are answered at once with the shipped defaults ({@code ASPECT} enforcement,
+     * tarpit off). They are delayed through the tarpit only when {@code sentinel.rate-limit.tarpit.enabled} is set
+     * and {@code sentinel.rate-limit.enforcement} is {@code FILTER}.
      *
      * @param authRequestDTO Authentication request DTO (validated)
      * @param request HTTP servlet request for extracting IP and User-Agent
@@ -64,7 +68,9 @@ public class TokenController {
     @RateLimiter(
             name = "login-rate-limiter",
             fixedWindowKey = RateLimitKeyStrategy.IP,
-            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME
+            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME,
+            bruteForceGuard = true,
+            tarpit = true
     )
     @PostMapping("/login")
     public ResponseEntity<JwtResponseDTO> login(
@@ -73,8 +79,8 @@ public class TokenController {
         String username = authRequestDTO.getUsername();
         log.info("Login attempt for user: {}", username);
 
+        // Brute-force lockout is checked by @RateLimiter together with the rate-limit windows
         String ipAddress = metadataExtractor.extractClientIp(request);
-        bruteForceProtectionService.ensureAllowed(ipAddress, username);
 
         try {
             // Authenticate user
@@ -88,16 +94,16 @@ public class TokenController {
             if (!authentication.isAuthenticated()) {
                 log.warn("Authentication failed for user: {} - not authenticated", username);
                 bruteForceProtectionService.recordFailure(ipAddress, username);
-                publishLoginFailedEvent(username, "Invalid credentials");
-                return ResponseEntity.<JwtResponseDTO>status(HttpStatus.UNAUTHORIZED).build();
+                publishLoginFailedEvent(username, "Invalid credentials", ipAddress);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
             // Get user ID
             String userId = userDetailsService.getUserByUsername(username);
             if (userId == null) {
                 log.error("User ID not found for authenticated user: {}", username);
-                publishLoginFailedEvent(username, "User ID not found");
-                return ResponseEntity.<JwtResponseDTO>status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                publishLoginFailedEvent(username, "User ID not found", ipAddress);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
             }
 
             // Create refresh token
@@ -106,14 +112,14 @@ public class TokenController {
                 refreshToken = refreshTokenService.createRefreshToken(username);
             } catch (Exception e) {
                 log.error("Failed to create refresh token for user: {}", username, e);
-                publishLoginFailedEvent(username, "Failed to create refresh token");
-                return ResponseEntity.<JwtResponseDTO>status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                publishLoginFailedEvent(username, "Failed to create refresh token", ipAddress);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
             }
 
             if (refreshToken == null) {
                 log.error("Refresh token is null for user: {}", username);
-                publishLoginFailedEvent(username, "Refresh token creation failed");
-                return ResponseEntity.<JwtResponseDTO>status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                publishLoginFailedEvent(username, "Refresh token creation failed", ipAddress);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
             }
 
             // Generate access token
@@ -129,15 +135,15 @@ public class TokenController {
             // Extract IP and User-Agent for logging
             String userAgent = extractUserAgent(request);
 
-            // Publish login success event
+            // Dispatch login success event; sent to Kafka off the request path
             try {
-                userEventProducer.publish(
+                userEventProducer.dispatch(
                         new UserLoggedInEvent(userId, ipAddress, userAgent),
                         userId
                 );
-                log.debug("Login success event published for user: {}", username);
+                log.debug("Login success event dispatched for user: {}", username);
             } catch (Exception e) {
-                log.error("Failed to publish login success event for user: {}", username, e);
+                log.error("Failed to dispatch login success event for user: {}", username, e);
                 // Non-critical error - login is successful, just log the event failure
             }
 
@@ -148,22 +154,23 @@ public class TokenController {
         } catch (BadCredentialsException ex) {
             log.warn("Bad credentials for user: {}", username);
             bruteForceProtectionService.recordFailure(ipAddress, username);
-            publishLoginFailedEvent(username, "Bad credentials");
-            return ResponseEntity.<JwtResponseDTO>status(HttpStatus.UNAUTHORIZED).build();
+            publishLoginFailedEvent(username, "Bad credentials", ipAddress);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } catch (UserNotFoundException ex) {
             log.warn("User not found: {}", username);
             bruteForceProtectionService.recordFailure(ipAddress, username);
-            publishLoginFailedEvent(username, "User not found");
-            return ResponseEntity.<JwtResponseDTO>status(HttpStatus.UNAUTHORIZED).build();
+            publishLoginFailedEvent(username, "User not found", ipAddress);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } catch (Exception ex) {
             log.error("Unexpected error during authentication for user: {}", username, ex);
-            publishLoginFailedEvent(username, "Internal server error");
-            return ResponseEntity.<JwtResponseDTO>status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            publishLoginFailedEvent(username, "Internal server error", ipAddress);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
      * Refreshes an access token using a valid refresh token.
+     * Draws one unit per call from the per-IP GCRA budget shared with signups, on top of its windows.
      *
      * @param refreshTokenRequestDTO Refresh token request DTO (validated)
      * @param request HTTP servlet request
@@ -171,8 +178,11 @@ public class TokenController {
      */
     @RateLimiter(
             name = "token-rate-limiter",
+            algorithm = RateLimitAlgorithm.WINDOW_AND_GCRA,
             fixedWindowKey = RateLimitKeyStrategy.IP,
-            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME
+            slidingWindowKey = RateLimitKeyStrategy.IP_USERNAME,
+            gcraKey = RateLimitKeyStrategy.IP,
+            gcraBudget = "auth-ip-budget"
     )
     @PostMapping({"/refreshToken", "/token"})
     public ResponseEntity<JwtResponseDTO> refreshToken(
@@ -212,13 +222,14 @@ public class TokenController {
 
             // Publish event (non-critical)
             try {
-                userEventProducer.publish(
+                userEventProducer.dispatch(
                         new TokenRefreshedEvent(userInfo.getUserId()),
-                        userInfo.getUserId()
+                        userInfo.getUserId(),
+                        metadataExtractor.extractClientIp(request)
                 );
-                log.debug("Token refreshed event published for user: {}", userInfo.getUserId());
+                log.debug("Token refreshed event dispatched for user: {}", userInfo.getUserId());
             } catch (Exception e) {
-                log.error("Failed to publish token refresh event for user: {}", userInfo.getUserId(), e);
+                log.error("Failed to dispatch token refresh event for user: {}", userInfo.getUserId(), e);
             }
 
             log.info("Token refreshed successfully for user: {} (userId: {})",
@@ -251,20 +262,22 @@ public class TokenController {
     }
 
     /**
-     * Publishes login failed event.
+     * Dispatches a login failed event.
      *
      * @param username Username that failed to login
      * @param reason Reason for login failure
+     * @param ipAddress Client IP, recorded when failures are coalesced
      */
-    private void publishLoginFailedEvent(String username, String reason) {
+    private void publishLoginFailedEvent(String username, String reason, String ipAddress) {
         try {
-            userEventProducer.publish(
+            userEventProducer.dispatch(
                     new UserLoginFailedEvent(username, reason),
-                    username
+                    username,
+                    ipAddress
             );
-            log.debug("Login failed event published for user: {}", username);
+            log.debug("Login failed event dispatched for user: {}", username);
         } catch (Exception e) {
-            log.error("Failed to publish login failed event for user: {}", username, e);
+            log.error("Failed to dispatch login failed event for user: {}", username, e);
             // Non-critical error - just log the event failure
         }
     }
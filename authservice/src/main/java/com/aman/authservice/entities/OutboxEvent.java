@@ -0,0 +1,64 @@
+package com.aman.authservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An event written in the same transaction as the change it describes, waiting to be relayed to Kafka.
+ * Rows are deleted once the broker has acknowledged them; the id gives the publish order.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_message_key", columnList = "message_key"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    /**
+     * Kafka record key; events with the same key are published in id order.
+     */
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    /**
+     * The serialized record value, in the encoding configured when the event was written.
+     */
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Failed relay attempts so far.
+     */
+    private int attempts;
+
+    /**
+     * Set while a relay is publishing the event. Other relays skip it until then, and pick it up again if that relay
+     * died before finishing.
+     */
+    private Instant claimedUntil;
+
+    /**
+     * Set once the event failed {@code sentinel.outbox.max-attempts} times with a non-retriable error. Parked events
+     * are no longer relayed and no longer hold back later events of their key.
+     */
+    private Instant parkedAt;
+}
@@ -0,0 +1,325 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.EventDispatchProperties;
+import com.aman.authservice.serializer.UserEventSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking dispatch for high-volume events that are not tied to a database transaction.
+ * <p>
+ * Request threads only serialize the event and offer it to a bounded buffer. A dedicated sender thread drains the
+ * buffer in batches, sends each batch through the producer and waits for the acknowledgements. Events the broker did
+ * not acknowledge, and events offered while the buffer is full, are appended to an {@link EventSpillLog}. While the
+ * spill holds anything, newly drained events are appended behind it, so replay preserves the order in which events
+ * reached the sender. The spill is replayed once the retry backoff has passed, and survives restarts.
+ * Delivery is at least once: a batch that times out is spilled even if the broker stored part of it. The topic is
+ * resolved from the event type when a record is sent, so spilled events follow the current routing. A spilled event
+ * that keeps failing with a non-retriable error (authorization, record too large) is moved to a separate parked
+ * spill after {@code max-attempts} replays, so it cannot hold back everything behind it.
+ */
+@Slf4j
+@Service
+public class AsyncEventDispatcher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final EventDispatchProperties properties;
+    private final EventTopicRouter topicRouter;
+    private final EventPublishMetrics publishMetrics;
+    private final BlockingQueue<EventSpillLog.Entry> buffer;
+    private final EventSpillLog spill;
+    private final EventSpillLog parked;
+    private final Thread sender;
+    private final Counter sentCounter;
+    private final Counter overflowCounter;
+    private final Counter unavailableCounter;
+    private final Counter replayedCounter;
+    private final Counter droppedCounter;
+    private final Counter parkedCounter;
+
+    private volatile boolean running = true;
+    private long retryAtNanos = System.nanoTime();
+    /**
+     * Consecutive non-retriable failures of the current spill head; only touched by the sender thread.
+     */
+    private int headFailures;
+
+    public AsyncEventDispatcher(KafkaTemplate<String, Object> kafkaTemplate,
+                                EventDispatchProperties properties,
+                                EventTopicRouter topicRouter,
+                                EventPublishMetrics publishMetrics,
+                                MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.topicRouter = topicRouter;
+        this.publishMetrics = publishMetrics;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        this.spill = openSpill(properties.getSpill());
+        this.parked = spill != null ? openParked(properties.getSpill()) : null;
+
+        Gauge.builder("event_dispatch_buffered", buffer, BlockingQueue::size)
+                .description("Events waiting in memory for the sender")
+                .register(meterRegistry);
+        if (spill != null) {
+            Gauge.builder("event_dispatch_spill_segments", spill, EventSpillLog::segmentCount)
+                    .description("Spill segment files on disk")
+                    .register(meterRegistry);
+        }
+        this.sentCounter = Counter.builder("event_dispatch_sent_total")
+                .description("Events acknowledged by Kafka on the first attempt")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("event_dispatch_spilled_total")
+                .tag("reason", "overflow")
+                .description("Events spilled to disk")
+                .register(meterRegistry);
+        this.unavailableCounter = Counter.builder("event_dispatch_spilled_total")
+                .tag("reason", "unavailable")
+                .description("Events spilled to disk")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("event_dispatch_replayed_total")
+                .description("Spilled events acknowledged by Kafka on replay")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("event_dispatch_dropped_total")
+                .description("Events lost because both the buffer and the spill were full or unavailable")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("event_dispatch_parked_total")
+                .description("Spilled events moved aside after repeated non-retriable failures")
+                .register(meterRegistry);
+
+        this.sender = new Thread(this::run, "event-dispatcher");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * Hands an already serialized event to the sender. Never blocks on Kafka; when the buffer is full the event is
+     * written to the spill instead.
+     */
+    public void dispatch(String key, String eventType, byte[] payload) {
+        EventSpillLog.Entry entry = new EventSpillLog.Entry(key, eventType, payload);
+        if (buffer.offer(entry)) {
+            return;
+        }
+        if (spill(entry)) {
+            overflowCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        sender.interrupt();
+        sender.join(properties.getSendTimeout().toMillis());
+        List<EventSpillLog.Entry> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        remaining.forEach(this::spill);
+        if (spill != null) {
+            spill.close();
+        }
+        if (parked != null) {
+            parked.close();
+        }
+        log.info("Event dispatcher stopped | spilledOnShutdown={}", remaining.size());
+    }
+
+    private void run() {
+        List<EventSpillLog.Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                boolean replaying = spill != null && !spill.isEmpty();
+                long waitMillis = replaying && System.nanoTime() >= retryAtNanos ? 0 : properties.getLinger().toMillis();
+                EventSpillLog.Entry first = buffer.poll(waitMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, properties.getBatchSize() - 1);
+                }
+
+                if (replaying) {
+                    // Queue behind the spilled events so they are published first
+                    batch.forEach(this::spill);
+                    if (System.nanoTime() >= retryAtNanos) {
+                        replay();
+                    }
+                } else if (!batch.isEmpty()) {
+                    Throwable[] failures = sendAll(batch);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (failures[i] == null) {
+                            sentCounter.increment();
+                        } else if (spill(batch.get(i))) {
+                            unavailableCounter.increment();
+                        }
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.error("Event dispatcher iteration failed | error={}", ex.getMessage(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends the oldest spilled events and consumes the acknowledged prefix; the rest stays for the next attempt. A
+     * head entry that failed non-retriably {@code max-attempts} times in a row is parked and consumed as well.
+     */
+    private void replay() throws IOException {
+        List<EventSpillLog.Entry> entries = spill.peek(properties.getBatchSize());
+        Throwable[] failures = sendAll(entries);
+        int prefix = acknowledgedPrefix(failures, 0);
+        int replayed = prefix;
+        if (prefix > 0) {
+            headFailures = 0;
+        }
+        if (prefix < entries.size() && !KafkaSendFailures.isRetriable(failures[prefix])
+                && ++headFailures >= properties.getMaxAttempts()) {
+            park(entries.get(prefix), failures[prefix]);
+            headFailures = 0;
+            int next = acknowledgedPrefix(failures, prefix + 1);
+            replayed += next - prefix - 1;
+            prefix = next;
+        }
+        spill.commit(prefix);
+        replayedCounter.increment(replayed);
+        if (prefix > 0 && spill.isEmpty()) {
+            log.info("Event spill replayed completely");
+        }
+    }
+
+    private static int acknowledgedPrefix(Throwable[] failures, int from) {
+        int end = from;
+        while (end < failures.length && failures[end] == null) {
+            end++;
+        }
+        return end;
+    }
+
+    private void park(EventSpillLog.Entry entry, Throwable failure) {
+        log.error("Spilled event parked after {} non-retriable failures | eventType={} | key={} | error={}",
+                properties.getMaxAttempts(), entry.eventType(), entry.key(), failure.getMessage());
+        parkedCounter.increment();
+        try {
+            if (parked != null && parked.append(entry)) {
+                return;
+            }
+        } catch (IOException ex) {
+            log.error("Parked spill append failed | eventType={} | error={}", entry.eventType(), ex.getMessage(), ex);
+        }
+        droppedCounter.increment();
+        log.error("Parked event dropped - parked spill full or unavailable | eventType={} | key={}",
+                entry.eventType(), entry.key());
+    }
+
+    /**
+     * Sends every entry, then waits for all acknowledgements within the send timeout. Time spent blocked in
+     * {@code send} (metadata fetch, full producer buffer) counts against the same timeout: entries not yet handed to
+     * the producer when it passes fail without being sent. Any failure starts the retry backoff.
+     *
+     * @return per entry, {@code null} if acknowledged, otherwise the failure
+     */
+    private Throwable[] sendAll(List<EventSpillLog.Entry> entries) {
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(entries.size());
+        for (EventSpillLog.Entry entry : entries) {
+            sends.add(System.nanoTime() < deadline
+                    ? send(entry)
+                    : CompletableFuture.failedFuture(new TimeoutException("Send timeout passed before sending")));
+        }
+
+        Throwable[] failures = new Throwable[entries.size()];
+        boolean failed = false;
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failures[i] = ex;
+                failed = true;
+            } catch (Exception ex) {
+                failures[i] = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (!failed) {
+                    log.warn("Kafka unavailable for dispatched events - spilling and retrying in {} | eventType={} | error={}",
+                            properties.getRetryBackoff(), entries.get(i).eventType(), failures[i].getMessage());
+                }
+                failed = true;
+            }
+        }
+        if (failed) {
+            retryAtNanos = System.nanoTime() + properties.getRetryBackoff().toNanos();
+        }
+        return failures;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(EventSpillLog.Entry entry) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(
+                topicRouter.topicFor(entry.eventType()), entry.key(), entry.payload());
+        record.headers().add(UserEventSerializer.EVENT_TYPE_HEADER, entry.eventType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return publishMetrics.track(EventPublishMetrics.PATH_DISPATCH, entry.eventType(),
+                    kafkaTemplate.send(record));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private boolean spill(EventSpillLog.Entry entry) {
+        try {
+            if (spill != null && spill.append(entry)) {
+                return true;
+            }
+        } catch (IOException ex) {
+            log.error("Event spill append failed | eventType={} | error={}", entry.eventType(), ex.getMessage(), ex);
+        }
+        droppedCounter.increment();
+        log.error("Event dropped - buffer and spill full or unavailable | eventType={} | key={}",
+                entry.eventType(), entry.key());
+        return false;
+    }
+
+    private static EventSpillLog openParked(EventDispatchProperties.Spill settings) {
+        try {
+            return new EventSpillLog(Path.of(settings.getDirectory(), "parked"), settings.getSegmentBytes(),
+                    settings.getParkedMaxSegments());
+        } catch (IOException | RuntimeException ex) {
+            log.error("Parked event spill unavailable - parked events are dropped | directory={}",
+                    settings.getDirectory(), ex);
+            return null;
+        }
+    }
+
+    private static EventSpillLog openSpill(EventDispatchProperties.Spill settings) {
+        if (settings.getDirectory() == null || settings.getDirectory().isBlank()) {
+            log.warn("Event spill disabled - events beyond the in-memory buffer are dropped");
+            return null;
+        }
+        try {
+            return new EventSpillLog(Path.of(settings.getDirectory()), settings.getSegmentBytes(),
+                    settings.getMaxSegments());
+        } catch (IOException | RuntimeException ex) {
+            log.error("Event spill unavailable - events beyond the in-memory buffer are dropped | directory={}",
+                    settings.getDirectory(), ex);
+            return null;
+        }
+    }
+}
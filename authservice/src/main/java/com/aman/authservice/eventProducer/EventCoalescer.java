@@ -0,0 +1,162 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.EventDispatchProperties;
+import com.aman.authservice.events.UserActivitySummaryEvent;
+import com.aman.authservice.events.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Folds repeated high-frequency events of one user and type into a single {@link UserActivitySummaryEvent}.
+ * <p>
+ * The first event of a (user, type) pair opens a summary; later events within the window only update it. Once the
+ * window has passed, {@link #drainDue()} hands back the summary, or the original event if nothing else arrived.
+ * Event types not configured for coalescing are never absorbed.
+ */
+@Component
+public class EventCoalescer {
+
+    public record Emission(Object event, String key) {
+    }
+
+    private record SummaryKey(String userId, String eventType) {
+    }
+
+    private final EventDispatchProperties.Coalescing settings;
+    private final Clock clock;
+    private final Map<SummaryKey, Summary> open = new ConcurrentHashMap<>();
+    private final Counter absorbedCounter;
+    private final Counter summaryCounter;
+
+    public EventCoalescer(EventDispatchProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.settings = properties.getCoalescing();
+        this.clock = clock;
+
+        Gauge.builder("event_coalescing_open", open, Map::size)
+                .description("Users with an open activity summary")
+                .register(meterRegistry);
+        this.absorbedCounter = Counter.builder("event_coalescing_absorbed_total")
+                .description("Events folded into an activity summary instead of being sent")
+                .register(meterRegistry);
+        this.summaryCounter = Counter.builder("event_coalescing_summaries_total")
+                .description("Activity summaries emitted for two or more events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} if the event was taken into a summary and must not be dispatched by the caller
+     */
+    public boolean absorb(Object event, String key, String clientIp) {
+        if (!settings.isEnabled() || !(event instanceof UserEvent userEvent) || userEvent.getUserId() == null
+                || !settings.getEventTypes().contains(event.getClass().getSimpleName())) {
+            return false;
+        }
+        SummaryKey summaryKey = new SummaryKey(userEvent.getUserId(), userEvent.getEventType());
+        if (open.size() >= settings.getMaxKeys() && !open.containsKey(summaryKey)) {
+            return false;
+        }
+        Instant at = userEvent.getEventTimestamp() != null ? userEvent.getEventTimestamp() : clock.instant();
+        open.compute(summaryKey, (k, summary) -> {
+            if (summary == null) {
+                return new Summary(userEvent, key, clientIp, at, clock.millis());
+            }
+            summary.add(clientIp, at, settings.getMaxDistinctIps());
+            absorbedCounter.increment();
+            return summary;
+        });
+        return true;
+    }
+
+    /**
+     * Removes and returns every summary whose window has passed.
+     */
+    public List<Emission> drainDue() {
+        return drain(clock.millis() - settings.getWindow().toMillis());
+    }
+
+    /**
+     * Removes and returns every open summary, e.g. on shutdown.
+     */
+    public List<Emission> drainAll() {
+        return drain(Long.MAX_VALUE);
+    }
+
+    private List<Emission> drain(long openedBeforeMillis) {
+        List<Emission> emissions = new ArrayList<>();
+        for (SummaryKey summaryKey : open.keySet()) {
+            open.computeIfPresent(summaryKey, (k, summary) -> {
+                if (summary.openedAtMillis > openedBeforeMillis) {
+                    return summary;
+                }
+                emissions.add(summary.toEmission());
+                return null;
+            });
+        }
+        return emissions;
+    }
+
+    /**
+     * Mutated only inside {@link ConcurrentHashMap#compute}, so updates and the final read are serialized per key.
+     */
+    private final class Summary {
+        private final UserEvent first;
+        private final String key;
+        private final long openedAtMillis;
+        private final Set<String> distinctIps = new LinkedHashSet<>();
+        private boolean distinctIpsTruncated;
+        private int count = 1;
+        private Instant firstAt;
+        private Instant lastAt;
+
+        Summary(UserEvent first, String key, String clientIp, Instant at, long openedAtMillis) {
+            this.first = first;
+            this.key = key;
+            this.openedAtMillis = openedAtMillis;
+            this.firstAt = at;
+            this.lastAt = at;
+            addIp(clientIp, settings.getMaxDistinctIps());
+        }
+
+        void add(String clientIp, Instant at, int maxDistinctIps) {
+            count++;
+            if (at.isBefore(firstAt)) {
+                firstAt = at;
+            }
+            if (at.isAfter(lastAt)) {
+                lastAt = at;
+            }
+            addIp(clientIp, maxDistinctIps);
+        }
+
+        private void addIp(String clientIp, int maxDistinctIps) {
+            if (clientIp == null || distinctIps.contains(clientIp)) {
+                return;
+            }
+            if (distinctIps.size() < maxDistinctIps) {
+                distinctIps.add(clientIp);
+            } else {
+                distinctIpsTruncated = true;
+            }
+        }
+
+        Emission toEmission() {
+            if (count == 1) {
+                return new Emission(first, key);
+            }
+            summaryCounter.increment();
+            return new Emission(new UserActivitySummaryEvent(first.getUserId(), first.getEventType(), count, firstAt,
+                    lastAt, List.copyOf(distinctIps), distinctIpsTruncated), key);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.aman.authservice.eventProducer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send-to-acknowledgement latency of user events, tagged by publish path, event type and outcome.
+ * <p>
+ * {@code kafka_event_publish_seconds} is recorded when the producer completes the send: {@code acknowledged},
+ * {@code timeout} (the record expired in the producer after {@code delivery.timeout.ms}) or {@code failed}.
+ * Callers that stop waiting earlier record that separately with {@link #awaitTimedOut(String, String)}. The Kafka
+ * client's own gauges (record queue time, batch size, buffer availability) are bound in {@code KafkaProducerConfig}.
+ * Meters are registered once per tag set and reused, since both methods run on every send.
+ */
+@Component
+public class EventPublishMetrics {
+
+    public static final String PATH_DIRECT = "direct";
+    public static final String PATH_OUTBOX = "outbox";
+    public static final String PATH_DISPATCH = "dispatch";
+    public static final String PATH_TELEMETRY = "telemetry";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> publishTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> awaitTimeoutCounters = new ConcurrentHashMap<>();
+
+    public EventPublishMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times the send from now until the producer completes it; returns the same future.
+     */
+    public <T> CompletableFuture<T> track(String path, String eventType, CompletableFuture<T> send) {
+        long startNanos = System.nanoTime();
+        send.whenComplete((result, ex) -> publishTimer(path, eventType, outcome(ex))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+        return send;
+    }
+
+    /**
+     * Counts a caller that gave up waiting for the acknowledgement (the send itself may still complete).
+     */
+    public void awaitTimedOut(String path, String eventType) {
+        awaitTimeoutCounter(path, eventType).increment();
+    }
+
+    private Timer publishTimer(String path, String eventType, String outcome) {
+        return publishTimers.computeIfAbsent(String.join("|", path, eventType, outcome), ignored ->
+                Timer.builder("kafka_event_publish_seconds")
+                        .description("Time from handing a user event to the producer until the broker acknowledged "
+                                + "or it failed")
+                        .tag("path", path)
+                        .tag("event_type", eventType)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private Counter awaitTimeoutCounter(String path, String eventType) {
+        return awaitTimeoutCounters.computeIfAbsent(path + '|' + eventType, ignored ->
+                Counter.builder("kafka_event_publish_await_timeout_total")
+                        .description("Publishes whose caller stopped waiting for the acknowledgement")
+                        .tag("path", path)
+                        .tag("event_type", eventType)
+                        .register(meterRegistry));
+    }
+
+    private static String outcome(Throwable ex) {
+        if (ex == null) {
+            return "acknowledged";
+        }
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException
+                || cause instanceof org.springframework.kafka.KafkaException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof TimeoutException ? "timeout" : "failed";
+    }
+}
@@ -0,0 +1,200 @@
+package com.aman.authservice.eventProducer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only spill of serialized events on memory-mapped segment files, read back in append order.
+ * <p>
+ * Each segment starts with a header holding its write and read offsets, followed by length-prefixed records. The
+ * header is updated after the record bytes, so a crash loses at most the record being written. A segment is deleted
+ * once it has been read past and a newer segment exists; a single drained segment is rewound and reused. Appends
+ * beyond {@code maxSegments} are refused. Thread-safe.
+ */
+@Slf4j
+public class EventSpillLog implements Closeable {
+
+    private static final int WRITE_OFFSET_POSITION = 0;
+    private static final int READ_OFFSET_POSITION = 8;
+    private static final int HEADER_BYTES = 16;
+    private static final String SUFFIX = ".spill";
+
+    public record Entry(String key, String eventType, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Deque<Long> segments = new ArrayDeque<>();
+    private MappedByteBuffer readSegment;
+    private MappedByteBuffer writeSegment;
+
+    public EventSpillLog(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes <= HEADER_BYTES || maxSegments < 1) {
+            throw new IllegalArgumentException("segmentBytes must exceed the header and maxSegments must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .forEach(segments::addLast);
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(0L);
+        }
+        this.writeSegment = map(segments.peekLast());
+        this.readSegment = segments.size() == 1 ? writeSegment : map(segments.peekFirst());
+        if (!isEmpty()) {
+            log.info("Event spill has pending events | directory={} | segments={}", directory, segments.size());
+        }
+    }
+
+    /**
+     * @return {@code false} if the entry does not fit in a segment or the spill is full
+     */
+    public synchronized boolean append(Entry entry) throws IOException {
+        byte[] key = entry.key() != null ? entry.key().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] eventType = entry.eventType().getBytes(StandardCharsets.UTF_8);
+        int bodyLength = Integer.BYTES + (key != null ? key.length : 0)
+                + Integer.BYTES + eventType.length + entry.payload().length;
+        int recordLength = Integer.BYTES + bodyLength;
+        if (recordLength > segmentBytes - HEADER_BYTES) {
+            return false;
+        }
+
+        int writeOffset = offset(writeSegment, WRITE_OFFSET_POSITION);
+        if (writeOffset + recordLength > writeSegment.capacity()) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            writeSegment.force();
+            long next = segments.peekLast() + 1;
+            writeSegment = map(next);
+            segments.addLast(next);
+            writeOffset = HEADER_BYTES;
+        }
+
+        ByteBuffer buffer = writeSegment.duplicate();
+        buffer.position(writeOffset);
+        buffer.putInt(bodyLength);
+        buffer.putInt(key != null ? key.length : -1);
+        if (key != null) {
+            buffer.put(key);
+        }
+        buffer.putInt(eventType.length);
+        buffer.put(eventType);
+        buffer.put(entry.payload());
+        writeSegment.putLong(WRITE_OFFSET_POSITION, writeOffset + recordLength);
+        return true;
+    }
+
+    /**
+     * Reads up to {@code max} of the oldest entries without consuming them; see {@link #commit(int)}.
+     */
+    public synchronized List<Entry> peek(int max) {
+        int end = offset(readSegment, WRITE_OFFSET_POSITION);
+        int position = offset(readSegment, READ_OFFSET_POSITION);
+        ByteBuffer buffer = readSegment.duplicate();
+        List<Entry> entries = new ArrayList<>(Math.min(max, 64));
+        while (entries.size() < max && position < end) {
+            buffer.position(position);
+            int bodyLength = buffer.getInt();
+            int keyLength = buffer.getInt();
+            String key = keyLength >= 0 ? readString(buffer, keyLength) : null;
+            int typeLength = buffer.getInt();
+            String eventType = readString(buffer, typeLength);
+            byte[] payload = new byte[bodyLength - Integer.BYTES - Math.max(keyLength, 0) - Integer.BYTES - typeLength];
+            buffer.get(payload);
+            entries.add(new Entry(key, eventType, payload));
+            position += Integer.BYTES + bodyLength;
+        }
+        return entries;
+    }
+
+    /**
+     * Consumes the first {@code count} entries returned by the last {@link #peek(int)}.
+     */
+    public synchronized void commit(int count) throws IOException {
+        int position = offset(readSegment, READ_OFFSET_POSITION);
+        for (int i = 0; i < count; i++) {
+            position += Integer.BYTES + readSegment.getInt(position);
+        }
+        readSegment.putLong(READ_OFFSET_POSITION, position);
+
+        if (readSegment == writeSegment) {
+            if (position >= offset(writeSegment, WRITE_OFFSET_POSITION)) {
+                writeSegment.putLong(WRITE_OFFSET_POSITION, HEADER_BYTES);
+                writeSegment.putLong(READ_OFFSET_POSITION, HEADER_BYTES);
+            }
+            return;
+        }
+        if (position >= offset(readSegment, WRITE_OFFSET_POSITION)) {
+            Files.deleteIfExists(segmentPath(segments.pollFirst()));
+            readSegment = segments.size() == 1 ? writeSegment : map(segments.peekFirst());
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return segments.size() == 1
+                && offset(readSegment, READ_OFFSET_POSITION) >= offset(readSegment, WRITE_OFFSET_POSITION);
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        readSegment.force();
+        writeSegment.force();
+    }
+
+    private MappedByteBuffer map(long sequence) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(sequence).toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            boolean created = file.length() == 0;
+            long size = created ? segmentBytes : file.length();
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (created || offset(segment, WRITE_OFFSET_POSITION) < HEADER_BYTES
+                    || offset(segment, WRITE_OFFSET_POSITION) > size) {
+                segment.putLong(WRITE_OFFSET_POSITION, HEADER_BYTES);
+                segment.putLong(READ_OFFSET_POSITION, HEADER_BYTES);
+            }
+            return segment;
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+    }
+
+    private static int offset(MappedByteBuffer segment, int headerPosition) {
+        return (int) segment.getLong(headerPosition);
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.TopicRoutingProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Picks the topic of a user event from its class name, so consumers of lifecycle events (signup, password change)
+ * do not have to read through login and refresh activity.
+ */
+@Component
+public class EventTopicRouter {
+
+    private final String defaultTopic;
+    private final Map<String, String> routes;
+    private final Set<String> declaredTopics;
+
+    public EventTopicRouter(TopicRoutingProperties properties,
+                            @Value("${spring.kafka.topic-json.name:user_service}") String defaultTopic) {
+        this.defaultTopic = defaultTopic;
+        this.routes = properties.isEnabled() ? Map.copyOf(properties.getRoutes()) : Map.of();
+        Set<String> topics = new TreeSet<>(properties.getRoutes().values());
+        topics.add(defaultTopic);
+        this.declaredTopics = Collections.unmodifiableSet(topics);
+    }
+
+    public String topicFor(String eventType) {
+        return routes.getOrDefault(eventType, defaultTopic);
+    }
+
+    /**
+     * The default topic and every configured route target, whether or not routing is enabled yet, so the topics can
+     * exist before producers switch over.
+     */
+    public Set<String> declaredTopics() {
+        return declaredTopics;
+    }
+}
@@ -0,0 +1,29 @@
+package com.aman.authservice.eventProducer;
+
+import org.apache.kafka.common.errors.RetriableException;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classifies failed sends. Timeouts and Kafka {@link RetriableException}s (broker unavailable, leader moving, ...)
+ * clear up by themselves; anything else, such as an authorization error or a record that is too large, fails the
+ * same way on every retry.
+ */
+final class KafkaSendFailures {
+
+    private KafkaSendFailures() {
+    }
+
+    static boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException
+                    || cause instanceof InterruptedException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
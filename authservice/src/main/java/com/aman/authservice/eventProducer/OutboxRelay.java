@@ -0,0 +1,304 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.OutboxProperties;
+import com.aman.authservice.entities.OutboxEvent;
+import com.aman.authservice.repository.OutboxEventRepository;
+import com.aman.authservice.serializer.UserEventSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox events to Kafka in id order.
+ * <p>
+ * Each batch goes through three steps, and no database lock is held while waiting for the broker:
+ * <ol>
+ *     <li>Claim: a short READ COMMITTED transaction locks the oldest unclaimed events (record locks only, so outbox
+ *     inserts are not blocked), drops events whose key still has an earlier event pending elsewhere, and stamps
+ *     the rest with a claim lease.</li>
+ *     <li>Send: all claimed events go through the idempotent producer and the relay waits for the
+ *     acknowledgements.</li>
+ *     <li>Finish: a second short transaction deletes what was delivered and releases the rest.</li>
+ * </ol>
+ * When an event fails, later events with the same key are released even if they were acknowledged, so the key is
+ * retried from its first undelivered event and never skips ahead. Retried events can therefore reach the topic
+ * twice; every record carries {@link #OUTBOX_ID_HEADER} so consumers can drop duplicates. An event that keeps
+ * failing with a non-retriable error is parked after {@code max-attempts} so it no longer blocks its key.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    public static final String OUTBOX_ID_HEADER = "outbox-id";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final Clock clock;
+    private final EventPublishMetrics publishMetrics;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final Timer publishDelayTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxProperties properties,
+                       Clock clock,
+                       EventPublishMetrics publishMetrics,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.properties = properties;
+        this.clock = clock;
+        this.publishMetrics = publishMetrics;
+
+        this.publishedCounter = Counter.builder("outbox_published_total")
+                .description("Outbox events acknowledged by Kafka and removed from the outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox_publish_failures_total")
+                .description("Outbox event sends that failed or timed out and will be retried")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("outbox_parked_total")
+                .description("Outbox events given up after repeated non-retriable failures")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox_relay_batch_seconds")
+                .description("Time to claim, publish and clear one outbox batch")
+                .register(meterRegistry);
+        this.publishDelayTimer = Timer.builder("outbox_publish_delay_seconds")
+                .description("Time from writing an event to the outbox until Kafka acknowledged it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox_pending_events", pendingEvents, AtomicLong::get)
+                .description("Events waiting in the outbox at the last relay run")
+                .register(meterRegistry);
+        Gauge.builder("outbox_lag_seconds", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest event waiting in the outbox at the last relay run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox batch by batch until a batch comes back short or with failures, then refreshes the lag
+     * gauges.
+     */
+    @Scheduled(
+            fixedDelayString = "${sentinel.outbox.poll-interval:200ms}",
+            initialDelayString = "${sentinel.outbox.poll-interval:200ms}")
+    public void relay() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        try {
+            Integer relayed;
+            do {
+                relayed = batchTimer.record(this::relayBatch);
+            } while (relayed != null && relayed == properties.getBatchSize());
+        } catch (Exception ex) {
+            log.error("Outbox relay run failed | error={}", ex.getMessage(), ex);
+        } finally {
+            refreshLag();
+        }
+    }
+
+    /**
+     * @return the number of events scanned if the whole batch went through, otherwise 0 so the run stops
+     */
+    private int relayBatch() {
+        Claim claim = transactionTemplate.execute(status -> claimBatch());
+        if (claim == null || claim.events().isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> batch = claim.events();
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        Set<String> failedKeys = new HashSet<>();
+        List<OutboxEvent> delivered = new ArrayList<>(batch.size());
+        List<Long> heldBack = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        List<Long> parked = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            Throwable failure = awaitAcknowledgement(event, sends.get(i), deadline);
+            if (failure == null) {
+                if (failedKeys.contains(event.getMessageKey())) {
+                    heldBack.add(event.getId());
+                } else {
+                    delivered.add(event);
+                }
+            } else if (shouldPark(event, failure)) {
+                log.error("Outbox event parked after repeated failures | outboxId={} | eventType={} | key={} "
+                                + "| attempts={} | error={}", event.getId(), event.getEventType(),
+                        event.getMessageKey(), event.getAttempts() + 1, failure.getMessage());
+                parked.add(event.getId());
+            } else {
+                failed.add(event.getId());
+                failedKeys.add(event.getMessageKey());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.deleteByIds(delivered.stream().map(OutboxEvent::getId).toList());
+            }
+            if (!heldBack.isEmpty()) {
+                outboxEventRepository.release(heldBack);
+            }
+            if (!failed.isEmpty()) {
+                outboxEventRepository.recordFailure(failed);
+            }
+            if (!parked.isEmpty()) {
+                outboxEventRepository.park(parked, clock.instant());
+            }
+        });
+
+        long now = clock.millis();
+        for (OutboxEvent event : delivered) {
+            publishDelayTimer.record(Duration.ofMillis(Math.max(0, now - event.getCreatedAt().toEpochMilli())));
+        }
+        publishedCounter.increment(delivered.size());
+        parkedCounter.increment(parked.size());
+        log.debug("Outbox batch relayed | size={} | delivered={} | failedKeys={} | parked={}",
+                batch.size(), delivered.size(), failedKeys.size(), parked.size());
+        return failedKeys.isEmpty() ? claim.scanned() : 0;
+    }
+
+    /**
+     * Locks the oldest claimable events and claims those whose key has no earlier event pending: such an event is
+     * claimed by another relay, and publishing behind it would reorder the key.
+     */
+    private Claim claimBatch() {
+        Instant now = clock.instant();
+        List<OutboxEvent> candidates = outboxEventRepository.findClaimable(now,
+                PageRequest.of(0, properties.getBatchSize()));
+        if (candidates.isEmpty()) {
+            return new Claim(List.of(), 0);
+        }
+
+        Set<String> keys = new HashSet<>();
+        for (OutboxEvent event : candidates) {
+            if (event.getMessageKey() != null) {
+                keys.add(event.getMessageKey());
+            }
+        }
+        Map<String, Long> firstPendingIds = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (Object[] row : outboxEventRepository.findFirstPendingIds(keys)) {
+                firstPendingIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+
+        Set<String> blockedKeys = new HashSet<>();
+        Set<String> claimedKeys = new HashSet<>();
+        List<OutboxEvent> claimed = new ArrayList<>(candidates.size());
+        for (OutboxEvent event : candidates) {
+            String key = event.getMessageKey();
+            if (key != null && !claimedKeys.contains(key)
+                    && (blockedKeys.contains(key) || event.getId() > firstPendingIds.getOrDefault(key, event.getId()))) {
+                blockedKeys.add(key);
+                continue;
+            }
+            if (key != null) {
+                claimedKeys.add(key);
+            }
+            claimed.add(event);
+        }
+        if (!claimed.isEmpty()) {
+            outboxEventRepository.claim(claimed.stream().map(OutboxEvent::getId).toList(),
+                    now.plus(properties.getClaimTimeout()));
+        }
+        return new Claim(claimed, candidates.size());
+    }
+
+    private boolean shouldPark(OutboxEvent event, Throwable failure) {
+        return event.getAttempts() + 1 >= properties.getMaxAttempts() && !KafkaSendFailures.isRetriable(failure);
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(
+                event.getTopic(), event.getMessageKey(), event.getPayload());
+        record.headers().add(OUTBOX_ID_HEADER, Long.toString(event.getId()).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(UserEventSerializer.EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return publishMetrics.track(EventPublishMetrics.PATH_OUTBOX, event.getEventType(),
+                    kafkaTemplate.send(record));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * @return {@code null} once acknowledged, otherwise the failure
+     */
+    private Throwable awaitAcknowledgement(OutboxEvent event, CompletableFuture<SendResult<String, Object>> send,
+                                           long deadline) {
+        Throwable failure;
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure = ex;
+        } catch (ExecutionException ex) {
+            failure = ex.getCause() != null ? ex.getCause() : ex;
+        } catch (Exception ex) {
+            failure = ex;
+        }
+        log.warn("Outbox event not acknowledged | outboxId={} | eventType={} | key={} | attempts={} | error={}",
+                event.getId(), event.getEventType(), event.getMessageKey(), event.getAttempts() + 1,
+                failure.getMessage());
+        failedCounter.increment();
+        return failure;
+    }
+
+    private void refreshLag() {
+        try {
+            pendingEvents.set(outboxEventRepository.countByParkedAtIsNull());
+            lagMillis.set(outboxEventRepository.findFirstByParkedAtIsNullOrderByIdAsc()
+                    .map(event -> Math.max(0, clock.millis() - event.getCreatedAt().toEpochMilli()))
+                    .orElse(0L));
+        } catch (Exception ex) {
+            log.warn("Outbox lag refresh failed | error={}", ex.getMessage());
+        }
+    }
+
+    private record Claim(List<OutboxEvent> events, int scanned) {
+    }
+}
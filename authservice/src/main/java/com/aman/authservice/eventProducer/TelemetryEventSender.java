@@ -0,0 +1,50 @@
+package com.aman.authservice.eventProducer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fire-and-forget sends through the telemetry producer.
+ * <p>
+ * The telemetry producer has its own record accumulator, so bursts of telemetry never queue behind durable events.
+ * A send returns as soon as the record is buffered; failures are only visible in
+ * {@code kafka_event_publish_seconds{path="telemetry"}}.
+ */
+@Slf4j
+@Component
+public class TelemetryEventSender {
+
+    private final KafkaTemplate<String, Object> telemetryKafkaTemplate;
+    private final EventPublishMetrics publishMetrics;
+    private final EventTopicRouter topicRouter;
+
+    public TelemetryEventSender(
+            @Qualifier("telemetryKafkaTemplate") KafkaTemplate<String, Object> telemetryKafkaTemplate,
+            EventPublishMetrics publishMetrics,
+            EventTopicRouter topicRouter) {
+        this.telemetryKafkaTemplate = telemetryKafkaTemplate;
+        this.publishMetrics = publishMetrics;
+        this.topicRouter = topicRouter;
+    }
+
+    public void send(Object event, String key) {
+        String eventType = event.getClass().getSimpleName();
+        CompletableFuture<SendResult<String, Object>> send;
+        try {
+            send = telemetryKafkaTemplate.send(topicRouter.topicFor(eventType), key, event);
+        } catch (Exception ex) {
+            // Buffer still full after max.block.ms, or the producer is closed
+            send = CompletableFuture.failedFuture(ex);
+        }
+        publishMetrics.track(EventPublishMetrics.PATH_TELEMETRY, eventType, send).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.debug("Telemetry event lost | eventType={} | key={} | error={}", eventType, key, ex.getMessage());
+            }
+        });
+    }
+}
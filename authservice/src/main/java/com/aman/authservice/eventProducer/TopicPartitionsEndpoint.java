@@ -0,0 +1,82 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.TopicProvisioningProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint for the partition counts of the user event topics: {@code GET /actuator/topicpartitions} lists
+ * them, {@code POST /actuator/topicpartitions/{topic}} with {@code {"partitions": n, "dryRun": false}} expands one.
+ * <p>
+ * Expanding is the only change offered: partitions can never be removed. It moves keys to other partitions, so
+ * events of one user published before and after the expansion may be consumed out of order; expand while the
+ * consumers are caught up. Requests are dry runs unless {@code dryRun} is {@code false}.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "topicpartitions")
+@RequiredArgsConstructor
+public class TopicPartitionsEndpoint {
+
+    public record Expansion(String topic, int currentPartitions, int requestedPartitions, boolean applied,
+                            String message) {
+    }
+
+    private final KafkaAdmin kafkaAdmin;
+    private final EventTopicRouter topicRouter;
+    private final TopicProvisioningProperties properties;
+
+    @ReadOperation
+    public Map<String, Integer> partitions() throws Exception {
+        List<String> names = List.copyOf(topicRouter.declaredTopics());
+        Map<String, Integer> partitions = new LinkedHashMap<>();
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            Map<String, TopicDescription> descriptions = admin.describeTopics(names).allTopicNames()
+                    .get(properties.getAdminTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            names.forEach(name -> partitions.put(name, descriptions.get(name).partitions().size()));
+        }
+        return partitions;
+    }
+
+    @WriteOperation
+    public Expansion expand(@Selector String topic, int partitions, @Nullable Boolean dryRun) throws Exception {
+        if (!topicRouter.declaredTopics().contains(topic)) {
+            throw new IllegalArgumentException("Not a user event topic: " + topic);
+        }
+        if (partitions > properties.getMaxPartitions()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxPartitions() + " partitions allowed");
+        }
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            long timeoutMillis = properties.getAdminTimeout().toMillis();
+            int current = admin.describeTopics(List.of(topic)).allTopicNames()
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS).get(topic).partitions().size();
+            if (partitions <= current) {
+                return new Expansion(topic, current, partitions, false,
+                        "Topic already has " + current + " partitions; partitions can only be added");
+            }
+            if (!Boolean.FALSE.equals(dryRun)) {
+                return new Expansion(topic, current, partitions, false,
+                        "Dry run; repeat with dryRun=false to add " + (partitions - current) + " partitions");
+            }
+            admin.createPartitions(Map.of(topic, NewPartitions.increaseTo(partitions))).all()
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+            log.warn("Topic partitions expanded | topic={} | from={} | to={}", topic, current, partitions);
+            return new Expansion(topic, current, partitions, true, "Expanded");
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package com.aman.authservice.eventProducer;
 
+import com.aman.authservice.config.DeliveryProperties;
+import com.aman.authservice.entities.OutboxEvent;
+import com.aman.authservice.repository.OutboxEventRepository;
+import com.aman.authservice.serializer.UserEventSerializer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Production-ready event producer with error handling, correlation IDs, and retry logic.
  * Ensures reliable event publishing with proper logging and metrics.
+ * <p>
+ * Request paths should use {@link #enqueue(Object, String)} for events that belong to a database change; it writes
+ * to the outbox and {@link OutboxRelay} publishes from there. High-volume events with no transaction behind them use
+ * {@link #dispatch(Object, String)}: durable event types go to the {@link AsyncEventDispatcher}, telemetry types
+ * (see {@link DeliveryProperties}) to the {@link TelemetryEventSender}. The {@code publish} methods talk to the
+ * broker directly.
+ * <p>
+ * Durable dispatch does not block the request thread on the broker. The dispatcher waits for the {@code acks=all}
+ * acknowledgement on its own sender thread and appends every event it could not deliver to its on-disk spill, which
+ * is replayed in order and survives restarts; an event is only lost if the spill is full or unwritable
+ * ({@code event_dispatch_dropped_total}). Events that must survive even that belong in the outbox via
+ * {@link #enqueue(Object, String)}; callers that need the acknowledgement itself use {@link #publish(Object, String)}.
  */
 @Service
 @RequiredArgsConstructor
@@ -21,9 +41,95 @@ import java.util.concurrent.TimeUnit;
 public class UserEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final AsyncEventDispatcher asyncEventDispatcher;
+    private final TelemetryEventSender telemetryEventSender;
+    private final DeliveryProperties deliveryProperties;
+    private final EventCoalescer eventCoalescer;
+    private final EventPublishMetrics publishMetrics;
+    private final Clock clock;
+    private final UserEventSerializer serializer;
+    private final EventTopicRouter topicRouter;
 
-    @Value("${spring.kafka.topic-json.name:user_service}")
-    private String topic;
+
+    /**
+     * Writes an event to the outbox, joining the caller's transaction if there is one. The event reaches Kafka
+     * only if that transaction commits, and is relayed after it does, so the caller never waits on the broker.
+     *
+     * @param event Event object to publish
+     * @param key Partition key (typically userId)
+     */
+    @Transactional
+    public void enqueue(Object event, String key) {
+        String eventType = event.getClass().getSimpleName();
+        String topic = topicRouter.topicFor(eventType);
+        OutboxEvent saved = outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .eventType(eventType)
+                .payload(serializer.serialize(topic, event))
+                .createdAt(clock.instant())
+                .build());
+        log.debug("Event added to outbox | outboxId={} | eventType={} | topic={} | key={}",
+                saved.getId(), eventType, topic, key);
+    }
+
+    /**
+     * Serializes an event on the calling thread and hands it to the {@link AsyncEventDispatcher}. Returns at once;
+     * the event is buffered, or spilled to disk while Kafka is unavailable.
+     *
+     * @param event Event object to publish
+     * @param key Partition key (typically userId)
+     */
+    public void dispatch(Object event, String key) {
+        dispatch(event, key, null);
+    }
+
+    /**
+     * Like {@link #dispatch(Object, String)}, but high-frequency event types may first be folded into an activity
+     * summary by the {@link EventCoalescer}, which records the client IP.
+     *
+     * @param event Event object to publish
+     * @param key Partition key (typically userId)
+     * @param clientIp Client IP for the summary's distinct IPs (may be null)
+     */
+    public void dispatch(Object event, String key, String clientIp) {
+        if (eventCoalescer.absorb(event, key, clientIp)) {
+            log.debug("Event coalesced | eventType={} | key={}", event.getClass().getSimpleName(), key);
+            return;
+        }
+        send(event, key);
+    }
+
+    /**
+     * Dispatches activity summaries whose coalescing window has closed.
+     */
+    @Scheduled(
+            fixedDelayString = "${sentinel.event-dispatch.coalescing.flush-interval:1s}",
+            initialDelayString = "${sentinel.event-dispatch.coalescing.flush-interval:1s}")
+    public void flushCoalesced() {
+        eventCoalescer.drainDue().forEach(emission -> send(emission.event(), emission.key()));
+    }
+
+    @PreDestroy
+    public void flushCoalescedOnShutdown() {
+        eventCoalescer.drainAll().forEach(emission -> send(emission.event(), emission.key()));
+    }
+
+    /**
+     * Routes a dispatched event by its delivery class: telemetry to the fire-and-forget producer, everything else to
+     * the dispatcher, which delivers it or spills it to disk.
+     */
+    private void send(Object event, String key) {
+        String eventType = event.getClass().getSimpleName();
+        String topic = topicRouter.topicFor(eventType);
+        if (deliveryProperties.classOf(eventType) == DeliveryProperties.DeliveryClass.TELEMETRY) {
+            telemetryEventSender.send(event, key);
+        } else {
+            asyncEventDispatcher.dispatch(key, eventType, serializer.serialize(topic, event));
+        }
+        log.debug("Event dispatched | eventType={} | topic={} | key={}", eventType, topic, key);
+    }
 
     /**
      * Publishes an event to Kafka with correlation ID and structured logging.
@@ -48,13 +154,14 @@ public class UserEventProducer {
     public boolean publish(Object event, String key, boolean awaitAcknowledgement) {
         String correlationId = UUID.randomUUID().toString();
         String eventType = event.getClass().getSimpleName();
+        String topic = topicRouter.topicFor(eventType);
 
         log.info("Publishing event | correlationId={} | eventType={} | topic={} | key={}",
                 correlationId, eventType, topic, key);
 
         try {
-            CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(topic, key, event);
+            CompletableFuture<SendResult<String, Object>> future = publishMetrics.track(
+                    EventPublishMetrics.PATH_DIRECT, eventType, kafkaTemplate.send(topic, key, event));
 
             if (awaitAcknowledgement) {
                 // Wait for acknowledgment (5 seconds timeout)
@@ -87,6 +194,11 @@ public class UserEventProducer {
                 });
                 return true;
             }
+        } catch (TimeoutException ex) {
+            publishMetrics.awaitTimedOut(EventPublishMetrics.PATH_DIRECT, eventType);
+            log.error("Timed out waiting for event acknowledgement | correlationId={} | eventType={} | topic={} | key={}",
+                    correlationId, eventType, topic, key);
+            return false;
         } catch (Exception ex) {
             log.error("Failed to publish event | correlationId={} | eventType={} | topic={} | key={} | error={}",
                     correlationId, eventType, topic, key, ex.getMessage(), ex);
@@ -108,12 +220,14 @@ public class UserEventProducer {
                             java.util.function.Consumer<Throwable> onFailure) {
         String correlationId = UUID.randomUUID().toString();
         String eventType = event.getClass().getSimpleName();
+        String topic = topicRouter.topicFor(eventType);
 
         log.info("Publishing event asynchronously | correlationId={} | eventType={} | topic={} | key={}",
                 correlationId, eventType, topic, key);
 
         try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
+            CompletableFuture<SendResult<String, Object>> future = publishMetrics.track(
+                    EventPublishMetrics.PATH_DIRECT, eventType, kafkaTemplate.send(topic, key, event));
             
             future.whenComplete((result, ex) -> {
                 if (ex == null) {
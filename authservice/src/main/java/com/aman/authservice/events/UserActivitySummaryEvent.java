@@ -0,0 +1,40 @@
+package com.aman.authservice.events;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stands in for repeated events of one type and user within the coalescing window.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserActivitySummaryEvent extends UserEvent {
+    /**
+     * {@code eventType} of the folded events, e.g. {@code TOKEN_REFRESHED}.
+     */
+    private String summarizedEventType;
+    private int count;
+    private Instant firstTimestamp;
+    private Instant lastTimestamp;
+    private List<String> distinctIps;
+    /**
+     * Whether more distinct IPs were seen than {@link #distinctIps} holds.
+     */
+    private boolean distinctIpsTruncated;
+
+    public UserActivitySummaryEvent(String userId, String summarizedEventType, int count, Instant firstTimestamp,
+                                    Instant lastTimestamp, List<String> distinctIps, boolean distinctIpsTruncated) {
+        super(userId, "USER_ACTIVITY_SUMMARY", lastTimestamp);
+        this.summarizedEventType = summarizedEventType;
+        this.count = count;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.distinctIps = distinctIps;
+        this.distinctIpsTruncated = distinctIpsTruncated;
+    }
+}
@@ -1,10 +1,15 @@
 package com.aman.authservice.exception;
 
+import com.aman.authservice.ratelimit.exception.BruteForceLockoutException;
+import com.aman.authservice.ratelimit.exception.RateLimitExceededException;
+import com.aman.authservice.ratelimit.model.RateLimitHeaders;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
@@ -175,6 +180,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDenied(
+            AccessDeniedException ex, HttpServletRequest request) {
+        log.warn("Access denied: {}", request.getRequestURI());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.FORBIDDEN.value())
+                .error("Forbidden")
+                .message("You do not have permission to perform this operation")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(
             RuntimeException ex, HttpServletRequest request) {
@@ -191,9 +212,9 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
-    @ExceptionHandler(com.aman.authservice.ratelimit.exception.RateLimitExceededException.class)
+    @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceeded(
-            com.aman.authservice.ratelimit.exception.RateLimitExceededException ex, HttpServletRequest request) {
+            RateLimitExceededException ex, HttpServletRequest request) {
         log.warn("Rate limit exceeded: {}", ex.getMessage());
 
         ErrorResponse error = ErrorResponse.builder()
@@ -204,7 +225,27 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
 
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .headers(RateLimitHeaders.toHttpHeaders(ex.getDecision()))
+                .body(error);
+    }
+
+    @ExceptionHandler(BruteForceLockoutException.class)
+    public ResponseEntity<ErrorResponse> handleBruteForceLockout(
+            BruteForceLockoutException ex, HttpServletRequest request) {
+        log.warn("Brute force lockout: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.LOCKED.value())
+                .error("Locked")
+                .message(ex.getReason())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.LOCKED)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(error);
     }
 
     @ExceptionHandler(Exception.class)
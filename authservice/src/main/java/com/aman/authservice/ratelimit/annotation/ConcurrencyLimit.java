@@ -0,0 +1,34 @@
+package com.aman.authservice.ratelimit.annotation;
+
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps how many calls of one principal may be in flight at once, across all nodes. Excess calls are rejected with
+ * 429 immediately instead of queueing for threads, connections or CPU.
+ * <p>
+ * Complements {@link RateLimiter}, which caps calls per window. The permit is held until the method returns, so it
+ * is not meant for methods that complete asynchronously.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimit {
+
+    String name();
+
+    RateLimitKeyStrategy key() default RateLimitKeyStrategy.IP;
+
+    int maxInFlight();
+
+    /**
+     * Seconds after which an unreleased permit expires (crashed node, lost release). Defaults to
+     * {@code sentinel.rate-limit.concurrency.lease}; must exceed the slowest expected call.
+     */
+    int leaseSeconds() default -1;
+}
@@ -1,5 +1,6 @@
 package com.aman.authservice.ratelimit.annotation;
 
+import com.aman.authservice.ratelimit.model.RateLimitAlgorithm;
 import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
 
 import java.lang.annotation.Documented;
@@ -15,16 +16,63 @@ public @interface RateLimiter {
 
     String name();
 
+    /**
+     * Algorithm used for this limiter. {@link RateLimitAlgorithm#WINDOW} applies the fixed and sliding
+     * windows; {@link RateLimitAlgorithm#GCRA} applies only the GCRA settings below;
+     * {@link RateLimitAlgorithm#WINDOW_AND_GCRA} applies both.
+     */
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.WINDOW;
+
+    /**
+     * GCRA budget consumed by one call. Costs are only weighed against each other between limiters that share a
+     * {@link #gcraBudget()}; the fixed and sliding windows always count calls.
+     */
+    int cost() default 1;
+
+    /**
+     * Also rejects the call while the (IP, username) pair is locked out by brute-force protection. The lock is
+     * checked concurrently with the limiter scripts.
+     */
+    boolean bruteForceGuard() default false;
+
+    /**
+     * Delays rejections instead of answering immediately, when {@code sentinel.rate-limit.tarpit} is enabled. The
+     * delay does not hold a request thread. Only honored with {@code FILTER} enforcement: rejections raised by the
+     * aspect are answered at once, and a warning is logged at startup for that combination.
+     */
+    boolean tarpit() default false;
+
     RateLimitKeyStrategy fixedWindowKey() default RateLimitKeyStrategy.IP;
 
     RateLimitKeyStrategy slidingWindowKey() default RateLimitKeyStrategy.IP_USERNAME;
 
+    RateLimitKeyStrategy gcraKey() default RateLimitKeyStrategy.IP;
+
+    /**
+     * Name of the GCRA budget this limiter draws from. Limiters naming the same budget share one GCRA state per key,
+     * so an expensive endpoint with a higher {@link #cost()} exhausts it sooner than a cheap one. They should also
+     * share {@link #gcraKey()} and the GCRA settings. Empty (the default) gives the limiter a budget of its own.
+     */
+    String gcraBudget() default "";
+
     int fixedWindowLimit() default -1;
 
     int fixedWindowSeconds() default -1;
 
+    /**
+     * When positive, the fixed window is enforced from local quota leases of this many units: a node goes to Redis
+     * once per lease instead of once per request. Meant for high-rate limiters; at most one lease per node of the
+     * limit can go unused in a window.
+     */
+    int fixedWindowLeaseSize() default -1;
+
     int slidingWindowLimit() default -1;
 
     int slidingWindowSeconds() default -1;
-}
 
+    int gcraLimit() default -1;
+
+    int gcraPeriodSeconds() default -1;
+
+    int gcraBurst() default -1;
+}
@@ -0,0 +1,60 @@
+package com.aman.authservice.ratelimit.aspect;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.annotation.ConcurrencyLimit;
+import com.aman.authservice.ratelimit.exception.RateLimitExceededException;
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RequestMetadataSupport;
+import com.aman.authservice.ratelimit.service.ConcurrencyLimiterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Enforces {@link ConcurrencyLimit}. Runs inside {@link RateLimiterAspect}, so calls rejected by a rate limit never
+ * take a permit.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ConcurrencyLimitAspect {
+
+    private final ConcurrencyLimiterService concurrencyLimiterService;
+    private final RateLimitingProperties properties;
+    private final RequestMetadataSupport metadataSupport;
+
+    @Around("@annotation(concurrencyLimit)")
+    public Object enforceConcurrencyLimit(ProceedingJoinPoint joinPoint, ConcurrencyLimit concurrencyLimit)
+            throws Throwable {
+        Duration lease = concurrencyLimit.leaseSeconds() > 0
+                ? Duration.ofSeconds(concurrencyLimit.leaseSeconds())
+                : properties.getConcurrency().getLease();
+        RateLimitKeyResolver.RateLimitRequestMetadata metadata = metadataSupport.resolve(joinPoint.getArgs());
+
+        ConcurrencyLimiterService.Permit permit = concurrencyLimiterService.tryAcquire(
+                concurrencyLimit.name(), concurrencyLimit.key(), metadata, concurrencyLimit.maxInFlight(), lease);
+        if (permit == null) {
+            log.warn("Concurrency limit exceeded | limiter={} | metadata={}", concurrencyLimit.name(), metadata);
+            throw new RateLimitExceededException(
+                    String.format("Too many concurrent requests for limiter '%s'. Please retry later.",
+                            concurrencyLimit.name()),
+                    new RateLimitDecision(false, concurrencyLimit.maxInFlight(), 0,
+                            properties.getConcurrency().getRetryAfter().toMillis()));
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            concurrencyLimiterService.release(permit);
+        }
+    }
+}
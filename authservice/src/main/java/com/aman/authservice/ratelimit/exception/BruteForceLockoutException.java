@@ -3,9 +3,32 @@ package com.aman.authservice.ratelimit.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+
 public class BruteForceLockoutException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
     public BruteForceLockoutException(String message) {
+        this(message, Duration.ZERO);
+    }
+
+    public BruteForceLockoutException(String message, Duration retryAfter) {
         super(HttpStatus.LOCKED, message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Remaining lockout time; zero when unknown.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
     }
-}
 
+    /**
+     * Remaining lockout in whole seconds, rounded up and at least one, for the {@code Retry-After} header.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
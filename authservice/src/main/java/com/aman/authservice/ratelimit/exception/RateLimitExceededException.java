@@ -1,11 +1,26 @@
 package com.aman.authservice.ratelimit.exception;
 
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 public class RateLimitExceededException extends ResponseStatusException {
+
+    private final transient RateLimitDecision decision;
+
     public RateLimitExceededException(String message) {
+        this(message, null);
+    }
+
+    public RateLimitExceededException(String message, RateLimitDecision decision) {
         super(HttpStatus.TOO_MANY_REQUESTS, message);
+        this.decision = decision;
     }
-}
 
+    /**
+     * Decision that caused the rejection, or {@code null} if the caller did not supply one.
+     */
+    public RateLimitDecision getDecision() {
+        return decision;
+    }
+}
@@ -0,0 +1,116 @@
+package com.aman.authservice.ratelimit.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request wrapper holding a small JSON body in memory so it can be inspected by a filter and then read again by
+ * Spring MVC.
+ */
+final class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    private CachedBodyHttpServletRequest(HttpServletRequest request, byte[] body) {
+        super(request);
+        this.body = body;
+    }
+
+    /**
+     * Buffers the body of a JSON request with a declared length of at most {@code maxBytes}.
+     *
+     * @return the wrapper, or {@code null} if the body is not JSON, has no declared length or is too large (the
+     * original stream is left untouched in that case)
+     */
+    static CachedBodyHttpServletRequest wrap(HttpServletRequest request, int maxBytes) throws IOException {
+        long length = request.getContentLengthLong();
+        if (length <= 0 || length > maxBytes || !isJson(request.getContentType())) {
+            return null;
+        }
+        return new CachedBodyHttpServletRequest(request, request.getInputStream().readNBytes((int) length));
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream stream = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return stream.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                // The whole body is already buffered, so it is available and complete as soon as the listener is set
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (IOException ex) {
+                    readListener.onError(ex);
+                }
+            }
+
+            @Override
+            public int read() {
+                return stream.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return stream.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset()));
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)
+                    || mediaType.getSubtype().endsWith("+json");
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
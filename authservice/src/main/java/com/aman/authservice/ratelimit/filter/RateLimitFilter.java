@@ -0,0 +1,220 @@
+package com.aman.authservice.ratelimit.filter;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.exception.ErrorResponse;
+import com.aman.authservice.ratelimit.annotation.RateLimiter;
+import com.aman.authservice.ratelimit.exception.BruteForceLockoutException;
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
+import com.aman.authservice.ratelimit.model.RateLimitHeaders;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.aman.authservice.ratelimit.policy.RateLimitPolicyStore;
+import com.aman.authservice.ratelimit.registry.RateLimiterDefinitionRegistry;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.service.RedisRateLimiterService;
+import com.aman.authservice.ratelimit.service.TarpitService;
+import com.aman.authservice.util.ClientRequestMetadataExtractor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Enforces {@link RateLimiter} before Spring MVC reads, deserializes and validates the request body.
+ * <p>
+ * The limiter is found by resolving the target handler method from the handler mapping. IP-keyed limiters are
+ * checked first, from request metadata alone. Username-keyed limiters need the username, which is peeked from the
+ * raw JSON body with a streaming parser; the body is buffered once and handed on to MVC. A rejected request never
+ * reaches the dispatcher. Rejections of limiters marked {@link RateLimiter#tarpit()} are held open by the
+ * {@link TarpitService} instead of being answered at once.
+ * <p>
+ * The filter records what it enforced in {@link #ENFORCED_ATTRIBUTE}, so {@code RateLimiterAspect} only checks what
+ * is left (for example username-keyed limiters when the body carried no username and the name must come from the
+ * security context).
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String ENFORCED_ATTRIBUTE = RateLimitFilter.class.getName() + ".ENFORCED";
+    public static final String DECISION_ATTRIBUTE = RateLimitFilter.class.getName() + ".DECISION";
+
+    /**
+     * Limiters already enforced for the current request. The combined decision so far is stored under
+     * {@link #DECISION_ATTRIBUTE}.
+     */
+    public enum Enforced {
+        /**
+         * Only IP-keyed limiters; username-keyed limiters still have to be checked.
+         */
+        IP_SCOPED,
+        ALL
+    }
+
+    private final RateLimitingProperties properties;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private final RateLimiterDefinitionRegistry definitionRegistry;
+    private final RateLimitPolicyStore policyStore;
+    private final RedisRateLimiterService redisRateLimiterService;
+    private final RateLimitKeyResolver keyResolver;
+    private final ClientRequestMetadataExtractor metadataExtractor;
+    private final RequestBodyUsernamePeeker usernamePeeker;
+    private final TarpitService tarpitService;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitingProperties properties,
+                           @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping,
+                           RateLimiterDefinitionRegistry definitionRegistry,
+                           RateLimitPolicyStore policyStore,
+                           RedisRateLimiterService redisRateLimiterService,
+                           RateLimitKeyResolver keyResolver,
+                           ClientRequestMetadataExtractor metadataExtractor,
+                           RequestBodyUsernamePeeker usernamePeeker,
+                           TarpitService tarpitService,
+                           ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.handlerMapping = handlerMapping;
+        this.definitionRegistry = definitionRegistry;
+        this.policyStore = policyStore;
+        this.redisRateLimiterService = redisRateLimiterService;
+        this.keyResolver = keyResolver;
+        this.metadataExtractor = metadataExtractor;
+        this.usernamePeeker = usernamePeeker;
+        this.tarpitService = tarpitService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return properties.getEnforcement() != RateLimitingProperties.Enforcement.FILTER;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HandlerMethod handlerMethod = resolveHandlerMethod(request);
+        RateLimiter rateLimiter = handlerMethod != null
+                ? AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RateLimiter.class)
+                : null;
+        if (rateLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String ip = metadataExtractor.extractClientIp(request);
+        String tenant = metadataExtractor.resolveTenant(request, properties.getTenantHeader(), "public");
+        RateLimiterDefinition definition = policyStore.resolve(
+                definitionRegistry.get(handlerMethod.getMethod(), rateLimiter),
+                metadataExtractor.resolvePolicyTenant(tenant, "public"));
+
+        RateLimitDecision decision = redisRateLimiterService.evaluate(
+                definition, keyResolver.buildMetadata(ip, tenant, null), strategy -> !strategy.isUsernameScoped());
+        if (!decision.isAllowed()) {
+            reject(request, response, definition, decision);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        Enforced enforced = definition.isUsernameScoped() ? Enforced.IP_SCOPED : Enforced.ALL;
+        if (enforced == Enforced.IP_SCOPED) {
+            CachedBodyHttpServletRequest cached = CachedBodyHttpServletRequest.wrap(request, properties.getPeekMaxBytes());
+            String username = cached != null ? usernamePeeker.peek(cached.getBody()) : null;
+            if (cached != null) {
+                forwarded = cached;
+            }
+            if (username != null) {
+                try {
+                    decision = decision.mostRestrictive(redisRateLimiterService.evaluate(
+                            definition, keyResolver.buildMetadata(ip, tenant, username),
+                            RateLimitKeyStrategy::isUsernameScoped));
+                } catch (BruteForceLockoutException ex) {
+                    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+                    writeError(request, response, definition, HttpStatus.LOCKED, ex.getReason());
+                    return;
+                }
+                if (!decision.isAllowed()) {
+                    reject(request, response, definition, decision);
+                    return;
+                }
+                enforced = Enforced.ALL;
+            }
+        }
+
+        RateLimitHeaders.apply(decision, response);
+        forwarded.setAttribute(ENFORCED_ATTRIBUTE, enforced);
+        forwarded.setAttribute(DECISION_ATTRIBUTE, decision);
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private HandlerMethod resolveHandlerMethod(HttpServletRequest request) {
+        RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+        if (mapping == null) {
+            return null;
+        }
+        RequestPath previousPath = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : null;
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            HandlerExecutionChain chain = mapping.getHandler(request);
+            return chain != null && chain.getHandler() instanceof HandlerMethod method ? method : null;
+        } catch (Exception ex) {
+            log.debug("Handler lookup failed - deferring rate limiting to the aspect | uri={}", request.getRequestURI(), ex);
+            return null;
+        } finally {
+            if (previousPath != null) {
+                ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
+            } else {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RateLimiterDefinition definition,
+                        RateLimitDecision decision) throws IOException {
+        log.warn("Rate limit exceeded at filter | limiter={} | uri={}", definition.getName(), request.getRequestURI());
+        RateLimitHeaders.apply(decision, response);
+        writeError(request, response, definition, HttpStatus.TOO_MANY_REQUESTS,
+                String.format("Too many requests for limiter '%s'. Please retry later.", definition.getName()));
+    }
+
+    /**
+     * Writes the error body without closing the stream, so a tarpitted response can be held open and completed
+     * later by {@link TarpitService}.
+     */
+    private void writeError(HttpServletRequest request, HttpServletResponse response, RateLimiterDefinition definition,
+                            HttpStatus status, String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(error));
+        if (definition.isTarpit() && tarpitService.hold(request)) {
+            log.debug("Rejected request tarpitted | limiter={} | uri={}", definition.getName(), request.getRequestURI());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.aman.authservice.ratelimit.filter;
+
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+
+/**
+ * Extracts the rate-limit username from a raw JSON body with a streaming parser, without binding DTOs or running
+ * validation. Mirrors {@link RateLimitKeyResolver#extractUsername}: {@code username}, then {@code email}, then the
+ * owner of a refresh {@code token}.
+ * <p>
+ * Duplicate keys are rejected: Jackson binds the last occurrence while a first-match scan would key the limiter on
+ * a decoy, so a body with duplicates yields no username and the aspect re-checks against the bound DTO.
+ */
+@Slf4j
+@Component
+class RequestBodyUsernamePeeker {
+
+    private final JsonFactory jsonFactory;
+    private final RateLimitKeyResolver keyResolver;
+
+    RequestBodyUsernamePeeker(ObjectMapper objectMapper, RateLimitKeyResolver keyResolver) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.keyResolver = keyResolver;
+    }
+
+    /**
+     * @return the normalized username, or {@code null} if the body carries none, repeats a key or is not a JSON
+     * object
+     */
+    String peek(byte[] body) {
+        String username = null;
+        String email = null;
+        String token = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            parser.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value != JsonToken.VALUE_STRING) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "username" -> username = StringUtils.hasText(parser.getText()) ? parser.getText() : null;
+                    case "email" -> email = parser.getText();
+                    case "token" -> token = parser.getText();
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Request body is not parseable JSON - skipping username peek", ex);
+            return null;
+        }
+
+        String resolved = username != null ? username
+                : StringUtils.hasText(email) ? email
+                : StringUtils.hasText(token) ? keyResolver.resolveUsernameFromRefreshToken(token)
+                : null;
+        return StringUtils.hasText(resolved) ? keyResolver.normalizeUsername(resolved) : null;
+    }
+}
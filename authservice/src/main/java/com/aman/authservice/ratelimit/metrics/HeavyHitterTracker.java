@@ -0,0 +1,106 @@
+package com.aman.authservice.ratelimit.metrics;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tracks which IPs, usernames and tenants drive rate-limit rejections and brute-force failures.
+ * <p>
+ * Each (source, dimension) pair has a fixed-size {@link SpaceSavingTopK}, so memory does not grow with the number of
+ * distinct keys. Keys are exposed through the {@code heavyhitters} actuator endpoint; metrics only carry the counts
+ * of the top ranks ({@code rate_limit_heavy_hitter_count{source,dimension,rank}}), keeping their cardinality fixed.
+ */
+@Slf4j
+@Component
+public class HeavyHitterTracker {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    public enum Source {
+        RATE_LIMIT,
+        BRUTE_FORCE
+    }
+
+    public enum Dimension {
+        IP,
+        USERNAME,
+        TENANT
+    }
+
+    private final RateLimitingProperties.HeavyHitters settings;
+    private final Map<Source, Map<Dimension, SpaceSavingTopK>> sketches = new EnumMap<>(Source.class);
+
+    public HeavyHitterTracker(RateLimitingProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getHeavyHitters();
+        for (Source source : Source.values()) {
+            Map<Dimension, SpaceSavingTopK> byDimension = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : Dimension.values()) {
+                SpaceSavingTopK sketch = new SpaceSavingTopK(settings.getCapacity());
+                byDimension.put(dimension, sketch);
+                registerRankGauges(meterRegistry, source, dimension, sketch);
+            }
+            sketches.put(source, byDimension);
+        }
+    }
+
+    /**
+     * Counts one event against each known dimension. Anonymous usernames and missing values are skipped.
+     */
+    public void record(Source source, String ip, String username, String tenant) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        Map<Dimension, SpaceSavingTopK> byDimension = sketches.get(source);
+        add(byDimension.get(Dimension.IP), ip);
+        if (username != null && !ANONYMOUS.equals(username)) {
+            add(byDimension.get(Dimension.USERNAME), username.trim().toLowerCase(Locale.ROOT));
+        }
+        add(byDimension.get(Dimension.TENANT), tenant);
+    }
+
+    public List<SpaceSavingTopK.HeavyHitter> top(Source source, Dimension dimension, int limit) {
+        return sketches.get(source).get(dimension).top(limit);
+    }
+
+    public int getCapacity() {
+        return settings.getCapacity();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${sentinel.rate-limit.heavy-hitters.decay-interval:60s}",
+            initialDelayString = "${sentinel.rate-limit.heavy-hitters.decay-interval:60s}")
+    public void decay() {
+        sketches.values().forEach(byDimension -> byDimension.values().forEach(SpaceSavingTopK::decay));
+    }
+
+    private static void add(SpaceSavingTopK sketch, String key) {
+        if (key != null && !key.isBlank()) {
+            sketch.add(key);
+        }
+    }
+
+    private void registerRankGauges(MeterRegistry meterRegistry, Source source, Dimension dimension,
+                                    SpaceSavingTopK sketch) {
+        for (int rank = 1; rank <= settings.getMetricRanks(); rank++) {
+            int index = rank - 1;
+            Gauge.builder("rate_limit_heavy_hitter_count", sketch, topK -> {
+                        List<SpaceSavingTopK.HeavyHitter> top = topK.top(index + 1);
+                        return top.size() > index ? top.get(index).count() : 0;
+                    })
+                    .description("Estimated events of the key at this rank; see the heavyhitters endpoint for keys")
+                    .tag("source", source.name().toLowerCase(Locale.ROOT))
+                    .tag("dimension", dimension.name().toLowerCase(Locale.ROOT))
+                    .tag("rank", Integer.toString(rank))
+                    .register(meterRegistry);
+        }
+    }
+}
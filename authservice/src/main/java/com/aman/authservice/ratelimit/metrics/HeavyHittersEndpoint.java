@@ -0,0 +1,73 @@
+package com.aman.authservice.ratelimit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint listing the keys behind rate-limit rejections and brute-force failures:
+ * {@code /actuator/heavyhitters} for every source, {@code /actuator/heavyhitters/{source}} for one. An unknown
+ * source is answered with 400 listing the accepted values.
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+@RequiredArgsConstructor
+public class HeavyHittersEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HeavyHitterTracker tracker;
+
+    @ReadOperation
+    public Map<HeavyHitterTracker.Source, Map<HeavyHitterTracker.Dimension, List<SpaceSavingTopK.HeavyHitter>>> all(
+            @Nullable Integer limit) {
+        Map<HeavyHitterTracker.Source, Map<HeavyHitterTracker.Dimension, List<SpaceSavingTopK.HeavyHitter>>> all =
+                new EnumMap<>(HeavyHitterTracker.Source.class);
+        for (HeavyHitterTracker.Source source : HeavyHitterTracker.Source.values()) {
+            all.put(source, bySource(source, limit));
+        }
+        return all;
+    }
+
+    @ReadOperation
+    public Map<HeavyHitterTracker.Dimension, List<SpaceSavingTopK.HeavyHitter>> source(@Selector String source,
+                                                                                        @Nullable Integer limit) {
+        return bySource(parseSource(source), limit);
+    }
+
+    private static HeavyHitterTracker.Source parseSource(String source) {
+        String normalized = source.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (HeavyHitterTracker.Source candidate : HeavyHitterTracker.Source.values()) {
+            if (candidate.name().equals(normalized)) {
+                return candidate;
+            }
+        }
+        String allowed = Arrays.stream(HeavyHitterTracker.Source.values())
+                .map(candidate -> candidate.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .collect(Collectors.joining(", "));
+        throw new InvalidEndpointRequestException("Unknown heavy-hitter source '" + source + "'",
+                "Unknown source '" + source + "'; expected one of: " + allowed);
+    }
+
+    private Map<HeavyHitterTracker.Dimension, List<SpaceSavingTopK.HeavyHitter>> bySource(
+            HeavyHitterTracker.Source source, Integer limit) {
+        int effectiveLimit = limit != null && limit > 0 ? Math.min(limit, tracker.getCapacity()) : DEFAULT_LIMIT;
+        Map<HeavyHitterTracker.Dimension, List<SpaceSavingTopK.HeavyHitter>> byDimension =
+                new EnumMap<>(HeavyHitterTracker.Dimension.class);
+        for (HeavyHitterTracker.Dimension dimension : HeavyHitterTracker.Dimension.values()) {
+            byDimension.put(dimension, tracker.top(source, dimension, effectiveLimit));
+        }
+        return byDimension;
+    }
+}
@@ -0,0 +1,102 @@
+package com.aman.authservice.ratelimit.metrics;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Latency instrumentation for rate limiting.
+ * <ul>
+ *     <li>{@code rate_limit_check_seconds{limiter,outcome}}: time a request spends in the rate-limit gate;</li>
+ *     <li>{@code rate_limit_script_seconds{limiter,check,outcome}}: round trip of each script or lookup issued by
+ *     the gate ({@code check} is {@code fixed_window}, {@code sliding_window}, {@code gcra} or
+ *     {@code brute_force});</li>
+ *     <li>{@code rate_limit_redis_inflight}: gate checks currently waiting on Redis.</li>
+ * </ul>
+ * Timers publish percentile histograms so latency SLOs can be computed across instances. Tag values are bounded by
+ * the set of limiter names.
+ */
+@Component
+public class RateLimiterMetrics {
+
+    public static final String ALLOWED = "allowed";
+    public static final String BLOCKED = "blocked";
+    public static final String FALLBACK = "fallback";
+    private static final String ERROR = "error";
+    private static final String CANCELLED = "cancelled";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration maximumExpectedLatency;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public RateLimiterMetrics(MeterRegistry meterRegistry, RateLimitingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.maximumExpectedLatency = properties.getRedisTimeout().multipliedBy(2);
+        Gauge.builder("rate_limit_redis_inflight", inflight, AtomicInteger::get)
+                .description("Rate-limit gate checks currently waiting on Redis")
+                .tag("service", properties.getMetricTag())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs one gate check and counts it as in flight while it waits on Redis.
+     */
+    public <T> T inflight(Supplier<T> check) {
+        inflight.incrementAndGet();
+        try {
+            return check.get();
+        } finally {
+            inflight.decrementAndGet();
+        }
+    }
+
+    public void recordCheck(String limiter, String outcome, long startNanos) {
+        timer("rate_limit_check_seconds", "Time spent in the rate-limit gate per request",
+                "limiter", limiter, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times one script or lookup from subscription to completion. The outcome is {@code allowed} or
+     * {@code blocked} according to {@code allowed}, {@code error} on failure and {@code cancelled} when the gate
+     * gave up waiting.
+     */
+    public <T> Mono<T> timeScript(String limiter, String check, Mono<T> script, Predicate<T> allowed) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return script
+                    .doOnSuccess(result -> recordScript(limiter, check,
+                            result == null || allowed.test(result) ? ALLOWED : BLOCKED, start))
+                    .doOnError(ex -> recordScript(limiter, check, ERROR, start))
+                    .doOnCancel(() -> recordScript(limiter, check, CANCELLED, start));
+        });
+    }
+
+    private void recordScript(String limiter, String check, String outcome, long startNanos) {
+        timer("rate_limit_script_seconds", "Redis round trip of a rate-limit script or lookup",
+                "limiter", limiter, "check", check, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return timers.computeIfAbsent(name + String.join("|", tags), ignored -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(maximumExpectedLatency)
+                .register(meterRegistry));
+    }
+}
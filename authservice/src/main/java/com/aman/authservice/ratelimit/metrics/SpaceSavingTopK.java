@@ -0,0 +1,112 @@
+package com.aman.authservice.ratelimit.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-saving top-K counter (Metwally et al.): tracks the most frequent keys of an unbounded stream in at most
+ * {@code capacity} slots.
+ * <p>
+ * When all slots are taken, an unseen key replaces the current minimum and inherits its count as the error bound,
+ * so every key whose true count exceeds {@code total / capacity} is guaranteed to be tracked. Counts are
+ * overestimates by at most {@link HeavyHitter#error()}.
+ */
+public class SpaceSavingTopK {
+
+    private static final Comparator<Slot> BY_COUNT = Comparator.<Slot>comparingLong(slot -> slot.count)
+            .thenComparingLong(slot -> slot.sequence);
+
+    private final int capacity;
+    private final Map<String, Slot> slots;
+    private final TreeSet<Slot> byCount = new TreeSet<>(BY_COUNT);
+    private long sequence;
+
+    public SpaceSavingTopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void add(String key) {
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            byCount.remove(slot);
+            slot.count++;
+        } else if (slots.size() < capacity) {
+            slot = new Slot(key, 1, 0);
+            slots.put(key, slot);
+        } else {
+            Slot min = byCount.pollFirst();
+            slots.remove(min.key);
+            slot = new Slot(key, min.count + 1, min.count);
+            slots.put(key, slot);
+        }
+        slot.sequence = sequence++;
+        byCount.add(slot);
+    }
+
+    /**
+     * Most frequent keys first.
+     */
+    public synchronized List<HeavyHitter> top(int limit) {
+        List<HeavyHitter> top = new ArrayList<>(Math.min(limit, slots.size()));
+        for (Slot slot : byCount.descendingSet()) {
+            if (top.size() >= limit) {
+                break;
+            }
+            top.add(new HeavyHitter(slot.key, slot.count, slot.error));
+        }
+        return top;
+    }
+
+    /**
+     * Halves every count so the ranking follows recent traffic. Keys that drop to zero free their slot.
+     */
+    public synchronized void decay() {
+        List<Slot> remaining = new ArrayList<>(byCount);
+        byCount.clear();
+        for (Slot slot : remaining) {
+            slot.count >>= 1;
+            slot.error >>= 1;
+            if (slot.count == 0) {
+                slots.remove(slot.key);
+            } else {
+                byCount.add(slot);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @param count estimated occurrences; the true count lies in {@code [count - error, count]}
+     * @param error maximum overestimate
+     */
+    public record HeavyHitter(String key, long count, long error) {
+    }
+
+    private static final class Slot {
+        private final String key;
+        private long count;
+        private long error;
+        private long sequence;
+
+        private Slot(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
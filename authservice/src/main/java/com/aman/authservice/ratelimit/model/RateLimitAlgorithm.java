@@ -0,0 +1,19 @@
+package com.aman.authservice.ratelimit.model;
+
+/**
+ * Algorithm used to enforce a {@link RateLimiterDefinition}.
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * Fixed-window counter combined with a sliding-window log (one Redis key per window).
+     */
+    WINDOW,
+    /**
+     * Generic cell rate algorithm: a single theoretical-arrival-time timestamp per key, with burst tolerance.
+     */
+    GCRA,
+    /**
+     * Both of the above: the windows as configured, plus GCRA as an additional check on its own key.
+     */
+    WINDOW_AND_GCRA
+}
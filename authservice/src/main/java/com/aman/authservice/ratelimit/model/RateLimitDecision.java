@@ -0,0 +1,75 @@
+package com.aman.authservice.ratelimit.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of a rate-limit check, carrying what clients need to back off precisely.
+ * <p>
+ * {@link #getLimit()} is negative when no quota information is available (no limiter enabled, or Redis bypassed by
+ * the circuit breaker); such decisions produce no rate-limit headers.
+ */
+@Value
+public class RateLimitDecision {
+
+    private static final RateLimitDecision UNKNOWN = new RateLimitDecision(true, -1, -1, 0);
+
+    boolean allowed;
+    long limit;
+    long remaining;
+    /**
+     * Milliseconds until quota becomes available again (blocked) or until the current window resets (allowed).
+     */
+    long resetMillis;
+
+    public static RateLimitDecision unknown() {
+        return UNKNOWN;
+    }
+
+    /**
+     * Builds a decision from a Lua script result of the form {@code {allowed, remaining, reset_ms}}.
+     */
+    public static RateLimitDecision fromScript(List<?> result, long limit) {
+        if (result == null || result.size() < 3) {
+            return UNKNOWN;
+        }
+        return new RateLimitDecision(
+                toLong(result.get(0)) == 1L,
+                limit,
+                toLong(result.get(1)),
+                toLong(result.get(2)));
+    }
+
+    public boolean hasQuota() {
+        return limit >= 0;
+    }
+
+    public long getResetSeconds() {
+        return (resetMillis + 999) / 1000;
+    }
+
+    /**
+     * Combines two decisions for the same request into the one the client should observe: any rejection wins (the
+     * longest wait among rejections), otherwise the decision with the least remaining quota.
+     */
+    public RateLimitDecision mostRestrictive(RateLimitDecision other) {
+        if (!other.hasQuota()) {
+            return this;
+        }
+        if (!hasQuota()) {
+            return other;
+        }
+        if (allowed != other.allowed) {
+            return allowed ? other : this;
+        }
+        if (!allowed) {
+            return resetMillis >= other.resetMillis ? this : other;
+        }
+        return remaining <= other.remaining ? this : other;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
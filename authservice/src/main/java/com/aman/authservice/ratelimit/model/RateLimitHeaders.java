@@ -0,0 +1,38 @@
+package com.aman.authservice.ratelimit.model;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Writes the {@code RateLimit-*} and {@code Retry-After} response headers for a {@link RateLimitDecision}.
+ */
+public final class RateLimitHeaders {
+
+    public static final String LIMIT = "RateLimit-Limit";
+    public static final String REMAINING = "RateLimit-Remaining";
+    public static final String RESET = "RateLimit-Reset";
+
+    private RateLimitHeaders() {
+    }
+
+    public static void apply(RateLimitDecision decision, HttpServletResponse response) {
+        if (response == null) {
+            return;
+        }
+        toHttpHeaders(decision).forEach((name, values) -> response.setHeader(name, values.get(0)));
+    }
+
+    public static HttpHeaders toHttpHeaders(RateLimitDecision decision) {
+        HttpHeaders headers = new HttpHeaders();
+        if (decision == null || !decision.hasQuota()) {
+            return headers;
+        }
+        headers.set(LIMIT, Long.toString(decision.getLimit()));
+        headers.set(REMAINING, Long.toString(decision.getRemaining()));
+        headers.set(RESET, Long.toString(decision.getResetSeconds()));
+        if (!decision.isAllowed()) {
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, decision.getResetSeconds())));
+        }
+        return headers;
+    }
+}
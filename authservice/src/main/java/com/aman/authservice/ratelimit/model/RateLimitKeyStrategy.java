@@ -1,8 +1,20 @@
 package com.aman.authservice.ratelimit.model;
 
 public enum RateLimitKeyStrategy {
-    IP,
-    IP_USERNAME,
-    IP_USERNAME_TENANT
-}
+    IP(false),
+    IP_USERNAME(true),
+    IP_USERNAME_TENANT(true);
+
+    private final boolean usernameScoped;
 
+    RateLimitKeyStrategy(boolean usernameScoped) {
+        this.usernameScoped = usernameScoped;
+    }
+
+    /**
+     * Whether keys of this strategy include the username, which may only be known after reading the request body.
+     */
+    public boolean isUsernameScoped() {
+        return usernameScoped;
+    }
+}
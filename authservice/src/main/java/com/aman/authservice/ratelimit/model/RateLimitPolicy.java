@@ -0,0 +1,87 @@
+package com.aman.authservice.ratelimit.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Runtime override of a limiter's settings for one tenant. Null fields inherit the value from the
+ * annotation/properties based {@link RateLimiterDefinition}.
+ * <p>
+ * A tenant of {@value #ANY_TENANT} applies to every tenant that has no policy of its own.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitPolicy {
+
+    public static final String ANY_TENANT = "*";
+
+    private String tenant;
+    private String limiter;
+    private RateLimitAlgorithm algorithm;
+    private Integer cost;
+    private Integer fixedWindowLimit;
+    private Integer fixedWindowSeconds;
+    private Integer fixedWindowLeaseSize;
+    private Integer slidingWindowLimit;
+    private Integer slidingWindowSeconds;
+    private Integer gcraLimit;
+    private Integer gcraPeriodSeconds;
+    private Integer gcraBurst;
+
+    public String id() {
+        return id(tenant, limiter);
+    }
+
+    public static String id(String tenant, String limiter) {
+        return normalizeTenant(tenant) + ':' + limiter;
+    }
+
+    /**
+     * Tenants are matched case-insensitively, in the form {@code ClientRequestMetadataExtractor} resolves them.
+     */
+    public static String normalizeTenant(String tenant) {
+        return tenant == null ? null : tenant.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public RateLimiterDefinition applyTo(RateLimiterDefinition definition) {
+        RateLimiterDefinition.RateLimiterDefinitionBuilder builder = definition.toBuilder();
+        if (algorithm != null) {
+            builder.algorithm(algorithm);
+        }
+        if (cost != null) {
+            builder.cost(Math.max(1, cost));
+        }
+        if (fixedWindowLimit != null) {
+            builder.fixedWindowLimit(fixedWindowLimit);
+        }
+        if (fixedWindowSeconds != null) {
+            builder.fixedWindowDuration(Duration.ofSeconds(fixedWindowSeconds));
+        }
+        if (fixedWindowLeaseSize != null) {
+            builder.fixedWindowLeaseSize(fixedWindowLeaseSize);
+        }
+        if (slidingWindowLimit != null) {
+            builder.slidingWindowLimit(slidingWindowLimit);
+        }
+        if (slidingWindowSeconds != null) {
+            builder.slidingWindowDuration(Duration.ofSeconds(slidingWindowSeconds));
+        }
+        if (gcraLimit != null) {
+            builder.gcraLimit(gcraLimit);
+        }
+        if (gcraPeriodSeconds != null) {
+            builder.gcraPeriod(Duration.ofSeconds(gcraPeriodSeconds));
+        }
+        if (gcraBurst != null) {
+            builder.gcraBurst(gcraBurst);
+        }
+        return builder.build();
+    }
+}
@@ -6,22 +6,73 @@ import lombok.Value;
 import java.time.Duration;
 
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class RateLimiterDefinition {
     String name;
+    /**
+     * Sanitized form of {@link #name} used as the Redis key segment. Precomputed once per limiter;
+     * when absent the key resolver sanitizes {@link #name} on demand.
+     */
+    String keyName;
+    @Builder.Default
+    RateLimitAlgorithm algorithm = RateLimitAlgorithm.WINDOW;
+    /**
+     * Units charged against the GCRA budget per call. The windows always count calls.
+     */
+    @Builder.Default
+    int cost = 1;
+    boolean bruteForceGuard;
+    boolean tarpit;
     RateLimitKeyStrategy fixedWindowKeyStrategy;
     RateLimitKeyStrategy slidingWindowKeyStrategy;
+    RateLimitKeyStrategy gcraKeyStrategy;
+    /**
+     * Key segment of the GCRA state. Limiters with the same value draw from one budget; when absent the GCRA state
+     * belongs to this limiter alone.
+     */
+    String gcraKeyName;
     int fixedWindowLimit;
     Duration fixedWindowDuration;
+    int fixedWindowLeaseSize;
     int slidingWindowLimit;
     Duration slidingWindowDuration;
+    int gcraLimit;
+    Duration gcraPeriod;
+    int gcraBurst;
 
     public boolean isFixedWindowEnabled() {
-        return fixedWindowLimit > 0 && fixedWindowDuration != null && !fixedWindowDuration.isZero();
+        return algorithm != RateLimitAlgorithm.GCRA
+                && fixedWindowLimit > 0 && fixedWindowDuration != null && !fixedWindowDuration.isZero();
+    }
+
+    public boolean isFixedWindowLeased() {
+        return isFixedWindowEnabled() && fixedWindowLeaseSize > 0;
     }
 
     public boolean isSlidingWindowEnabled() {
-        return slidingWindowLimit > 0 && slidingWindowDuration != null && !slidingWindowDuration.isZero();
+        return algorithm != RateLimitAlgorithm.GCRA
+                && slidingWindowLimit > 0 && slidingWindowDuration != null && !slidingWindowDuration.isZero();
+    }
+
+    public boolean isGcraEnabled() {
+        return algorithm != RateLimitAlgorithm.WINDOW
+                && gcraLimit > 0 && gcraBurst > 0 && gcraPeriod != null && !gcraPeriod.isZero();
     }
-}
 
+    /**
+     * Whether enforcement needs the username: an enabled limiter keys on it, or the brute-force guard is on.
+     */
+    public boolean isUsernameScoped() {
+        return bruteForceGuard
+                || isFixedWindowEnabled() && fixedWindowKeyStrategy.isUsernameScoped()
+                || isSlidingWindowEnabled() && slidingWindowKeyStrategy.isUsernameScoped()
+                || isGcraEnabled() && gcraKeyStrategy.isUsernameScoped();
+    }
+
+    /**
+     * Milliseconds between two unit-cost requests at the sustained GCRA rate.
+     */
+    public double getGcraEmissionIntervalMillis() {
+        return (double) gcraPeriod.toMillis() / gcraLimit;
+    }
+}
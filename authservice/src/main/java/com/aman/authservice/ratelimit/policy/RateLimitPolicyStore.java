@@ -0,0 +1,165 @@
+package com.aman.authservice.ratelimit.policy;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitPolicy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant rate-limit policies kept in a Redis hash ({@code field = tenant:limiter}, value = JSON) and cached
+ * locally on every node.
+ * <p>
+ * Writes go through this store, which updates the hash and publishes on the change channel; every node (including
+ * the writer) reloads its snapshot when the notification arrives. A periodic refresh covers missed messages. The
+ * request path only reads the in-memory snapshot, and keeps serving the last snapshot while Redis is unavailable.
+ */
+@Slf4j
+@Service
+public class RateLimitPolicyStore implements MessageListener, SmartInitializingSingleton {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RateLimitingProperties.Policy properties;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public RateLimitPolicyStore(StringRedisTemplate stringRedisTemplate,
+                                ObjectMapper objectMapper,
+                                RateLimitingProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getPolicy();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        log.info("Rate limit policy change notification received | payload={}", new String(message.getBody()));
+        reload();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${sentinel.rate-limit.policy.refresh-interval:60s}",
+            initialDelayString = "${sentinel.rate-limit.policy.refresh-interval:60s}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Returns the definition with the tenant's policy applied, or the definition itself when no policy matches.
+     * Applied definitions are memoized per snapshot; like the Redis keys, this relies on limiter names being
+     * unique.
+     */
+    public RateLimiterDefinition resolve(RateLimiterDefinition definition, String tenant) {
+        Snapshot current = snapshot;
+        if (current.policies.isEmpty()) {
+            return definition;
+        }
+        String id = RateLimitPolicy.id(tenant, definition.getName());
+        RateLimitPolicy policy = current.policies.get(id);
+        if (policy == null) {
+            id = RateLimitPolicy.id(RateLimitPolicy.ANY_TENANT, definition.getName());
+            policy = current.policies.get(id);
+        }
+        if (policy == null) {
+            return definition;
+        }
+        RateLimitPolicy matched = policy;
+        return current.applied.computeIfAbsent(id, ignored -> matched.applyTo(definition));
+    }
+
+    public Collection<RateLimitPolicy> findAll() {
+        return snapshot.policies.values();
+    }
+
+    public Optional<RateLimitPolicy> find(String tenant, String limiter) {
+        return Optional.ofNullable(snapshot.policies.get(RateLimitPolicy.id(tenant, limiter)));
+    }
+
+    public RateLimitPolicy save(RateLimitPolicy policy) {
+        try {
+            stringRedisTemplate.opsForHash().put(properties.getHashKey(), policy.id(), objectMapper.writeValueAsString(policy));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Rate limit policy could not be serialized", ex);
+        }
+        notifyChange(policy.id());
+        log.info("Rate limit policy saved | policy={}", policy);
+        return policy;
+    }
+
+    public boolean delete(String tenant, String limiter) {
+        String id = RateLimitPolicy.id(tenant, limiter);
+        Long removed = stringRedisTemplate.opsForHash().delete(properties.getHashKey(), id);
+        boolean deleted = removed != null && removed > 0;
+        if (deleted) {
+            notifyChange(id);
+            log.info("Rate limit policy deleted | policy={}", id);
+        }
+        return deleted;
+    }
+
+    /**
+     * Replaces the local snapshot with the current content of the Redis hash. Entries that cannot be parsed are
+     * skipped; if Redis is unreachable the previous snapshot is kept.
+     */
+    public void reload() {
+        Map<Object, Object> entries;
+        try {
+            entries = stringRedisTemplate.opsForHash().entries(properties.getHashKey());
+        } catch (Exception ex) {
+            log.warn("Rate limit policy reload failed, keeping {} cached policies", snapshot.policies.size(), ex);
+            return;
+        }
+
+        Map<String, RateLimitPolicy> policies = new HashMap<>(entries.size());
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            try {
+                RateLimitPolicy policy = objectMapper.readValue((String) entry.getValue(), RateLimitPolicy.class);
+                policy.setTenant(RateLimitPolicy.normalizeTenant(policy.getTenant()));
+                policies.put(policy.id(), policy);
+            } catch (JsonProcessingException ex) {
+                log.warn("Skipping malformed rate limit policy | field={}", entry.getKey(), ex);
+            }
+        }
+        snapshot = new Snapshot(Map.copyOf(policies));
+        log.debug("Rate limit policies reloaded | count={}", policies.size());
+    }
+
+    private void notifyChange(String id) {
+        try {
+            stringRedisTemplate.convertAndSend(properties.getChannel(), id);
+        } catch (Exception ex) {
+            log.warn("Rate limit policy change notification failed, reloading locally | policy={}", id, ex);
+            reload();
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of());
+
+        final Map<String, RateLimitPolicy> policies;
+        final Map<String, RateLimiterDefinition> applied = new ConcurrentHashMap<>();
+
+        Snapshot(Map<String, RateLimitPolicy> policies) {
+            this.policies = policies;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.aman.authservice.ratelimit.registry;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.annotation.RateLimiter;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one precomputed {@link RateLimiterDefinition} per {@link RateLimiter}-annotated method.
+ * <p>
+ * Definitions are built once at startup by scanning bean types (no bean is instantiated for this), so the
+ * request path only performs a map lookup. Methods not seen during the scan are resolved lazily on first use.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiterDefinitionRegistry implements SmartInitializingSingleton {
+
+    private final RateLimitingProperties properties;
+    private final ConfigurableListableBeanFactory beanFactory;
+
+    private final Map<Method, RateLimiterDefinition> definitions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            Map<Method, RateLimiter> annotated = MethodIntrospector.selectMethods(
+                    ClassUtils.getUserClass(beanType),
+                    (MethodIntrospector.MetadataLookup<RateLimiter>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, RateLimiter.class));
+            annotated.forEach(this::register);
+        }
+        log.info("Rate limiter definitions precomputed | count={}", definitions.size());
+        warnIfTarpitIgnored();
+    }
+
+    /**
+     * Returns the definition for the given method, building it from the annotation if it was not registered at
+     * startup.
+     */
+    public RateLimiterDefinition get(Method method, RateLimiter rateLimiter) {
+        RateLimiterDefinition definition = definitions.get(method);
+        if (definition != null) {
+            return definition;
+        }
+        return definitions.computeIfAbsent(method, ignored -> buildDefinition(rateLimiter));
+    }
+
+    public Map<Method, RateLimiterDefinition> getDefinitions() {
+        return Map.copyOf(definitions);
+    }
+
+    /**
+     * Tarpitting needs the filter, which writes the rejection itself and can hold it open; rejections raised by the
+     * aspect go through the exception handler and are answered at once.
+     */
+    private void warnIfTarpitIgnored() {
+        if (!properties.getTarpit().isEnabled()
+                || properties.getEnforcement() == RateLimitingProperties.Enforcement.FILTER) {
+            return;
+        }
+        List<String> tarpitted = definitions.values().stream()
+                .filter(RateLimiterDefinition::isTarpit)
+                .map(RateLimiterDefinition::getName)
+                .sorted()
+                .toList();
+        if (!tarpitted.isEmpty()) {
+            log.warn("Tarpit is enabled but only applies with FILTER enforcement - rejections are answered at once "
+                    + "| enforcement={} | limiters={}", properties.getEnforcement(), tarpitted);
+        }
+    }
+
+    private void register(Method method, RateLimiter rateLimiter) {
+        definitions.putIfAbsent(method, buildDefinition(rateLimiter));
+    }
+
+    private RateLimiterDefinition buildDefinition(RateLimiter rateLimiter) {
+        RateLimitingProperties.Window fixed = properties.getFixedWindow();
+        RateLimitingProperties.Window sliding = properties.getSlidingWindow();
+        RateLimitingProperties.Gcra gcra = properties.getGcra();
+
+        int fixedLimit = rateLimiter.fixedWindowLimit() > 0 ? rateLimiter.fixedWindowLimit() : fixed.getLimit();
+        Duration fixedDuration = rateLimiter.fixedWindowSeconds() > 0
+                ? Duration.ofSeconds(rateLimiter.fixedWindowSeconds())
+                : fixed.getDuration();
+
+        int slidingLimit = rateLimiter.slidingWindowLimit() > 0 ? rateLimiter.slidingWindowLimit() : sliding.getLimit();
+        Duration slidingDuration = rateLimiter.slidingWindowSeconds() > 0
+                ? Duration.ofSeconds(rateLimiter.slidingWindowSeconds())
+                : sliding.getDuration();
+
+        int gcraLimit = rateLimiter.gcraLimit() > 0 ? rateLimiter.gcraLimit() : gcra.getLimit();
+        Duration gcraPeriod = rateLimiter.gcraPeriodSeconds() > 0
+                ? Duration.ofSeconds(rateLimiter.gcraPeriodSeconds())
+                : gcra.getPeriod();
+        int gcraBurst = rateLimiter.gcraBurst() > 0 ? rateLimiter.gcraBurst() : gcra.getBurst();
+
+        String keyName = RateLimitKeyBuilder.sanitize(rateLimiter.name());
+        return RateLimiterDefinition.builder()
+                .name(rateLimiter.name())
+                .keyName(keyName)
+                .algorithm(rateLimiter.algorithm())
+                .cost(Math.max(1, rateLimiter.cost()))
+                .bruteForceGuard(rateLimiter.bruteForceGuard())
+                .tarpit(rateLimiter.tarpit())
+                .fixedWindowKeyStrategy(rateLimiter.fixedWindowKey())
+                .slidingWindowKeyStrategy(rateLimiter.slidingWindowKey())
+                .fixedWindowLimit(fixedLimit)
+                .fixedWindowDuration(fixedDuration)
+                .fixedWindowLeaseSize(rateLimiter.fixedWindowLeaseSize())
+                .slidingWindowLimit(slidingLimit)
+                .slidingWindowDuration(slidingDuration)
+                .gcraKeyStrategy(rateLimiter.gcraKey())
+                .gcraKeyName(rateLimiter.gcraBudget().isBlank()
+                        ? keyName
+                        : RateLimitKeyBuilder.sanitize(rateLimiter.gcraBudget()))
+                .gcraLimit(gcraLimit)
+                .gcraPeriod(gcraPeriod)
+                .gcraBurst(gcraBurst)
+                .build();
+    }
+}
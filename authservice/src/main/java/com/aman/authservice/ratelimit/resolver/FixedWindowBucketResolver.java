@@ -5,23 +5,34 @@ import org.springframework.stereotype.Component;
 
 import java.time.Clock;
 import java.time.Duration;
-import java.time.Instant;
 
 @Component
 @RequiredArgsConstructor
 public class FixedWindowBucketResolver {
 
+    private static final String SUFFIX = ":fw:";
+
     private final Clock clock;
 
     public String resolveBucketKey(String baseKey, Duration duration) {
-        long bucket = computeBucket(duration);
-        return String.format("%s:fw:%d", baseKey, bucket);
+        return RateLimitKeyBuilder.acquire()
+                .append(baseKey)
+                .append(SUFFIX)
+                .append(computeBucket(duration))
+                .build();
+    }
+
+    /**
+     * Completes a base key started by {@link RateLimitKeyResolver#baseKey} with the current bucket suffix.
+     */
+    public String resolveBucketKey(RateLimitKeyBuilder baseKey, Duration duration) {
+        return baseKey.append(SUFFIX)
+                .append(computeBucket(duration))
+                .build();
     }
 
     private long computeBucket(Duration duration) {
         long seconds = Math.max(1, duration.getSeconds());
-        Instant now = Instant.now(clock);
-        return now.getEpochSecond() / seconds;
+        return (clock.millis() / 1000L) / seconds;
     }
 }
-
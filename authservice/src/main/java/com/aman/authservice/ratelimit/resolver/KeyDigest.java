@@ -0,0 +1,55 @@
+package com.aman.authservice.ratelimit.resolver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Fixed-length digests for the variable parts of Redis keys.
+ * <p>
+ * SHA-256 rather than a faster non-cryptographic hash, because key parts are attacker-controlled and must not be
+ * collidable on purpose. The digest is truncated to 96 bits and base64url-encoded into 16 characters: keys stay valid
+ * UTF-8 for the string serializer (raw bytes above {@code 0x7f} would be re-encoded as two bytes each) and the
+ * alphabet contains no braces, so a digest never disturbs a hash tag.
+ */
+public final class KeyDigest {
+
+    /**
+     * Length of {@link #of(CharSequence)}.
+     */
+    public static final int LENGTH = 16;
+
+    private static final int DIGEST_BYTES = 12;
+    private static final int CODE_BYTES = 3;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    });
+
+    private KeyDigest() {
+    }
+
+    public static String of(CharSequence value) {
+        return encode(value, DIGEST_BYTES);
+    }
+
+    /**
+     * Four-character code naming a limiter inside hashed keys, so keys of one limiter can still be told apart.
+     */
+    public static String code(String limiterName) {
+        return encode(limiterName, CODE_BYTES);
+    }
+
+    private static String encode(CharSequence value, int bytes) {
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = digest.digest(value.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = new byte[bytes];
+        System.arraycopy(hash, 0, truncated, 0, bytes);
+        return ENCODER.encodeToString(truncated);
+    }
+}
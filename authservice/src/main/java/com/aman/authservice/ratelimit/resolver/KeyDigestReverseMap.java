@@ -0,0 +1,65 @@
+package com.aman.authservice.ratelimit.resolver;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Debug aid for {@link RateLimitingProperties.KeyEncoding#HASHED hashed} keys: remembers which original key parts
+ * each digest stands for, in a shared Redis hash, so an operator can tell whose counter a hashed key is.
+ * <p>
+ * Off by default; when on, it writes once per digest first seen on a node and the hash expires after the configured
+ * TTL of inactivity. It costs roughly the memory the hashed encoding saves, so enable it only while troubleshooting.
+ */
+@Slf4j
+@Component
+public class KeyDigestReverseMap {
+
+    private static final int RECENTLY_RECORDED = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RateLimitingProperties.KeyReverseMap settings;
+    private final Cache<String, Boolean> recorded = CacheBuilder.newBuilder()
+            .maximumSize(RECENTLY_RECORDED)
+            .build();
+
+    public KeyDigestReverseMap(StringRedisTemplate redisTemplate,
+                               ReactiveStringRedisTemplate reactiveRedisTemplate,
+                               RateLimitingProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.settings = properties.getKeyReverseMap();
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Fire-and-forget: the request path never waits for the debug write.
+     */
+    public void record(String digest, String original) {
+        if (!settings.isEnabled() || recorded.getIfPresent(digest) != null) {
+            return;
+        }
+        recorded.put(digest, Boolean.TRUE);
+        reactiveRedisTemplate.opsForHash().putIfAbsent(settings.getHashKey(), digest, original)
+                .then(reactiveRedisTemplate.expire(settings.getHashKey(), settings.getTtl()))
+                .subscribe(
+                        ignored -> {
+                        },
+                        ex -> log.debug("Failed to record key digest | digest={}", digest, ex));
+    }
+
+    public Optional<String> lookup(String digest) {
+        Object original = redisTemplate.opsForHash().get(settings.getHashKey(), digest);
+        return Optional.ofNullable(original).map(String::valueOf);
+    }
+}
@@ -2,6 +2,7 @@ package com.aman.authservice.ratelimit.resolver;
 
 import com.aman.authservice.dto.UserInfoDTO;
 import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
 import com.aman.authservice.request.AuthRequestDTO;
 import com.aman.authservice.request.RefreshTokenRequestDTO;
 import com.aman.authservice.service.RefreshTokenService;
@@ -11,33 +12,70 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.Arrays;
-import java.util.Locale;
 import java.util.Optional;
 
 @Slf4j
 @Component
 public class RateLimitKeyResolver {
 
-    private static final String UNKNOWN = "anonymous";
+    private static final String UNKNOWN = RateLimitKeyBuilder.UNKNOWN;
 
     private final RefreshTokenService refreshTokenService;
+    private final RedisKeyLayout keyLayout;
 
-    public RateLimitKeyResolver(@Autowired(required = false) @Nullable RefreshTokenService refreshTokenService) {
+    public RateLimitKeyResolver(@Autowired(required = false) @Nullable RefreshTokenService refreshTokenService,
+                                RedisKeyLayout keyLayout) {
         this.refreshTokenService = refreshTokenService;
+        this.keyLayout = keyLayout;
     }
 
     public String resolve(String limiterName, RateLimitKeyStrategy strategy, RateLimitRequestMetadata metadata) {
-        String ip = sanitize(metadata.ip());
-        String username = sanitize(metadata.username());
-        String tenant = sanitize(metadata.tenant());
-        String safeLimiterName = sanitize(limiterName);
-
-        return switch (strategy) {
-            case IP -> String.format("rl:%s:ip:%s", safeLimiterName, ip);
-            case IP_USERNAME -> String.format("rl:%s:ip-user:%s:%s", safeLimiterName, ip, username);
-            case IP_USERNAME_TENANT -> String.format("rl:%s:ip-user-tenant:%s:%s:%s", safeLimiterName, ip, username, tenant);
-        };
+        return appendBaseKey(RateLimitKeyBuilder.acquire(), RateLimitKeyBuilder.sanitize(limiterName), strategy, metadata)
+                .build();
+    }
+
+    /**
+     * Starts a key for the given limiter and strategy on the calling thread's {@link RateLimitKeyBuilder}.
+     * Callers append their window suffix and call {@link RateLimitKeyBuilder#build()}.
+     */
+    public RateLimitKeyBuilder baseKey(RateLimiterDefinition definition, RateLimitKeyStrategy strategy,
+                                       RateLimitRequestMetadata metadata) {
+        String keyName = definition.getKeyName() != null
+                ? definition.getKeyName()
+                : RateLimitKeyBuilder.sanitize(definition.getName());
+        return appendBaseKey(RateLimitKeyBuilder.acquire(), keyName, strategy, metadata);
+    }
+
+    /**
+     * Starts the key of the definition's GCRA state, which limiters sharing a GCRA budget have in common.
+     */
+    public RateLimitKeyBuilder gcraBaseKey(RateLimiterDefinition definition, RateLimitRequestMetadata metadata) {
+        if (definition.getGcraKeyName() == null) {
+            return baseKey(definition, definition.getGcraKeyStrategy(), metadata);
+        }
+        return appendBaseKey(RateLimitKeyBuilder.acquire(), definition.getGcraKeyName(),
+                definition.getGcraKeyStrategy(), metadata);
+    }
+
+    private RateLimitKeyBuilder appendBaseKey(RateLimitKeyBuilder builder, String safeLimiterName,
+                                              RateLimitKeyStrategy strategy, RateLimitRequestMetadata metadata) {
+        builder.append("rl:");
+        keyLayout.openTag(builder);
+        int identityStart = builder.length();
+        builder.append(safeLimiterName);
+        switch (strategy) {
+            case IP -> builder.append(":ip:")
+                    .appendSanitized(metadata.ip());
+            case IP_USERNAME -> builder.append(":ip-user:")
+                    .appendSanitized(metadata.ip()).append(':')
+                    .appendSanitized(metadata.username());
+            case IP_USERNAME_TENANT -> builder.append(":ip-user-tenant:")
+                    .appendSanitized(metadata.ip()).append(':')
+                    .appendSanitized(metadata.username()).append(':')
+                    .appendSanitized(metadata.tenant());
+        }
+        keyLayout.encodeIdentity(builder, identityStart, safeLimiterName);
+        return keyLayout.closeTag(builder);
     }
 
     public RateLimitRequestMetadata buildMetadata(String ip, String tenant, String username) {
@@ -49,11 +87,32 @@ public class RateLimitKeyResolver {
     }
 
     public Optional<String> extractUsername(Object[] args) {
-        return Arrays.stream(args)
-                .map(this::resolveUsername)
-                .filter(StringUtils::hasText)
-                .findFirst()
-                .map(name -> name.trim().toLowerCase(Locale.ROOT));
+        for (Object arg : args) {
+            String name = resolveUsername(arg);
+            if (StringUtils.hasText(name)) {
+                return Optional.of(normalizeUsername(name));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String normalizeUsername(String username) {
+        return RateLimitKeyBuilder.normalizeUsername(username);
+    }
+
+    /**
+     * Resolves the owner of a refresh token, or {@code null} if unknown.
+     */
+    public String resolveUsernameFromRefreshToken(String token) {
+        if (refreshTokenService == null) {
+            log.debug("RefreshTokenService unavailable - skipping username resolution for refresh token requests");
+            return null;
+        }
+        return refreshTokenService.findByToken(token)
+                .map(refreshToken -> refreshToken.getUserInfo() != null
+                        ? refreshToken.getUserInfo().getUsername()
+                        : null)
+                .orElse(null);
     }
 
     private String resolveUsername(Object arg) {
@@ -67,7 +126,7 @@ public class RateLimitKeyResolver {
             return StringUtils.hasText(dto.getUsername()) ? dto.getUsername() : dto.getEmail();
         }
         if (arg instanceof RefreshTokenRequestDTO refreshTokenRequestDTO) {
-            return resolveFromRefreshToken(refreshTokenRequestDTO);
+            return resolveUsernameFromRefreshToken(refreshTokenRequestDTO.getToken());
         }
         if (arg instanceof String s && s.contains("@")) {
             return s;
@@ -75,25 +134,6 @@ public class RateLimitKeyResolver {
         return null;
     }
 
-    private String resolveFromRefreshToken(RefreshTokenRequestDTO refreshTokenRequestDTO) {
-        if (refreshTokenService == null) {
-            log.debug("RefreshTokenService unavailable - skipping username resolution for refresh token requests");
-            return null;
-        }
-        return refreshTokenService.findByToken(refreshTokenRequestDTO.getToken())
-                .map(refreshToken -> refreshToken.getUserInfo() != null
-                        ? refreshToken.getUserInfo().getUsername()
-                        : null)
-                .orElse(null);
-    }
-
-    private String sanitize(String value) {
-        if (!StringUtils.hasText(value)) {
-            return UNKNOWN;
-        }
-        return value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9:@\\-\\.]", "_");
-    }
-
     public record RateLimitRequestMetadata(String ip, String username, String tenant) {
     }
 }
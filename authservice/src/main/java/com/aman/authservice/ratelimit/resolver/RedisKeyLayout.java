@@ -0,0 +1,205 @@
+package com.aman.authservice.ratelimit.resolver;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central definition of how rate-limit and brute-force keys are laid out in Redis.
+ * <p>
+ * In {@link RateLimitingProperties.KeyLayout#HASH_TAGGED hash-tagged} mode the client identity is wrapped in a
+ * {@code {...}} hash tag, so every key that belongs to the same client (fixed/sliding/GCRA state of a limiter, or the
+ * failure counter and lock of a login) lands in the same Redis Cluster slot, and multi-key scripts never fail with
+ * {@code CROSSSLOT}. Different clients hash to different slots, which spreads the load across shards.
+ * <p>
+ * Identity components are sanitized before they are tagged, so they can never contain braces themselves.
+ * <p>
+ * With {@link RateLimitingProperties.KeyEncoding#HASHED hashed} encoding the identity is replaced by a fixed-length
+ * {@link KeyDigest}, which keeps key names short however long the IPs, usernames and tenants are. The digest stays
+ * inside the hash tag, so slot placement is unchanged.
+ */
+@Component
+public class RedisKeyLayout {
+
+    private static final String BRUTE_FORCE_PREFIX = "bf:";
+    private static final String CREDENTIAL_STUFFING_PREFIX = "cs:";
+
+    private final RateLimitingProperties.KeyLayout mode;
+    private final RateLimitingProperties.KeyEncoding encoding;
+    private final KeyDigestReverseMap reverseMap;
+    private final Map<String, String> limiterCodes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RedisKeyLayout(RateLimitingProperties properties, KeyDigestReverseMap reverseMap) {
+        this(properties.getKeyLayout(), properties.getKeyEncoding(), reverseMap);
+    }
+
+    public RedisKeyLayout(RateLimitingProperties properties) {
+        this(properties.getKeyLayout(), properties.getKeyEncoding(), null);
+    }
+
+    public RedisKeyLayout(RateLimitingProperties.KeyLayout mode) {
+        this(mode, RateLimitingProperties.KeyEncoding.PLAIN, null);
+    }
+
+    public RedisKeyLayout(RateLimitingProperties.KeyLayout mode, RateLimitingProperties.KeyEncoding encoding,
+                          @Nullable KeyDigestReverseMap reverseMap) {
+        this.mode = mode;
+        this.encoding = encoding;
+        this.reverseMap = reverseMap;
+    }
+
+    public RateLimitingProperties.KeyLayout getMode() {
+        return mode;
+    }
+
+    public boolean isHashTagged() {
+        return mode != RateLimitingProperties.KeyLayout.LEGACY;
+    }
+
+    /**
+     * Whether lookups should also consult keys written in the legacy layout by nodes not yet migrated.
+     */
+    public boolean isMigrating() {
+        return mode == RateLimitingProperties.KeyLayout.MIGRATING;
+    }
+
+    public RateLimitKeyBuilder openTag(RateLimitKeyBuilder builder) {
+        return isHashTagged() ? builder.append('{') : builder;
+    }
+
+    public RateLimitKeyBuilder closeTag(RateLimitKeyBuilder builder) {
+        return isHashTagged() ? builder.append('}') : builder;
+    }
+
+    public boolean isHashed() {
+        return encoding == RateLimitingProperties.KeyEncoding.HASHED;
+    }
+
+    /**
+     * Replaces the identity appended since {@code identityStart} (limiter name, strategy and client parts) with
+     * {@code <limiter code>:<digest>} when keys are hashed.
+     */
+    public RateLimitKeyBuilder encodeIdentity(RateLimitKeyBuilder builder, int identityStart, String limiterName) {
+        if (!isHashed()) {
+            return builder;
+        }
+        String identity = builder.substring(identityStart);
+        return builder.truncate(identityStart)
+                .append(limiterCodes.computeIfAbsent(limiterName, KeyDigest::code))
+                .append(':')
+                .append(digest(identity));
+    }
+
+    /**
+     * Username as it goes into {@link #bruteForceFailureKey} and {@link #bruteForceLockKey}: normalized in the tagged
+     * layouts, but exactly as submitted in {@code LEGACY} mode, whose keys must match the ones legacy nodes write.
+     */
+    public String bruteForceUsername(String username) {
+        return isHashTagged() ? RateLimitKeyBuilder.normalizeUsername(username) : username;
+    }
+
+    public String bruteForceFailureKey(String ip, String username) {
+        return isHashTagged() ? taggedBruteForceKey(ip, username, ":fail") : untaggedBruteForceKey("fail:", ip, username);
+    }
+
+    public String bruteForceLockKey(String ip, String username) {
+        return isHashTagged() ? taggedBruteForceKey(ip, username, ":lock") : untaggedBruteForceKey("lock:", ip, username);
+    }
+
+    /**
+     * Legacy nodes keyed the username exactly as submitted; pass it un-normalized.
+     */
+    public String legacyBruteForceFailureKey(String ip, String username) {
+        return legacyBruteForceKey("fail:", ip, username);
+    }
+
+    public String legacyBruteForceLockKey(String ip, String username) {
+        return legacyBruteForceKey("lock:", ip, username);
+    }
+
+    /**
+     * Keys for {@code credential_stuffing.lua}: current bucket, previous bucket and block key of one subject. These
+     * keys are new, so they are always hash-tagged regardless of the layout mode.
+     *
+     * @param dimension what the subject is ({@code ip} or {@code user})
+     * @param subject   the IP or username being tracked
+     * @param bucket    current window bucket number
+     */
+    public List<String> credentialStuffingKeys(String dimension, String subject, long bucket) {
+        String tag = credentialStuffingTag(dimension, subject);
+        String distinctKind = "ip".equals(dimension) ? ":users:" : ":ips:";
+        return List.of(
+                tag + distinctKind + bucket,
+                tag + distinctKind + (bucket - 1),
+                tag + ":block");
+    }
+
+    public String credentialStuffingBlockKey(String dimension, String subject) {
+        return credentialStuffingTag(dimension, subject) + ":block";
+    }
+
+    private String credentialStuffingTag(String dimension, String subject) {
+        RateLimitKeyBuilder builder = RateLimitKeyBuilder.acquire()
+                .append(CREDENTIAL_STUFFING_PREFIX)
+                .append('{')
+                .append(dimension).append(':');
+        int subjectStart = builder.length();
+        builder.appendSanitized(subject);
+        return encodeSubject(builder, subjectStart)
+                .append('}')
+                .build();
+    }
+
+    private String taggedBruteForceKey(String ip, String username, String suffix) {
+        RateLimitKeyBuilder builder = RateLimitKeyBuilder.acquire()
+                .append(BRUTE_FORCE_PREFIX)
+                .append('{');
+        int subjectStart = builder.length();
+        builder.appendSanitized(ip).append(':').appendSanitized(username);
+        return encodeSubject(builder, subjectStart)
+                .append('}')
+                .append(suffix)
+                .build();
+    }
+
+    private String untaggedBruteForceKey(String kind, String ip, String username) {
+        if (!isHashed()) {
+            return legacyBruteForceKey(kind, ip, username);
+        }
+        RateLimitKeyBuilder builder = RateLimitKeyBuilder.acquire()
+                .append(BRUTE_FORCE_PREFIX)
+                .append(kind);
+        int subjectStart = builder.length();
+        builder.appendSanitized(ip).append(':').appendSanitized(username);
+        return encodeSubject(builder, subjectStart).build();
+    }
+
+    /**
+     * Keys written by nodes that predate the tagged layout: never tagged, sanitized or hashed.
+     */
+    private static String legacyBruteForceKey(String kind, String ip, String username) {
+        return BRUTE_FORCE_PREFIX + kind + ip + ':' + username;
+    }
+
+    private RateLimitKeyBuilder encodeSubject(RateLimitKeyBuilder builder, int subjectStart) {
+        if (!isHashed()) {
+            return builder;
+        }
+        String subject = builder.substring(subjectStart);
+        return builder.truncate(subjectStart).append(digest(subject));
+    }
+
+    private String digest(String original) {
+        String digest = KeyDigest.of(original);
+        if (reverseMap != null) {
+            reverseMap.record(digest, original);
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,65 @@
+package com.aman.authservice.ratelimit.resolver;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.context.RateLimitContext;
+import com.aman.authservice.ratelimit.context.RateLimitContextHolder;
+import com.aman.authservice.util.ClientRequestMetadataExtractor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Builds the {@link RateLimitKeyResolver.RateLimitRequestMetadata} of the current call for the rate-limit and
+ * concurrency aspects.
+ * <p>
+ * IP and tenant come from the {@link RateLimitContext} when the interceptor has set one, otherwise from the current
+ * request. The username comes from the method arguments, falling back to the authenticated principal.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMetadataSupport {
+
+    private final RateLimitKeyResolver keyResolver;
+    private final ClientRequestMetadataExtractor metadataExtractor;
+    private final RateLimitingProperties properties;
+
+    public RateLimitKeyResolver.RateLimitRequestMetadata resolve(Object[] args) {
+        RateLimitContext context = RateLimitContextHolder.get();
+        String ip;
+        String tenant;
+        if (context != null) {
+            ip = context.ipAddress();
+            tenant = context.tenant();
+        } else {
+            HttpServletRequest request = currentRequest();
+            ip = metadataExtractor.extractClientIp(request);
+            tenant = metadataExtractor.resolveTenant(request, properties.getTenantHeader(), "public");
+        }
+        String username = keyResolver.extractUsername(args)
+                .orElseGet(RequestMetadataSupport::resolveUsernameFromSecurity);
+        return keyResolver.buildMetadata(ip, tenant, username);
+    }
+
+    public static HttpServletRequest currentRequest() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes.getRequest() : null;
+    }
+
+    public static HttpServletResponse currentResponse() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes.getResponse() : null;
+    }
+
+    private static String resolveUsernameFromSecurity() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return RateLimitKeyBuilder.UNKNOWN;
+    }
+}
@@ -4,20 +4,27 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.Clock;
-import java.time.Instant;
 
 @Component
 @RequiredArgsConstructor
 public class SlidingWindowResolver {
 
+    private static final String SUFFIX = ":sw";
+
     private final Clock clock;
 
     public String resolveKey(String baseKey) {
-        return String.format("%s:sw", baseKey);
+        return baseKey.concat(SUFFIX);
+    }
+
+    /**
+     * Completes a base key started by {@link RateLimitKeyResolver#baseKey} with the sliding-window suffix.
+     */
+    public String resolveKey(RateLimitKeyBuilder baseKey) {
+        return baseKey.append(SUFFIX).build();
     }
 
     public long nowMillis() {
-        return Instant.now(clock).toEpochMilli();
+        return clock.millis();
     }
 }
-
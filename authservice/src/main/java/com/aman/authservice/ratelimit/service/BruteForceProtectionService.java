@@ -1,75 +1,212 @@
 package com.aman.authservice.ratelimit.service;
 
 import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.metrics.HeavyHitterTracker;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyBuilder;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
+/**
+ * Brute-force protection for logins, keyed by (IP, username).
+ * <p>
+ * Checking and recording go through a single script ({@code brute_force.lua}) that returns the lockout TTL. Known
+ * lockouts are cached locally until they expire, so repeated attempts from a locked-out client cost no Redis call.
+ */
 @Slf4j
 @Service
 public class BruteForceProtectionService {
 
-    private final StringRedisTemplate redisTemplate;
-    private final DefaultRedisScript<List> bruteForceScript;
-    private final RateLimitingProperties properties;
+    private static final String MODE_CHECK = "check";
+    private static final String MODE_FAIL = "fail";
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RedisScript<List<Long>> bruteForceScript;
+    private final RateLimitingProperties.BruteForce settings;
+    private final RedisKeyLayout keyLayout;
+    private final CredentialStuffingDetector credentialStuffingDetector;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Duration timeout;
+    private final Clock clock;
     private final Counter lockoutCounter;
+    private final Counter localLockHitCounter;
+
+    /**
+     * Lock key -> lockout expiry (epoch millis). Bounded so a distributed attack cannot exhaust the heap.
+     */
+    private final Cache<String, Long> localLockouts;
 
-    public BruteForceProtectionService(StringRedisTemplate redisTemplate,
+    public BruteForceProtectionService(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                       RedisScript<List<Long>> bruteForceScript,
                                        RateLimitingProperties properties,
+                                       RedisKeyLayout keyLayout,
+                                       CredentialStuffingDetector credentialStuffingDetector,
+                                       HeavyHitterTracker heavyHitterTracker,
+                                       CircuitBreaker redisCircuitBreaker,
+                                       Clock clock,
                                        MeterRegistry meterRegistry) {
-        this.redisTemplate = redisTemplate;
-        this.properties = properties;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.bruteForceScript = bruteForceScript;
+        this.settings = properties.getBruteForce();
+        this.keyLayout = keyLayout;
+        this.credentialStuffingDetector = credentialStuffingDetector;
+        this.heavyHitterTracker = heavyHitterTracker;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.timeout = properties.getRedisTimeout();
+        this.clock = clock;
 
-        this.bruteForceScript = new DefaultRedisScript<>();
-        this.bruteForceScript.setLocation(new ClassPathResource("lua/brute_force.lua"));
-        this.bruteForceScript.setResultType(List.class);
+        this.localLockouts = CacheBuilder.newBuilder()
+                .maximumSize(settings.getLocalCacheSize())
+                .expireAfterWrite(settings.getLockout())
+                .build();
 
         this.lockoutCounter = Counter.builder("brute_force_lockout_total")
                 .description("Total number of brute force lockouts")
                 .register(meterRegistry);
+        this.localLockHitCounter = Counter.builder("brute_force_local_lock_hit_total")
+                .description("Login attempts rejected from the local lockout cache without a Redis call")
+                .register(meterRegistry);
     }
 
-    public void ensureAllowed(String ip, String username) {
-        String lockKey = resolveLockKey(ip, username);
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(lockKey))) {
-            throw new RuntimeException("Account locked due to too many failed attempts. Please try again later.");
+    /**
+     * Non-blocking lock lookup, so it can be issued together with other gate checks.
+     *
+     * @return remaining lockout, or {@link Duration#ZERO} if the pair is not locked
+     */
+    public Mono<Duration> lockRemaining(String ip, String username) {
+        String user = keyLayout.bruteForceUsername(username);
+        String lockKey = keyLayout.bruteForceLockKey(ip, user);
+        Duration cached = cachedLockRemaining(lockKey);
+        if (cached != null) {
+            localLockHitCounter.increment();
+            return Mono.just(cached);
         }
+
+        Mono<Duration> locked = reactiveRedisTemplate.execute(
+                        bruteForceScript,
+                        List.of(keyLayout.bruteForceFailureKey(ip, user), lockKey),
+                        scriptArgs(MODE_CHECK))
+                .next()
+                .map(result -> lockTtl(lockKey, result))
+                .defaultIfEmpty(Duration.ZERO);
+        if (!keyLayout.isMigrating()) {
+            return locked;
+        }
+        // Separate command: legacy and tagged keys live in different cluster slots. Legacy nodes keyed the raw
+        // username, so it is not normalized here
+        Mono<Duration> legacyLocked = reactiveRedisTemplate.getExpire(keyLayout.legacyBruteForceLockKey(ip, username))
+                .map(ttl -> ttl.isNegative() ? Duration.ZERO : ttl)
+                .defaultIfEmpty(Duration.ZERO);
+        return Mono.zip(locked, legacyLocked, (current, legacy) -> current.compareTo(legacy) >= 0 ? current : legacy);
     }
 
-    public void recordFailure(String ip, String username) {
-        String failureKey = resolveFailureKey(ip, username);
-        String lockKey = resolveLockKey(ip, username);
+    /**
+     * Records a failed attempt and returns the resulting lockout, if any. A pair that is already locked is not
+     * counted again. The attempt is also fed to the {@link CredentialStuffingDetector}.
+     * <p>
+     * Waits at most {@code sentinel.rate-limit.redis-timeout} behind the shared Redis circuit breaker, like the
+     * gate checks; when Redis is slow or the breaker is open the attempt goes unrecorded rather than holding the
+     * login thread.
+     *
+     * @return remaining lockout, or {@link Duration#ZERO} if the pair is still allowed
+     */
+    public Duration recordFailure(String ip, String username) {
+        String user = RateLimitKeyBuilder.normalizeUsername(username);
+        credentialStuffingDetector.recordFailure(ip, user);
+        heavyHitterTracker.record(HeavyHitterTracker.Source.BRUTE_FORCE, ip, user, null);
+        String keyUser = keyLayout.bruteForceUsername(username);
+        String lockKey = keyLayout.bruteForceLockKey(ip, keyUser);
+        Duration cached = cachedLockRemaining(lockKey);
+        if (cached != null) {
+            localLockHitCounter.increment();
+            return cached;
+        }
 
-        List<Long> result = redisTemplate.execute(
-                bruteForceScript,
-                List.of(failureKey, lockKey),
-                String.valueOf(properties.getBruteForce().getLimit()),
-                String.valueOf(properties.getBruteForce().getDuration().toSeconds()),
-                String.valueOf(properties.getBruteForce().getLockout().toSeconds())
-        );
+        List<Long> result;
+        try {
+            result = CircuitBreaker.decorateSupplier(redisCircuitBreaker, () ->
+                    reactiveRedisTemplate.execute(
+                                    bruteForceScript,
+                                    List.of(keyLayout.bruteForceFailureKey(ip, keyUser), lockKey),
+                                    scriptArgs(MODE_FAIL))
+                            .next()
+                            .block(timeout)).get();
+        } catch (Exception ex) {
+            log.error("Brute force failure not recorded - Redis unavailable or circuit open | ip={} | user={}",
+                    ip, user, ex);
+            return Duration.ZERO;
+        }
 
-        if (!result.isEmpty() && result.get(0) == 0) {
+        if (result != null && result.size() > 2 && result.get(2) == 1L) {
             lockoutCounter.increment();
-            log.warn("Brute force lockout triggered for user: {} from IP: {}", username, ip);
+            log.warn("Brute force lockout triggered for user: {} from IP: {}", user, ip);
         }
+        return lockTtl(lockKey, result);
     }
 
+    /**
+     * Clears the failure counter after a successful login. Fire-and-forget: the login response does not wait for
+     * Redis, and a failed reset only means the counter expires on its own.
+     */
     public void reset(String ip, String username) {
-        String failureKey = resolveFailureKey(ip, username);
-        redisTemplate.delete(failureKey);
+        String user = keyLayout.bruteForceUsername(username);
+        Mono<Long> delete = reactiveRedisTemplate.delete(keyLayout.bruteForceFailureKey(ip, user));
+        if (keyLayout.isMigrating()) {
+            // Separate command: legacy and tagged keys live in different cluster slots; legacy keys use the raw username
+            delete = delete.concatWith(reactiveRedisTemplate.delete(keyLayout.legacyBruteForceFailureKey(ip, username)))
+                    .reduce(Long::sum);
+        }
+        delete.subscribe(
+                deleted -> log.debug("Brute force counter reset | ip={} | user={}", ip, user),
+                ex -> log.warn("Brute force counter reset failed | ip={} | user={}", ip, user, ex));
     }
 
-    private String resolveFailureKey(String ip, String username) {
-        return String.format("bf:fail:%s:%s", ip, username);
+    private List<String> scriptArgs(String mode) {
+        return List.of(
+                String.valueOf(settings.getLimit()),
+                String.valueOf(settings.getDuration().toSeconds()),
+                String.valueOf(settings.getLockout().toSeconds()),
+                mode);
     }
 
-    private String resolveLockKey(String ip, String username) {
-        return String.format("bf:lock:%s:%s", ip, username);
+    /**
+     * Reads the lockout TTL from a script result and caches an active lockout locally until it expires.
+     */
+    private Duration lockTtl(String lockKey, List<Long> result) {
+        if (result == null || result.size() < 2 || result.get(0) == 1L) {
+            return Duration.ZERO;
+        }
+        long ttlMillis = result.get(1);
+        if (ttlMillis <= 0) {
+            return Duration.ZERO;
+        }
+        localLockouts.put(lockKey, clock.millis() + ttlMillis);
+        return Duration.ofMillis(ttlMillis);
+    }
+
+    private Duration cachedLockRemaining(String lockKey) {
+        Long expiresAt = localLockouts.getIfPresent(lockKey);
+        if (expiresAt == null) {
+            return null;
+        }
+        long remaining = expiresAt - clock.millis();
+        if (remaining <= 0) {
+            localLockouts.invalidate(lockKey);
+            return null;
+        }
+        return Duration.ofMillis(remaining);
     }
 }
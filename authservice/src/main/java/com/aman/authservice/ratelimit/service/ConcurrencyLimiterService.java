@@ -0,0 +1,130 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributed in-flight limits backed by a sorted-set semaphore per principal ({@code concurrency_acquire.lua}).
+ * <p>
+ * Every node also counts its own in-flight calls per key. The local count can never exceed the global one, so a
+ * node that alone already holds the maximum rejects without asking Redis. Permits are scored by their expiry and
+ * pruned on each acquire, so permits lost to a crash or a failed release free themselves after the lease.
+ */
+@Slf4j
+@Service
+public class ConcurrencyLimiterService {
+
+    private static final String SUFFIX = ":cl";
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RedisScript<List<Long>> concurrencyAcquireScript;
+    private final RateLimitKeyResolver keyResolver;
+    private final CircuitBreaker redisCircuitBreaker;
+    private final Duration timeout;
+    private final Clock clock;
+    private final Map<String, Integer> localInFlight = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong permitSequence = new AtomicLong();
+    private final Counter localRejectCounter;
+    private final Counter redisRejectCounter;
+
+    public ConcurrencyLimiterService(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                     RedisScript<List<Long>> concurrencyAcquireScript,
+                                     RateLimitKeyResolver keyResolver,
+                                     CircuitBreaker redisCircuitBreaker,
+                                     RateLimitingProperties properties,
+                                     Clock clock,
+                                     MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.concurrencyAcquireScript = concurrencyAcquireScript;
+        this.keyResolver = keyResolver;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.timeout = properties.getRedisTimeout();
+        this.clock = clock;
+
+        this.localRejectCounter = Counter.builder("concurrency_limit_rejected_total")
+                .description("Calls rejected because the principal had too many calls in flight")
+                .tag("service", properties.getMetricTag())
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.redisRejectCounter = Counter.builder("concurrency_limit_rejected_total")
+                .description("Calls rejected because the principal had too many calls in flight")
+                .tag("service", properties.getMetricTag())
+                .tag("source", "redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit for the principal, or returns {@code null} if it already has {@code maxInFlight} calls in
+     * flight. Fails open when Redis is unavailable. A returned permit must be passed to {@link #release(Permit)}.
+     */
+    public Permit tryAcquire(String limiterName, RateLimitKeyStrategy strategy,
+                             RateLimitKeyResolver.RateLimitRequestMetadata metadata, int maxInFlight, Duration lease) {
+        String key = keyResolver.resolve(limiterName, strategy, metadata) + SUFFIX;
+        if (localInFlight.merge(key, 1, Integer::sum) > maxInFlight) {
+            releaseLocal(key);
+            localRejectCounter.increment();
+            return null;
+        }
+
+        Permit permit = new Permit(key, nodeId + ':' + permitSequence.incrementAndGet());
+        if (!acquireInRedis(permit, maxInFlight, lease)) {
+            releaseLocal(key);
+            redisRejectCounter.increment();
+            return null;
+        }
+        return permit;
+    }
+
+    /**
+     * Returns the permit. Fire-and-forget on the Redis side: a failed release expires with the lease.
+     */
+    public void release(Permit permit) {
+        releaseLocal(permit.key());
+        reactiveRedisTemplate.opsForZSet().remove(permit.key(), permit.id())
+                .subscribe(
+                        removed -> {
+                        },
+                        ex -> log.warn("Concurrency permit release failed | key={}", permit.key(), ex));
+    }
+
+    private boolean acquireInRedis(Permit permit, int maxInFlight, Duration lease) {
+        try {
+            List<Long> result = CircuitBreaker.decorateSupplier(redisCircuitBreaker, () ->
+                    reactiveRedisTemplate.execute(concurrencyAcquireScript, List.of(permit.key()), List.of(
+                                    permit.id(),
+                                    String.valueOf(clock.millis()),
+                                    String.valueOf(lease.toMillis()),
+                                    String.valueOf(maxInFlight)))
+                            .next()
+                            .block(timeout)).get();
+            return result == null || result.isEmpty() || result.get(0) == 1L;
+        } catch (Exception ex) {
+            log.error("Concurrency limiter fallback - allowing request due to Redis/CircuitBreaker state", ex);
+            return true;
+        }
+    }
+
+    private void releaseLocal(String key) {
+        localInFlight.computeIfPresent(key, (ignored, inFlight) -> inFlight <= 1 ? null : inFlight - 1);
+    }
+
+    public record Permit(String key, String id) {
+    }
+}
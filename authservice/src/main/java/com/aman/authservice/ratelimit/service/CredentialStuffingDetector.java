@@ -0,0 +1,180 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyBuilder;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Detects credential stuffing and password spraying that per-(IP, username) brute-force protection cannot see.
+ * <p>
+ * Failed logins feed two HyperLogLog counters per window: distinct usernames per IP and distinct IPs per username.
+ * Each HyperLogLog is capped at about 12 KB regardless of cardinality. When an IP fails against too many usernames
+ * it is blocked for every account; when an account sees failures from too many IPs it is throttled for every IP.
+ * Active blocks are cached locally until they expire.
+ */
+@Slf4j
+@Service
+public class CredentialStuffingDetector {
+
+    private static final String IP = "ip";
+    private static final String USER = "user";
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RedisScript<List<Long>> credentialStuffingScript;
+    private final RateLimitingProperties.CredentialStuffing settings;
+    private final RedisKeyLayout keyLayout;
+    private final Clock clock;
+    private final Counter ipBlockCounter;
+    private final Counter accountBlockCounter;
+
+    /**
+     * Block key -> block expiry (epoch millis).
+     */
+    private final Cache<String, Long> localBlocks;
+
+    public CredentialStuffingDetector(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                      RedisScript<List<Long>> credentialStuffingScript,
+                                      RateLimitingProperties properties,
+                                      RedisKeyLayout keyLayout,
+                                      Clock clock,
+                                      MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.credentialStuffingScript = credentialStuffingScript;
+        this.settings = properties.getCredentialStuffing();
+        this.keyLayout = keyLayout;
+        this.clock = clock;
+
+        this.localBlocks = CacheBuilder.newBuilder()
+                .maximumSize(settings.getLocalCacheSize())
+                .expireAfterWrite(max(settings.getIpBlock(), settings.getAccountBlock()))
+                .build();
+
+        this.ipBlockCounter = Counter.builder("credential_stuffing_block_total")
+                .description("Subjects blocked by credential-stuffing detection")
+                .tag("dimension", IP)
+                .register(meterRegistry);
+        this.accountBlockCounter = Counter.builder("credential_stuffing_block_total")
+                .description("Subjects blocked by credential-stuffing detection")
+                .tag("dimension", USER)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remaining block for either the IP or the account, whichever is longer. Both lookups are issued concurrently.
+     *
+     * @return remaining block, or {@link Duration#ZERO} if neither is blocked
+     */
+    public Mono<Duration> blockRemaining(String ip, String username) {
+        if (!settings.isEnabled()) {
+            return Mono.just(Duration.ZERO);
+        }
+        return Mono.zip(
+                subjectBlockRemaining(IP, ip),
+                subjectBlockRemaining(USER, RateLimitKeyBuilder.normalizeUsername(username)),
+                CredentialStuffingDetector::max);
+    }
+
+    /**
+     * Adds a failed login to both detectors. Fire-and-forget: the failed-login response does not wait for Redis.
+     */
+    public void recordFailure(String ip, String username) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        String user = RateLimitKeyBuilder.normalizeUsername(username);
+        long windowMillis = settings.getWindow().toMillis();
+        long bucket = clock.millis() / windowMillis;
+
+        Flux.merge(
+                        record(IP, ip, user, settings.getUsernamesPerIp(), settings.getIpBlock(), bucket, ipBlockCounter),
+                        record(USER, user, ip, settings.getIpsPerUsername(), settings.getAccountBlock(), bucket,
+                                accountBlockCounter))
+                .subscribe(
+                        ignored -> {
+                        },
+                        ex -> log.warn("Credential stuffing tracking failed | ip={} | user={}", ip, user, ex));
+    }
+
+    private Mono<Void> record(String dimension, String subject, String member, int threshold, Duration block,
+                              long bucket, Counter blockCounter) {
+        String blockKey = keyLayout.credentialStuffingBlockKey(dimension, subject);
+        if (cachedBlockRemaining(blockKey) != null) {
+            return Mono.empty();
+        }
+        return reactiveRedisTemplate.execute(
+                        credentialStuffingScript,
+                        keyLayout.credentialStuffingKeys(dimension, subject, bucket),
+                        List.of(member,
+                                String.valueOf(threshold),
+                                String.valueOf(settings.getWindow().toMillis()),
+                                String.valueOf(block.toMillis())))
+                .next()
+                .doOnNext(result -> {
+                    cacheBlock(blockKey, result);
+                    if (result.size() > 3 && result.get(3) == 1L) {
+                        blockCounter.increment();
+                        log.warn("Credential stuffing block triggered | dimension={} | subject={} | distinct={}",
+                                dimension, subject, result.get(2));
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Duration> subjectBlockRemaining(String dimension, String subject) {
+        String blockKey = keyLayout.credentialStuffingBlockKey(dimension, subject);
+        Duration cached = cachedBlockRemaining(blockKey);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveRedisTemplate.getExpire(blockKey)
+                .map(ttl -> {
+                    if (ttl.isNegative() || ttl.isZero()) {
+                        return Duration.ZERO;
+                    }
+                    localBlocks.put(blockKey, clock.millis() + ttl.toMillis());
+                    return ttl;
+                })
+                .defaultIfEmpty(Duration.ZERO);
+    }
+
+    private void cacheBlock(String blockKey, List<Long> result) {
+        if (result.size() < 2 || result.get(0) == 1L) {
+            return;
+        }
+        long ttlMillis = result.get(1);
+        if (ttlMillis > 0) {
+            localBlocks.put(blockKey, clock.millis() + ttlMillis);
+        }
+    }
+
+    private Duration cachedBlockRemaining(String blockKey) {
+        Long expiresAt = localBlocks.getIfPresent(blockKey);
+        if (expiresAt == null) {
+            return null;
+        }
+        long remaining = expiresAt - clock.millis();
+        if (remaining <= 0) {
+            localBlocks.invalidate(blockKey);
+            return null;
+        }
+        return Duration.ofMillis(remaining);
+    }
+
+    private static Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+}
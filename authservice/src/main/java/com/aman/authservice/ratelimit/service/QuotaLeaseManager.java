@@ -0,0 +1,164 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fixed-window limiting from locally held quota leases.
+ * <p>
+ * A node leases a slice of a bucket's quota with {@code lease.lua} and spends it with a CAS on a local counter; Redis
+ * is only called again when the slice runs out or the window rolls over (the bucket key changes). Redis never grants
+ * beyond the limit, so leasing cannot admit more than the limit cluster-wide. The price is under-admission: quota
+ * leased by one node but unused there is unavailable to others until the window resets, at most one slice per node.
+ */
+@Component
+public class QuotaLeaseManager {
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RedisScript<List<Long>> leaseScript;
+    private final Clock clock;
+    private final Cache<String, Lease> leases;
+    private final Counter leaseCounter;
+    private final Counter localHitCounter;
+
+    public QuotaLeaseManager(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                             RedisScript<List<Long>> leaseScript,
+                             RateLimitingProperties properties,
+                             Clock clock,
+                             MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.leaseScript = leaseScript;
+        this.clock = clock;
+        this.leases = CacheBuilder.newBuilder()
+                .maximumSize(properties.getLease().getLocalCacheSize())
+                .expireAfterAccess(properties.getLease().getIdleExpiry().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.leaseCounter = Counter.builder("rate_limit_lease_total")
+                .description("Quota leases requested from Redis")
+                .tag("service", properties.getMetricTag())
+                .register(meterRegistry);
+        this.localHitCounter = Counter.builder("rate_limit_lease_local_hit_total")
+                .description("Rate-limit checks answered from a local quota lease without a Redis call")
+                .tag("service", properties.getMetricTag())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spends {@code cost} from the local lease of the bucket, leasing another slice from Redis when needed.
+     */
+    public Mono<RateLimitDecision> acquire(String bucketKey, int limit, Duration window, int cost, int slice) {
+        Lease lease = lease(bucketKey);
+        long now = clock.millis();
+        Lease.Snapshot spent = lease.take(cost, now);
+        if (spent != null) {
+            localHitCounter.increment();
+            return Mono.just(new RateLimitDecision(true, limit, spent.tokens() + spent.globalRemaining(),
+                    spent.resetAt() - now));
+        }
+        Lease.Snapshot current = lease.snapshot();
+        if (current.isLive(now) && current.globalRemaining() <= 0) {
+            localHitCounter.increment();
+            return Mono.just(new RateLimitDecision(false, limit, 0, current.resetAt() - now));
+        }
+
+        leaseCounter.increment();
+        return reactiveRedisTemplate.execute(leaseScript, List.of(bucketKey), List.of(
+                        String.valueOf(limit),
+                        String.valueOf(window.toMillis()),
+                        String.valueOf(Math.max(slice, cost))))
+                .next()
+                .map(result -> settle(lease, limit, cost, result))
+                .defaultIfEmpty(RateLimitDecision.unknown());
+    }
+
+    /**
+     * Spends {@code cost} from a fresh grant and deposits the rest into the local lease.
+     */
+    private RateLimitDecision settle(Lease lease, int limit, int cost, List<Long> result) {
+        long granted = result.get(0);
+        long globalRemaining = result.get(1);
+        long ttl = result.get(2);
+        boolean allowed = granted >= cost;
+
+        long now = clock.millis();
+        long tokens = lease.deposit(allowed ? granted - cost : granted, globalRemaining, now + ttl, now).tokens();
+        return allowed
+                ? new RateLimitDecision(true, limit, tokens + globalRemaining, ttl)
+                : new RateLimitDecision(false, limit, 0, ttl);
+    }
+
+    private Lease lease(String bucketKey) {
+        try {
+            return leases.get(bucketKey, Lease::new);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Quota held locally for one bucket. Bucket keys carry the window index, so a lease never spans windows.
+     * <p>
+     * Tokens, the Redis remainder and the reset time are published together as one immutable {@link Snapshot} and
+     * changed only by CAS, so a reader never sees the tokens of one grant with the reset time of another.
+     */
+    private static final class Lease {
+
+        private static final Snapshot EMPTY = new Snapshot(0, 0, 0);
+
+        private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(EMPTY);
+
+        private Snapshot snapshot() {
+            return snapshot.get();
+        }
+
+        /**
+         * @return the lease after taking {@code cost}, or {@code null} if it has expired or holds fewer tokens
+         */
+        private Snapshot take(int cost, long now) {
+            Snapshot current;
+            Snapshot next;
+            do {
+                current = snapshot.get();
+                if (!current.isLive(now) || current.tokens() < cost) {
+                    return null;
+                }
+                next = new Snapshot(current.tokens() - cost, current.globalRemaining(), current.resetAt());
+            } while (!snapshot.compareAndSet(current, next));
+            return next;
+        }
+
+        /**
+         * Adds a fresh grant to the tokens still held; tokens of an expired lease are dropped.
+         */
+        private Snapshot deposit(long granted, long globalRemaining, long resetAt, long now) {
+            return snapshot.updateAndGet(current -> new Snapshot(
+                    (current.isLive(now) ? current.tokens() : 0) + granted, globalRemaining, resetAt));
+        }
+
+        /**
+         * @param globalRemaining quota left in Redis as of the latest grant; zero means spending past the local
+         *                        tokens is rejected without asking Redis again
+         */
+        private record Snapshot(long tokens, long globalRemaining, long resetAt) {
+
+            private boolean isLive(long now) {
+                return resetAt > now;
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.aman.authservice.ratelimit.service;
 
 import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.exception.BruteForceLockoutException;
+import com.aman.authservice.ratelimit.metrics.HeavyHitterTracker;
+import com.aman.authservice.ratelimit.metrics.RateLimiterMetrics;
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
 import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
 import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
 import com.aman.authservice.ratelimit.resolver.FixedWindowBucketResolver;
@@ -10,44 +14,78 @@ import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+/**
+ * Evaluates rate limiters against Redis.
+ * <p>
+ * All scripts of one check (fixed window, sliding window, GCRA) and the optional brute-force lock and
+ * credential-stuffing block lookups are issued
+ * together through Lettuce's non-blocking API on the shared connection and awaited together, so a check costs one
+ * round trip instead of one per limiter.
+ */
 @Slf4j
 @Service
 public class RedisRateLimiterService {
 
-    private final StringRedisTemplate stringRedisTemplate;
-    private final DefaultRedisScript<Long> fixedWindowScript;
-    private final DefaultRedisScript<Long> slidingWindowScript;
+    private static final String ANONYMOUS = "anonymous";
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final RedisScript<List<Long>> fixedWindowScript;
+    private final RedisScript<List<Long>> slidingWindowScript;
+    private final RedisScript<List<Long>> gcraScript;
     private final FixedWindowBucketResolver fixedWindowBucketResolver;
     private final SlidingWindowResolver slidingWindowResolver;
     private final RateLimitKeyResolver rateLimitKeyResolver;
+    private final BruteForceProtectionService bruteForceProtectionService;
+    private final CredentialStuffingDetector credentialStuffingDetector;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final QuotaLeaseManager quotaLeaseManager;
+    private final RateLimiterMetrics rateLimiterMetrics;
     private final CircuitBreaker redisCircuitBreaker;
+    private final Duration timeout;
     private final Counter rateLimitHitCounter;
 
-    public RedisRateLimiterService(StringRedisTemplate stringRedisTemplate,
-                                   DefaultRedisScript<Long> fixedWindowScript,
-                                   DefaultRedisScript<Long> slidingWindowScript,
+    public RedisRateLimiterService(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                   RedisScript<List<Long>> fixedWindowScript,
+                                   RedisScript<List<Long>> slidingWindowScript,
+                                   RedisScript<List<Long>> gcraScript,
                                    FixedWindowBucketResolver fixedWindowBucketResolver,
                                    SlidingWindowResolver slidingWindowResolver,
                                    RateLimitKeyResolver rateLimitKeyResolver,
+                                   BruteForceProtectionService bruteForceProtectionService,
+                                   CredentialStuffingDetector credentialStuffingDetector,
+                                   HeavyHitterTracker heavyHitterTracker,
+                                   QuotaLeaseManager quotaLeaseManager,
+                                   RateLimiterMetrics rateLimiterMetrics,
                                    CircuitBreaker redisCircuitBreaker,
                                    RateLimitingProperties properties,
                                    MeterRegistry meterRegistry) {
-        this.stringRedisTemplate = stringRedisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
         this.fixedWindowScript = fixedWindowScript;
         this.slidingWindowScript = slidingWindowScript;
+        this.gcraScript = gcraScript;
 
         this.fixedWindowBucketResolver = fixedWindowBucketResolver;
         this.slidingWindowResolver = slidingWindowResolver;
         this.rateLimitKeyResolver = rateLimitKeyResolver;
+        this.bruteForceProtectionService = bruteForceProtectionService;
+        this.credentialStuffingDetector = credentialStuffingDetector;
+        this.heavyHitterTracker = heavyHitterTracker;
+        this.quotaLeaseManager = quotaLeaseManager;
+        this.rateLimiterMetrics = rateLimiterMetrics;
         this.redisCircuitBreaker = redisCircuitBreaker;
+        this.timeout = properties.getRedisTimeout();
 
         this.rateLimitHitCounter = Counter.builder("rate_limit_hit_total")
                 .description("Total number of requests blocked by distributed rate limiting")
@@ -56,69 +94,160 @@ public class RedisRateLimiterService {
     }
 
     public boolean allow(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
-        boolean fixedAllowed = !definition.isFixedWindowEnabled()
-                || allowFixedWindow(definition, metadata);
-        boolean slidingAllowed = !definition.isSlidingWindowEnabled()
-                || allowSlidingWindow(definition, metadata);
+        return evaluate(definition, metadata).isAllowed();
+    }
+
+    /**
+     * Runs every enabled limiter of the definition and returns the most restrictive outcome, including the
+     * remaining quota and reset time reported by the scripts.
+     *
+     * @throws BruteForceLockoutException if the definition guards against brute force and the caller is locked out
+     */
+    public RateLimitDecision evaluate(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
+        return evaluate(definition, metadata, strategy -> true);
+    }
+
+    /**
+     * Same as {@link #evaluate(RateLimiterDefinition, RateLimitKeyResolver.RateLimitRequestMetadata)}, restricted to
+     * the limiters whose key strategy matches. Used to check IP-keyed limiters before the username is known. The
+     * brute-force lock is only checked once the username is known.
+     */
+    public RateLimitDecision evaluate(RateLimiterDefinition definition,
+                                      RateLimitKeyResolver.RateLimitRequestMetadata metadata,
+                                      Predicate<RateLimitKeyStrategy> strategies) {
+        List<Mono<RateLimitDecision>> checks = new ArrayList<>(3);
+        if (definition.isFixedWindowEnabled() && strategies.test(definition.getFixedWindowKeyStrategy())) {
+            checks.add(timed(definition, "fixed_window", evaluateFixedWindow(definition, metadata)));
+        }
+        if (definition.isSlidingWindowEnabled() && strategies.test(definition.getSlidingWindowKeyStrategy())) {
+            checks.add(timed(definition, "sliding_window", evaluateSlidingWindow(definition, metadata)));
+        }
+        if (definition.isGcraEnabled() && strategies.test(definition.getGcraKeyStrategy())) {
+            checks.add(timed(definition, "gcra", evaluateGcra(definition, metadata)));
+        }
+        boolean guardBruteForce = definition.isBruteForceGuard() && !ANONYMOUS.equals(metadata.username());
+        if (checks.isEmpty() && !guardBruteForce) {
+            return RateLimitDecision.unknown();
+        }
 
-        boolean allowed = fixedAllowed && slidingAllowed;
-        if (!allowed) {
+        Mono<RateLimitDecision> limits = Flux.merge(checks)
+                .reduce(RateLimitDecision.unknown(), RateLimitDecision::mostRestrictive);
+        Mono<Duration> lockRemaining = guardBruteForce
+                ? rateLimiterMetrics.timeScript(definition.getName(), "brute_force", Mono.zip(
+                        bruteForceProtectionService.lockRemaining(metadata.ip(), metadata.username()),
+                        credentialStuffingDetector.blockRemaining(metadata.ip(), metadata.username()),
+                        (lock, block) -> lock.compareTo(block) >= 0 ? lock : block), Duration::isZero)
+                : Mono.just(Duration.ZERO);
+
+        long start = System.nanoTime();
+        GateResult fallback = new GateResult(RateLimitDecision.unknown(), Duration.ZERO);
+        GateResult result = rateLimiterMetrics.inflight(() -> executeRedisCommand(
+                () -> Mono.zip(limits, lockRemaining, GateResult::new).block(timeout), fallback));
+        // Identity check: only the fallback path returns this instance
+        rateLimiterMetrics.recordCheck(definition.getName(), result == fallback
+                ? RateLimiterMetrics.FALLBACK
+                : result.decision().isAllowed() && result.lockRemaining().isZero()
+                ? RateLimiterMetrics.ALLOWED
+                : RateLimiterMetrics.BLOCKED, start);
+
+        if (!result.lockRemaining().isZero()) {
+            log.warn("Brute force lockout active | limiter={} | metadata={}", definition.getName(), metadata);
+            throw new BruteForceLockoutException(
+                    "Account locked due to too many failed attempts. Please try again later.", result.lockRemaining());
+        }
+        RateLimitDecision decision = result.decision();
+        if (!decision.isAllowed()) {
             rateLimitHitCounter.increment();
+            heavyHitterTracker.record(HeavyHitterTracker.Source.RATE_LIMIT,
+                    metadata.ip(), metadata.username(), metadata.tenant());
             log.warn("Rate limit triggered | limiter={} | metadata={}", definition.getName(), metadata);
         }
-        return allowed;
+        return decision;
     }
 
     public boolean allowFixedWindow(String baseKey, int limit, Duration window) {
-        String bucketKey = fixedWindowBucketResolver.resolveBucketKey(baseKey, window);
-        return executeRedisCommand(() -> {
-            Long result = stringRedisTemplate.execute(
-                    fixedWindowScript,
-                    List.of(bucketKey),
-                    String.valueOf(limit),
-                    String.valueOf(window.toMillis())
-            );
-            return result == 1L;
-        });
+        Mono<RateLimitDecision> check =
+                executeFixedWindow(fixedWindowBucketResolver.resolveBucketKey(baseKey, window), limit, window, 1);
+        return executeRedisCommand(() -> check.block(timeout), RateLimitDecision.unknown()).isAllowed();
     }
 
     public boolean allowSlidingWindow(String baseKey, int limit, Duration window) {
-        String slidingKey = slidingWindowResolver.resolveKey(baseKey);
-        return executeRedisCommand(() -> {
-            Long result = stringRedisTemplate.execute(
-                    slidingWindowScript,
-                    List.of(slidingKey),
-                    String.valueOf(limit),
-                    String.valueOf(window.toMillis()),
-                    String.valueOf(slidingWindowResolver.nowMillis())
-            );
-            return result == 1L;
-        });
+        Mono<RateLimitDecision> check = executeSlidingWindow(slidingWindowResolver.resolveKey(baseKey), limit, window, 1);
+        return executeRedisCommand(() -> check.block(timeout), RateLimitDecision.unknown()).isAllowed();
+    }
+
+    private Mono<RateLimitDecision> executeFixedWindow(String bucketKey, int limit, Duration window, int cost) {
+        return executeScript(fixedWindowScript, bucketKey, limit,
+                String.valueOf(limit),
+                String.valueOf(window.toMillis()),
+                String.valueOf(cost));
     }
 
-    private boolean allowFixedWindow(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
-        String baseKey = resolveBaseKey(definition.getName(), definition.getFixedWindowKeyStrategy(), metadata);
-        return allowFixedWindow(baseKey, definition.getFixedWindowLimit(), definition.getFixedWindowDuration());
+    private Mono<RateLimitDecision> executeSlidingWindow(String slidingKey, int limit, Duration window, int cost) {
+        return executeScript(slidingWindowScript, slidingKey, limit,
+                String.valueOf(limit),
+                String.valueOf(window.toMillis()),
+                String.valueOf(slidingWindowResolver.nowMillis()),
+                String.valueOf(cost));
     }
 
-    private boolean allowSlidingWindow(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
-        String baseKey = resolveBaseKey(definition.getName(), definition.getSlidingWindowKeyStrategy(), metadata);
-        return allowSlidingWindow(baseKey, definition.getSlidingWindowLimit(), definition.getSlidingWindowDuration());
+    private Mono<RateLimitDecision> executeGcra(String gcraKey, double emissionIntervalMillis, int burst, int cost) {
+        return executeScript(gcraScript, gcraKey, burst,
+                String.valueOf(emissionIntervalMillis),
+                String.valueOf(burst),
+                String.valueOf(cost),
+                String.valueOf(slidingWindowResolver.nowMillis()));
     }
 
-    private String resolveBaseKey(String limiterName, RateLimitKeyStrategy strategy, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
-        return rateLimitKeyResolver.resolve(limiterName, strategy, metadata);
+    private Mono<RateLimitDecision> executeScript(RedisScript<List<Long>> script, String key, long limit, String... args) {
+        return reactiveRedisTemplate.execute(script, List.of(key), List.of(args))
+                .next()
+                .map(result -> RateLimitDecision.fromScript(result, limit))
+                .defaultIfEmpty(RateLimitDecision.unknown());
     }
 
-    private boolean executeRedisCommand(Supplier<Boolean> supplier) {
+    private Mono<RateLimitDecision> evaluateFixedWindow(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
+        String bucketKey = fixedWindowBucketResolver.resolveBucketKey(
+                rateLimitKeyResolver.baseKey(definition, definition.getFixedWindowKeyStrategy(), metadata),
+                definition.getFixedWindowDuration());
+        if (definition.isFixedWindowLeased()) {
+            return quotaLeaseManager.acquire(bucketKey, definition.getFixedWindowLimit(),
+                    definition.getFixedWindowDuration(), 1, definition.getFixedWindowLeaseSize());
+        }
+        return executeFixedWindow(bucketKey, definition.getFixedWindowLimit(), definition.getFixedWindowDuration(), 1);
+    }
+
+    private Mono<RateLimitDecision> evaluateSlidingWindow(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
+        String slidingKey = slidingWindowResolver.resolveKey(
+                rateLimitKeyResolver.baseKey(definition, definition.getSlidingWindowKeyStrategy(), metadata));
+        return executeSlidingWindow(slidingKey, definition.getSlidingWindowLimit(), definition.getSlidingWindowDuration(), 1);
+    }
+
+    private Mono<RateLimitDecision> evaluateGcra(RateLimiterDefinition definition, RateLimitKeyResolver.RateLimitRequestMetadata metadata) {
+        String gcraKey = rateLimitKeyResolver.gcraBaseKey(definition, metadata)
+                .append(":gcra")
+                .build();
+        return executeGcra(gcraKey, definition.getGcraEmissionIntervalMillis(), definition.getGcraBurst(),
+                definition.getCost());
+    }
+
+    private Mono<RateLimitDecision> timed(RateLimiterDefinition definition, String check,
+                                          Mono<RateLimitDecision> script) {
+        return rateLimiterMetrics.timeScript(definition.getName(), check, script, RateLimitDecision::isAllowed);
+    }
+
+    private <T> T executeRedisCommand(Supplier<T> supplier, T fallback) {
         try {
-            return CircuitBreaker
+            T result = CircuitBreaker
                     .decorateSupplier(redisCircuitBreaker, supplier)
                     .get();
+            return result != null ? result : fallback;
         } catch (Exception ex) {
             log.error("Redis rate limiter fallback - allowing request due to Redis/CircuitBreaker state", ex);
-            return true;
+            return fallback;
         }
     }
-}
 
+    private record GateResult(RateLimitDecision decision, Duration lockRemaining) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Slows flagged callers down without holding a request thread.
+ * <p>
+ * A delayed response is parked as an async servlet request and released by a single shared
+ * {@link HashedWheelTimer}, so each pending caller costs one timer entry and an idle connection rather than a Tomcat
+ * worker. The number of parked responses is capped; beyond the cap callers are answered immediately.
+ */
+@Slf4j
+@Service
+public class TarpitService {
+
+    /**
+     * Extra async timeout beyond the delay, so the container never times out a parked response first.
+     */
+    private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 5_000;
+
+    private final RateLimitingProperties.Tarpit settings;
+    private final Timer timer;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter delayedCounter;
+    private final Counter overflowCounter;
+
+    public TarpitService(RateLimitingProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getTarpit();
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("tarpit", true),
+                settings.getTickDuration().toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("tarpit_pending", pending, AtomicInteger::get)
+                .description("Responses currently held by the tarpit")
+                .register(meterRegistry);
+        this.delayedCounter = Counter.builder("tarpit_delayed_total")
+                .description("Responses delayed by the tarpit")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("tarpit_overflow_total")
+                .description("Flagged responses sent immediately because the tarpit was full")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Holds an already written response open and completes it after the tarpit delay. The response body must be
+     * written but not flushed or closed.
+     *
+     * @return {@code true} if the response is now held and the caller must return without further writes;
+     * {@code false} if the response should complete normally
+     */
+    public boolean hold(HttpServletRequest request) {
+        if (!request.isAsyncSupported() || !tryAcquire()) {
+            return false;
+        }
+        long delayMillis = nextDelayMillis();
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(delayMillis + ASYNC_TIMEOUT_MARGIN_MILLIS);
+        schedule(asyncContext::complete, delayMillis);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop().forEach(timeout -> {
+            try {
+                timeout.task().run(timeout);
+            } catch (Exception ex) {
+                log.debug("Failed to release tarpitted response on shutdown", ex);
+            }
+        });
+    }
+
+    private boolean tryAcquire() {
+        if (!settings.isEnabled()) {
+            return false;
+        }
+        if (pending.incrementAndGet() > settings.getMaxPending()) {
+            pending.decrementAndGet();
+            overflowCounter.increment();
+            return false;
+        }
+        delayedCounter.increment();
+        return true;
+    }
+
+    private void schedule(Runnable release, long delayMillis) {
+        timer.newTimeout(timeout -> {
+            pending.decrementAndGet();
+            try {
+                release.run();
+            } catch (Exception ex) {
+                log.debug("Failed to release tarpitted response", ex);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private long nextDelayMillis() {
+        long jitter = settings.getJitter().toMillis();
+        return settings.getDelay().toMillis() + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    }
+}
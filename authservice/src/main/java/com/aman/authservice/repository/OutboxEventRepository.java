@@ -0,0 +1,66 @@
+package com.aman.authservice.repository;
+
+import com.aman.authservice.entities.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events that are neither parked nor claimed by a live relay, row-locked until the caller's claim
+     * transaction commits. A relay claiming concurrently waits on these rows and then sees them claimed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select e from OutboxEvent e
+            where e.parkedAt is null and (e.claimedUntil is null or e.claimedUntil < :now)
+            order by e.id""")
+    List<OutboxEvent> findClaimable(@Param("now") Instant now, Pageable page);
+
+    /**
+     * First pending (not parked) event id per key, as {@code [messageKey, id]} rows.
+     */
+    @Query("""
+            select e.messageKey, min(e.id) from OutboxEvent e
+            where e.parkedAt is null and e.messageKey in :keys
+            group by e.messageKey""")
+    List<Object[]> findFirstPendingIds(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.claimedUntil = null where e.id in :ids")
+    int recordFailure(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            update OutboxEvent e set e.attempts = e.attempts + 1, e.claimedUntil = null, e.parkedAt = :now
+            where e.id in :ids""")
+    int park(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    long countByParkedAtIsNull();
+
+    Optional<OutboxEvent> findFirstByParkedAtIsNullOrderByIdAsc();
+}
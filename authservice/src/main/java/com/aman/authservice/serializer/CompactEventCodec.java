@@ -0,0 +1,281 @@
+package com.aman.authservice.serializer;
+
+import com.aman.authservice.events.TokenRefreshedEvent;
+import com.aman.authservice.events.UserEvent;
+import com.aman.authservice.events.UserInfoEvent;
+import com.aman.authservice.events.UserLoggedInEvent;
+import com.aman.authservice.events.UserLoggedOutEvent;
+import com.aman.authservice.events.UserLoginFailedEvent;
+import com.aman.authservice.events.UserPasswordChangedEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of user events.
+ * <p>
+ * Layout (version 1): magic byte {@code 0xC5}, version byte, event type code, then the fields of that type in a
+ * fixed order, without names. Strings are a varint of {@code length + 1} ({@code 0} for null) followed by UTF-8;
+ * timestamps are varint epoch milliseconds; an IPv4 literal is stored as 4 raw bytes. JSON text never starts with
+ * {@code 0xC5}, so readers tell the two encodings apart by the first byte. Fields may only be appended in later
+ * versions; {@code UserEventUnifiedDeserializer} in userservice carries the matching decoder.
+ */
+public final class CompactEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC5;
+    public static final byte VERSION = 1;
+
+    private static final byte USER_INFO = 1;
+    private static final byte USER_LOGGED_IN = 2;
+    private static final byte USER_LOGIN_FAILED = 3;
+    private static final byte TOKEN_REFRESHED = 4;
+    private static final byte PASSWORD_CHANGED = 5;
+    private static final byte USER_LOGGED_OUT = 6;
+
+    private static final byte IP_ABSENT = 0;
+    private static final byte IP_TEXT = 1;
+    private static final byte IP_V4 = 4;
+
+    private CompactEventCodec() {
+    }
+
+    public static boolean supports(Object event) {
+        return typeCode(event) != 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the event type has no compact form; check {@link #supports(Object)}
+     */
+    public static byte[] encode(Object event) {
+        byte type = typeCode(event);
+        if (type == 0) {
+            throw new IllegalArgumentException("No compact encoding for " + event.getClass().getSimpleName());
+        }
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(type);
+        if (event instanceof UserInfoEvent info) {
+            out.writeString(info.getUserId());
+            out.writeString(info.getUsername());
+            out.writeString(info.getFirstName());
+            out.writeString(info.getLastName());
+            out.writeString(info.getEmail());
+            out.writeOptionalLong(info.getPhoneNumber());
+            return out.toByteArray();
+        }
+
+        UserEvent userEvent = (UserEvent) event;
+        out.writeString(userEvent.getUserId());
+        out.writeOptionalLong(userEvent.getEventTimestamp() != null ? userEvent.getEventTimestamp().toEpochMilli() : null);
+        if (event instanceof UserLoggedInEvent loggedIn) {
+            out.writeIp(loggedIn.getIpAddress());
+            out.writeString(loggedIn.getUserAgent());
+        } else if (event instanceof UserLoginFailedEvent failed) {
+            out.writeString(failed.getReason());
+            out.writeString(failed.getAttemptedUsername());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes into the authservice event classes; used to verify round trips.
+     */
+    public static Object decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.get() != MAGIC) {
+            throw new IllegalArgumentException("Not a compact event");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact event version " + version);
+        }
+        byte type = in.get();
+        if (type == USER_INFO) {
+            return UserInfoEvent.builder()
+                    .userId(readString(in))
+                    .username(readString(in))
+                    .firstName(readString(in))
+                    .lastName(readString(in))
+                    .email(readString(in))
+                    .phoneNumber(readOptionalLong(in))
+                    .build();
+        }
+
+        String userId = readString(in);
+        Long millis = readOptionalLong(in);
+        UserEvent event = switch (type) {
+            case USER_LOGGED_IN -> {
+                UserLoggedInEvent loggedIn = new UserLoggedInEvent();
+                loggedIn.setIpAddress(readIp(in));
+                loggedIn.setUserAgent(readString(in));
+                loggedIn.setEventType("USER_LOGGED_IN");
+                yield loggedIn;
+            }
+            case USER_LOGIN_FAILED -> {
+                UserLoginFailedEvent failed = new UserLoginFailedEvent();
+                failed.setReason(readString(in));
+                failed.setAttemptedUsername(readString(in));
+                failed.setEventType("USER_LOGIN_FAILED");
+                yield failed;
+            }
+            case TOKEN_REFRESHED -> new TokenRefreshedEvent(userId);
+            case PASSWORD_CHANGED -> new UserPasswordChangedEvent(userId);
+            case USER_LOGGED_OUT -> new UserLoggedOutEvent(userId);
+            default -> throw new IllegalArgumentException("Unknown compact event type " + type);
+        };
+        event.setUserId(userId);
+        event.setEventTimestamp(millis != null ? Instant.ofEpochMilli(millis) : null);
+        return event;
+    }
+
+    private static byte typeCode(Object event) {
+        if (event instanceof UserInfoEvent) {
+            return USER_INFO;
+        } else if (event instanceof UserLoggedInEvent) {
+            return USER_LOGGED_IN;
+        } else if (event instanceof UserLoginFailedEvent) {
+            return USER_LOGIN_FAILED;
+        } else if (event instanceof TokenRefreshedEvent) {
+            return TOKEN_REFRESHED;
+        } else if (event instanceof UserPasswordChangedEvent) {
+            return PASSWORD_CHANGED;
+        } else if (event instanceof UserLoggedOutEvent) {
+            return USER_LOGGED_OUT;
+        }
+        return 0;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static Long readOptionalLong(ByteBuffer in) {
+        return in.get() == 0 ? null : readVarLong(in);
+    }
+
+    private static String readIp(ByteBuffer in) {
+        byte kind = in.get();
+        if (kind == IP_ABSENT) {
+            return null;
+        }
+        if (kind == IP_TEXT) {
+            return readString(in);
+        }
+        return (in.get() & 0xFF) + "." + (in.get() & 0xFF) + "." + (in.get() & 0xFF) + "." + (in.get() & 0xFF);
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[128];
+        private int size;
+
+        void writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeOptionalLong(Long value) {
+            writeByte(value == null ? 0 : 1);
+            if (value != null) {
+                writeVarLong(value);
+            }
+        }
+
+        void writeIp(String ip) {
+            if (ip == null) {
+                writeByte(IP_ABSENT);
+                return;
+            }
+            int[] octets = ipv4Octets(ip);
+            if (octets == null) {
+                writeByte(IP_TEXT);
+                writeString(ip);
+                return;
+            }
+            writeByte(IP_V4);
+            for (int octet : octets) {
+                writeByte(octet);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        /**
+         * Octets of a canonical dotted-quad literal (no leading zeros), so decoding reproduces the exact text.
+         */
+        private static int[] ipv4Octets(String ip) {
+            int[] octets = new int[4];
+            int octet = 0;
+            int value = 0;
+            int digits = 0;
+            for (int i = 0; i <= ip.length(); i++) {
+                char c = i < ip.length() ? ip.charAt(i) : '.';
+                if (c == '.') {
+                    if (digits == 0 || octet > 3) {
+                        return null;
+                    }
+                    octets[octet++] = value;
+                    value = 0;
+                    digits = 0;
+                } else if (c >= '0' && c <= '9' && !(digits == 1 && value == 0)) {
+                    value = value * 10 + (c - '0');
+                    if (++digits > 3 || value > 255) {
+                        return null;
+                    }
+                } else {
+                    return null;
+                }
+            }
+            return octet == 4 ? octets : null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.aman.authservice.serializer;
+
+/**
+ * Wire format of user events. Consumers read both, so switch to {@link #COMPACT} only after they are upgraded.
+ */
+public enum EventEncoding {
+    /**
+     * Jackson JSON, readable by every consumer version.
+     */
+    JSON,
+    /**
+     * Version-tagged binary format of {@link CompactEventCodec}; event types it does not cover stay JSON.
+     */
+    COMPACT
+}
@@ -4,20 +4,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Serializer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
  * Production-ready serializer that handles all event types (UserEvent, UserInfoEvent, etc.).
  * Handles serialization errors gracefully with proper logging.
+ * Writes JSON or, with {@link EventEncoding#COMPACT}, the binary format of {@link CompactEventCodec}.
  */
 @Slf4j
 public class UserEventSerializer implements Serializer<Object> {
 
+    /**
+     * Producer property selecting the {@link EventEncoding}.
+     */
+    public static final String ENCODING_CONFIG = "user.event.encoding";
+
+    /**
+     * Record header carrying the event class name, so consumers can pick a reader without parsing the value.
+     */
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
     private final ObjectMapper objectMapper;
+    private EventEncoding encoding;
 
     public UserEventSerializer() {
+        this(EventEncoding.JSON);
+    }
+
+    public UserEventSerializer(EventEncoding encoding) {
+        this.encoding = encoding;
         this.objectMapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -25,12 +44,32 @@ public class UserEventSerializer implements Serializer<Object> {
 
     @Override
     public void configure(Map<String, ?> configs, boolean isKey) {
-        // Configuration is handled in constructor
+        Object configured = configs.get(ENCODING_CONFIG);
+        if (configured != null) {
+            encoding = EventEncoding.valueOf(configured.toString().trim().toUpperCase());
+        }
+    }
+
+    public EventEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Adds the {@link #EVENT_TYPE_HEADER} unless the record already has one, then serializes the event.
+     * Pre-serialized payloads must come with the header set by the caller.
+     */
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object event) {
+        if (event != null && !(event instanceof byte[]) && headers.lastHeader(EVENT_TYPE_HEADER) == null) {
+            headers.add(EVENT_TYPE_HEADER, event.getClass().getSimpleName().getBytes(StandardCharsets.UTF_8));
+        }
+        return serialize(topic, event);
     }
 
     /**
      * Serializes any event object to JSON bytes.
-     * Handles UserEvent, UserInfoEvent, and all other event types.
+     * Handles UserEvent, UserInfoEvent, and all other event types. A byte array is taken as an event that
+     * was already serialized (relayed from the outbox) and is passed through unchanged.
      *
      * @param topic Topic name (for logging/debugging)
      * @param event Event object to serialize
@@ -43,10 +82,15 @@ public class UserEventSerializer implements Serializer<Object> {
             log.warn("Attempted to serialize null event for topic: {}", topic);
             return null;
         }
+        if (event instanceof byte[] serialized) {
+            return serialized;
+        }
 
         try {
             String eventType = event.getClass().getSimpleName();
-            byte[] serialized = objectMapper.writeValueAsBytes(event);
+            byte[] serialized = encoding == EventEncoding.COMPACT && CompactEventCodec.supports(event)
+                    ? CompactEventCodec.encode(event)
+                    : objectMapper.writeValueAsBytes(event);
             
             log.debug("Serialized event | topic={} | eventType={} | size={} bytes",
                     topic, eventType, serialized.length);
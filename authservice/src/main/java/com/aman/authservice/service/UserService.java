@@ -35,7 +35,7 @@ public class UserService {
     /**
      * Registers a new user in the system.
      * Validates that the user doesn't already exist (by email or username).
-     * Publishes a signup event after successful registration.
+     * Adds a signup event to the outbox in the registration transaction.
      *
      * @param userInfoDto User information DTO
      * @return User ID of the newly created user
@@ -88,14 +88,9 @@ public class UserService {
             throw new RuntimeException("Failed to create user account", e);
         }
 
-        // Publish signup event
-        try {
-            publishSignupEvent(user);
-            log.debug("Signup event published for user: {}", user.getUserId());
-        } catch (Exception e) {
-            log.error("Failed to publish signup event for user: {}", user.getUserId(), e);
-            // Non-critical error - user is created, just log the event failure
-        }
+        // Written in the same transaction: the user is not created without its signup event
+        publishSignupEvent(user);
+        log.debug("Signup event added to outbox for user: {}", user.getUserId());
 
         log.info("User registered successfully: {}", user.getUserId());
         return user.getUserId();
@@ -118,10 +113,10 @@ public class UserService {
     }
 
     /**
-     * Publishes user signup event to Kafka.
+     * Adds the user signup event to the outbox, in the signup transaction.
      */
     private void publishSignupEvent(UserInfo user) {
-        userEventProducer.publish(
+        userEventProducer.enqueue(
                 UserInfoEvent.builder()
                         .userId(user.getUserId())
                         .firstName(user.getFirstName())
@@ -196,15 +191,9 @@ public class UserService {
             throw new RuntimeException("Failed to update password", e);
         }
 
-        // Publish Kafka event
-        try {
-            UserPasswordChangedEvent event = new UserPasswordChangedEvent(userId);
-            userEventProducer.publish(event, userId);
-            log.debug("Password changed event published for user: {}", userId);
-        } catch (Exception e) {
-            log.error("Failed to publish password changed event for user: {}", userId, e);
-            // Non-critical error - password is changed, just log the event failure
-        }
+        // Written in the same transaction: the event exists if and only if the password change commits
+        userEventProducer.enqueue(new UserPasswordChangedEvent(userId), userId);
+        log.debug("Password changed event added to outbox for user: {}", userId);
     }
 
     /**
@@ -1,15 +1,21 @@
 package com.aman.authservice.util;
 
+import com.aman.authservice.ratelimit.model.RateLimitPolicy;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 @Component
 public class ClientRequestMetadataExtractor {
 
+    public static final String TENANT_AUTHORITY_PREFIX = "TENANT_";
+
     private static final List<String> IP_HEADER_CHAIN = Arrays.asList(
             "X-Forwarded-For",
             "X-Real-IP",
@@ -39,7 +45,23 @@ public class ClientRequestMetadataExtractor {
             return defaultTenant;
         }
         String tenant = request.getHeader(tenantHeader);
-        return StringUtils.hasText(tenant) ? tenant.trim().toLowerCase() : defaultTenant;
+        return StringUtils.hasText(tenant) ? RateLimitPolicy.normalizeTenant(tenant) : defaultTenant;
+    }
+
+    /**
+     * Tenant whose rate-limit policy applies. The tenant header is client-controlled, so it only counts when the
+     * authenticated principal holds the matching {@code TENANT_<id>} authority; otherwise {@code defaultTenant}.
+     * Before authentication (e.g. in {@code RateLimitFilter}) this is always {@code defaultTenant}.
+     */
+    public String resolvePolicyTenant(String tenant, String defaultTenant) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (tenant == null || authentication == null || !authentication.isAuthenticated()) {
+            return defaultTenant;
+        }
+        String authority = TENANT_AUTHORITY_PREFIX + tenant.toUpperCase(Locale.ROOT);
+        return authentication.getAuthorities().stream().anyMatch(granted -> authority.equals(granted.getAuthority()))
+                ? tenant
+                : defaultTenant;
     }
 
     private String sanitizeIp(String ip) {
@@ -1,20 +1,28 @@
 -- brute_force.lua
+-- Checks and records login attempts in one round trip.
 -- KEYS[1]: failure count key
 -- KEYS[2]: lockout key
 -- ARGV[1]: max failures
 -- ARGV[2]: failure window in seconds
 -- ARGV[3]: lockout duration in seconds
+-- ARGV[4]: mode - 'check' (lock lookup only) or 'fail' (lock lookup, then record a failure)
+-- Returns: { allowed (1/0), lockout TTL in milliseconds (0 if not locked), 1 if this call triggered the lockout }
 
 local failure_key = KEYS[1]
 local lockout_key = KEYS[2]
 local max_failures = tonumber(ARGV[1])
 local failure_window = tonumber(ARGV[2])
 local lockout_duration = tonumber(ARGV[3])
+local mode = ARGV[4] or 'fail'
 
 -- Check if locked out
-if redis.call('EXISTS', lockout_key) == 1 then
-    local ttl = redis.call('TTL', lockout_key)
-    return {0, ttl} -- 0: Locked, return remaining TTL
+local ttl = redis.call('PTTL', lockout_key)
+if ttl > 0 then
+    return {0, ttl, 0} -- Locked, return remaining TTL
+end
+
+if mode == 'check' then
+    return {1, 0, 0}
 end
 
 -- Increment failure count
@@ -25,10 +33,9 @@ if failures == 1 then
 end
 
 if failures >= max_failures then
-    redis.call('SET', lockout_key, "LOCKED")
-    redis.call('EXPIRE', lockout_key, lockout_duration)
+    redis.call('SET', lockout_key, "LOCKED", 'EX', lockout_duration)
     redis.call('DEL', failure_key) -- Reset failures after lockout
-    return {0, lockout_duration} -- Locked
+    return {0, lockout_duration * 1000, 1} -- Locked
 end
 
-return {1, 0} -- 1: Allowed
+return {1, 0, 0} -- Allowed
@@ -0,0 +1,26 @@
+-- concurrency_acquire.lua
+-- Takes a permit from a sorted-set semaphore. Members are permit ids scored by their expiry, so permits of
+-- crashed nodes or lost releases expire on their own.
+-- KEYS[1]: semaphore key
+-- ARGV[1]: permit id
+-- ARGV[2]: now in milliseconds
+-- ARGV[3]: permit lease in milliseconds
+-- ARGV[4]: maximum permits
+-- Returns: { acquired (1/0), permits in use after the call }
+
+local key = KEYS[1]
+local permit = ARGV[1]
+local now = tonumber(ARGV[2])
+local lease = tonumber(ARGV[3])
+local max = tonumber(ARGV[4])
+
+redis.call('ZREMRANGEBYSCORE', key, '-inf', now)
+local in_use = redis.call('ZCARD', key)
+
+if in_use >= max then
+    return { 0, in_use }
+end
+
+redis.call('ZADD', key, now + lease, permit)
+redis.call('PEXPIRE', key, lease)
+return { 1, in_use + 1 }
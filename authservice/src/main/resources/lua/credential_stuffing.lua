@@ -0,0 +1,41 @@
+-- credential_stuffing.lua
+-- Tracks the number of distinct members (usernames per IP, or IPs per username) seen in failed logins with a
+-- HyperLogLog per window bucket, and blocks the subject once the count crosses a threshold.
+-- All keys share one hash tag (the subject), so the script is Redis Cluster safe.
+-- KEYS[1]: HyperLogLog of the current window bucket
+-- KEYS[2]: HyperLogLog of the previous window bucket
+-- KEYS[3]: block key
+-- ARGV[1]: member to add (username or IP)
+-- ARGV[2]: distinct-member threshold
+-- ARGV[3]: window size in milliseconds
+-- ARGV[4]: block duration in milliseconds
+-- Returns: { allowed (1/0), block TTL in milliseconds, estimated distinct members, 1 if this call triggered the block }
+
+local current_key = KEYS[1]
+local previous_key = KEYS[2]
+local block_key = KEYS[3]
+local member = ARGV[1]
+local threshold = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+local block_duration = tonumber(ARGV[4])
+
+local ttl = redis.call('PTTL', block_key)
+if ttl > 0 then
+    return {0, ttl, 0, 0} -- Already blocked
+end
+
+redis.call('PFADD', current_key, member)
+if redis.call('PTTL', current_key) < 0 then
+    -- Keep the bucket for two windows so it can serve as the previous bucket
+    redis.call('PEXPIRE', current_key, window * 2)
+end
+
+-- Union of the current and previous bucket approximates a sliding window
+local distinct = redis.call('PFCOUNT', current_key, previous_key)
+
+if distinct > threshold then
+    redis.call('SET', block_key, distinct, 'PX', block_duration)
+    return {0, block_duration, distinct, 1} -- Blocked
+end
+
+return {1, 0, distinct, 0} -- Allowed
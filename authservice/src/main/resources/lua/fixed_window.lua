@@ -2,21 +2,29 @@
 -- KEYS[1]: rate limit key
 -- ARGV[1]: limit
 -- ARGV[2]: window size in milliseconds
+-- ARGV[3]: cost of this request
+-- Returns: { allowed (1/0), remaining quota, milliseconds until the window resets }
 
 local key = KEYS[1]
 local limit = tonumber(ARGV[1])
 local window = tonumber(ARGV[2])
+local cost = tonumber(ARGV[3]) or 1
 
-local current = redis.call('INCR', key)
+local current = redis.call('INCRBY', key, cost)
 
-if current == 1 then
+if current == cost then
     redis.call('PEXPIRE', key, window)
 end
 
 local ttl = redis.call('PTTL', key)
+if ttl < 0 then
+    ttl = window
+end
+
+local remaining = math.max(limit - current, 0)
 
 if current > limit then
-    return 0 -- 0 indicates blocked
+    return { 0, remaining, ttl } -- Blocked
 else
-    return 1 -- 1 indicates allowed
+    return { 1, remaining, ttl } -- Allowed
 end
@@ -0,0 +1,31 @@
+-- gcra.lua
+-- Generic cell rate algorithm: stores only the theoretical arrival time (TAT) per key.
+-- KEYS[1]: rate limit key
+-- ARGV[1]: emission interval in milliseconds (period / limit)
+-- ARGV[2]: burst capacity (requests that may arrive at once)
+-- ARGV[3]: cost of this request
+-- ARGV[4]: current timestamp in milliseconds
+-- Returns: { allowed (1/0), remaining burst, milliseconds until retry (blocked) or until fully replenished (allowed) }
+
+local key = KEYS[1]
+local interval = tonumber(ARGV[1])
+local burst = tonumber(ARGV[2])
+local cost = tonumber(ARGV[3])
+local now = tonumber(ARGV[4])
+
+local tat = tonumber(redis.call('GET', key))
+if tat == nil or tat < now then
+    tat = now
+end
+
+local new_tat = tat + interval * cost
+local allow_at = new_tat - interval * burst
+
+if allow_at > now then
+    local remaining = math.max(math.floor((now + interval * burst - tat) / interval), 0)
+    return { 0, remaining, math.ceil(allow_at - now) } -- Blocked
+end
+
+redis.call('SET', key, string.format('%.3f', new_tat), 'PX', math.ceil(new_tat - now))
+local remaining = math.floor((now + interval * burst - new_tat) / interval)
+return { 1, remaining, math.ceil(new_tat - now) } -- Allowed
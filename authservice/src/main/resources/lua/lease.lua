@@ -0,0 +1,31 @@
+-- lease.lua
+-- Leases a slice of a fixed-window quota to one node. Shares the counter with fixed_window.lua.
+-- KEYS[1]: fixed-window bucket key
+-- ARGV[1]: limit
+-- ARGV[2]: window size in milliseconds
+-- ARGV[3]: requested slice
+-- Returns: { granted, quota remaining after the grant, milliseconds until the window resets }
+
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local slice = tonumber(ARGV[3])
+
+local used = tonumber(redis.call('GET', key) or '0')
+local available = limit - used
+local granted = 0
+
+if available > 0 then
+    granted = math.min(slice, available)
+    used = redis.call('INCRBY', key, granted)
+    if used == granted then
+        redis.call('PEXPIRE', key, window)
+    end
+end
+
+local ttl = redis.call('PTTL', key)
+if ttl < 0 then
+    ttl = window
+end
+
+return { granted, math.max(limit - used, 0), ttl }
@@ -3,11 +3,14 @@
 -- ARGV[1]: limit
 -- ARGV[2]: window size in milliseconds
 -- ARGV[3]: current timestamp in milliseconds
+-- ARGV[4]: cost of this request (number of entries it occupies in the window)
+-- Returns: { allowed (1/0), remaining quota, milliseconds until enough entries expire for another request }
 
 local key = KEYS[1]
 local limit = tonumber(ARGV[1])
 local window = tonumber(ARGV[2])
 local now = tonumber(ARGV[3])
+local cost = tonumber(ARGV[4]) or 1
 local window_start = now - window
 
 -- Remove timestamps older than the window start
@@ -27,10 +30,21 @@ while len > 0 do
     end
 end
 
-if len < limit then
-    redis.call('RPUSH', key, now)
+if len + cost <= limit then
+    for _ = 1, cost do
+        redis.call('RPUSH', key, now)
+    end
     redis.call('PEXPIRE', key, window) -- Refresh TTL
-    return 1 -- Allowed
-else
-    return 0 -- Blocked
+    len = len + cost
+    local oldest = tonumber(redis.call('LINDEX', key, 0))
+    return { 1, limit - len, math.max(oldest + window - now, 0) } -- Allowed
+end
+
+-- Blocked: wait until the entry that frees enough room for this cost leaves the window
+local index = math.min(len + cost - limit, len) - 1
+local reset = window
+if index >= 0 then
+    local timestamp = tonumber(redis.call('LINDEX', key, index))
+    reset = math.max(timestamp + window - now, 0)
 end
+return { 0, math.max(limit - len, 0), reset }
@@ -0,0 +1,61 @@
+package com.aman.authservice.config;
+
+import com.aman.authservice.eventProducer.EventTopicRouter;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaTopicConfigTest {
+
+    private final TopicProvisioningProperties properties = new TopicProvisioningProperties();
+    private final KafkaTopicConfig config = new KafkaTopicConfig();
+
+    @Test
+    void declaresTheDefaultTopicAndEveryRouteTarget() {
+        properties.setPartitions(12);
+        properties.setReplicationFactor((short) 3);
+        properties.setRetention(Duration.ofDays(3));
+        TopicRoutingProperties routing = new TopicRoutingProperties();
+        routing.setRoutes(Map.of("UserInfoEvent", "user.lifecycle", "UserLoggedInEvent", "user.activity"));
+
+        Collection<NewTopic> topics = newTopics(
+                config.userEventTopics(properties, new EventTopicRouter(routing, "user_service")));
+
+        assertThat(topics).extracting(NewTopic::name)
+                .containsExactly("user.activity", "user.lifecycle", "user_service");
+        assertThat(topics).allSatisfy(topic -> {
+            assertThat(topic.numPartitions()).isEqualTo(12);
+            assertThat(topic.replicationFactor()).isEqualTo((short) 3);
+            assertThat(topic.configs()).containsEntry(TopicConfig.RETENTION_MS_CONFIG,
+                    Long.toString(Duration.ofDays(3).toMillis()));
+        });
+    }
+
+    @Test
+    void adminUsesTheProducerBootstrapServersAndTheAdminTimeout() {
+        ReflectionTestUtils.setField(config, "bootstrapServers", "kafka-1:9092");
+        properties.setAdminTimeout(Duration.ofSeconds(4));
+
+        KafkaAdmin admin = config.kafkaAdmin(properties);
+
+        assertThat(admin.getConfigurationProperties())
+                .containsEntry(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka-1:9092")
+                .containsEntry(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, 4_000);
+    }
+
+    /**
+     * {@link KafkaAdmin.NewTopics} only exposes its topics to {@link KafkaAdmin}.
+     */
+    private static Collection<NewTopic> newTopics(KafkaAdmin.NewTopics topics) {
+        return ReflectionTestUtils.invokeMethod(topics, "getNewTopics");
+    }
+}
@@ -0,0 +1,234 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.EventDispatchProperties;
+import com.aman.authservice.config.TopicRoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the sender thread against a mocked producer. Each key has a scripted outcome per send attempt; the first send
+ * is held until the test has queued the events that should end up behind it, so the spill contents are known.
+ */
+class AsyncEventDispatcherTest {
+
+    private static final String EVENT_TYPE = "UserLoggedInEvent";
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final EventDispatchProperties properties = new EventDispatchProperties();
+    /**
+     * Failure per key and attempt number (from 1), {@code null} for an acknowledged send; unlisted keys succeed.
+     */
+    private final Map<String, IntFunction<Throwable>> outcomes = new HashMap<>();
+    private final List<String> attempts = new CopyOnWriteArrayList<>();
+    private final List<String> acknowledged = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSend = new CountDownLatch(1);
+    private AsyncEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setLinger(Duration.ofMillis(10));
+        properties.setRetryBackoff(Duration.ofMillis(50));
+        properties.setSendTimeout(Duration.ofSeconds(1));
+        properties.setMaxAttempts(2);
+        properties.getSpill().setDirectory(directory.toString());
+        properties.getSpill().setSegmentBytes(64 * 1024);
+
+        when(kafkaTemplate.send(anyRecord())).thenAnswer(invocation -> {
+            ProducerRecord<String, Object> record = invocation.getArgument(0);
+            attempts.add(record.key());
+            int attempt = Collections.frequency(attempts, record.key());
+            Throwable failure = outcomes.getOrDefault(record.key(), any -> null).apply(attempt);
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            acknowledged.add(record.key());
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @AfterEach
+    void stopDispatcher() throws InterruptedException {
+        firstSend.countDown();
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void eventsAfterAFailedSendQueueBehindTheSpillAndReplayInDispatchOrder() {
+        spillInOrder("a", "b", "c");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> count("event_dispatch_replayed_total") == 3);
+
+        assertThat(acknowledged).containsExactly("a", "b", "c");
+        assertThat(attempts).containsExactly("a", "a", "b", "c");
+        assertThat(count("event_dispatch_sent_total")).isZero();
+        assertThat(meterRegistry.get("event_dispatch_spilled_total").tag("reason", "unavailable").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void replayCommitsOnlyTheAcknowledgedPrefix() {
+        // b fails once more on replay; c is acknowledged behind it but stays spilled until b goes through
+        outcomes.put("b", attempt -> attempt == 1 ? retriable() : null);
+
+        spillInOrder("a", "b", "c");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> count("event_dispatch_replayed_total") == 3);
+        assertThat(acknowledged).containsExactly("a", "c", "b", "c");
+    }
+
+    @Test
+    void headFailingNonRetriablyIsParkedAfterMaxAttemptsAndReleasesTheEventsBehindIt() throws Exception {
+        outcomes.put("poison", attempt -> new RecordTooLargeException("too large"));
+
+        spillInOrder("poison", "next");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> count("event_dispatch_parked_total") == 1);
+        assertThat(count("event_dispatch_replayed_total")).isEqualTo(1);
+        assertThat(count("event_dispatch_dropped_total")).isZero();
+        // The initial send plus max-attempts replays
+        assertThat(Collections.frequency(attempts, "poison")).isEqualTo(1 + properties.getMaxAttempts());
+
+        dispatcher.shutdown();
+        dispatcher = null;
+        int segmentBytes = properties.getSpill().getSegmentBytes();
+        EventSpillLog spill = new EventSpillLog(directory, segmentBytes, 16);
+        EventSpillLog parked = new EventSpillLog(directory.resolve("parked"), segmentBytes, 1);
+        assertThat(spill.isEmpty()).isTrue();
+        assertThat(parked.peek(10)).extracting(EventSpillLog.Entry::key).containsExactly("poison");
+        spill.close();
+        parked.close();
+    }
+
+    @Test
+    void headFailingRetriablyIsNeverParked() {
+        outcomes.put("a", attempt -> retriable());
+
+        spillInOrder("a", "b");
+
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> Collections.frequency(attempts, "a") > 2 * properties.getMaxAttempts());
+        assertThat(count("event_dispatch_parked_total")).isZero();
+        assertThat(count("event_dispatch_replayed_total")).isZero();
+    }
+
+    @Test
+    void entriesStillUnsentWhenTheSendTimeoutPassesAreSpilledWithoutBeingSent() {
+        properties.setSendTimeout(Duration.ofMillis(100));
+        // On the first replay a blocks in send() past the timeout, as on a metadata fetch against a down broker
+        outcomes.put("a", attempt -> attempt == 2 ? slowly(retriable()) : null);
+
+        spillInOrder("a", "b", "c");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> count("event_dispatch_replayed_total") == 3);
+        assertThat(attempts).containsExactly("a", "a", "a", "b", "c");
+    }
+
+    @Test
+    void eventsAreCountedAsDroppedWhenTheyCannotBeSpilled() {
+        properties.setBufferCapacity(1);
+        properties.getSpill().setDirectory("");
+        outcomes.put("a", attempt -> held(retriable()));
+        start();
+
+        dispatcher.dispatch("a", EVENT_TYPE, payload("a"));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> attempts.size() == 1);
+        dispatcher.dispatch("b", EVENT_TYPE, payload("b"));
+        // Buffer full and no spill
+        dispatcher.dispatch("c", EVENT_TYPE, payload("c"));
+        firstSend.countDown();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> count("event_dispatch_sent_total") == 1);
+        assertThat(count("event_dispatch_dropped_total")).isEqualTo(2);
+        assertThat(acknowledged).containsExactly("b");
+    }
+
+    /**
+     * Leaves {@code keys} in the spill in the given order: the first is sent and fails while the others wait in the
+     * buffer, so they are queued behind it. Its first attempt fails retriably; later attempts follow its outcome.
+     */
+    private void spillInOrder(String... keys) {
+        IntFunction<Throwable> later = outcomes.getOrDefault(keys[0], attempt -> null);
+        outcomes.put(keys[0], attempt -> attempt == 1 ? held(retriable()) : later.apply(attempt));
+        start();
+
+        dispatcher.dispatch(keys[0], EVENT_TYPE, payload(keys[0]));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> attempts.size() == 1);
+        for (int i = 1; i < keys.length; i++) {
+            dispatcher.dispatch(keys[i], EVENT_TYPE, payload(keys[i]));
+        }
+        firstSend.countDown();
+    }
+
+    private void start() {
+        dispatcher = new AsyncEventDispatcher(kafkaTemplate, properties,
+                new EventTopicRouter(new TopicRoutingProperties(), "user_service"),
+                new EventPublishMetrics(meterRegistry), meterRegistry);
+    }
+
+    private double count(String counter) {
+        return meterRegistry.get(counter).counter().count();
+    }
+
+    private Throwable held(Throwable failure) {
+        try {
+            firstSend.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+
+    private static Throwable slowly(Throwable failure) {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+
+    private static Throwable retriable() {
+        return new NotLeaderOrFollowerException("leader moved");
+    }
+
+    private static byte[] payload(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ProducerRecord<String, Object> anyRecord() {
+        return any();
+    }
+}
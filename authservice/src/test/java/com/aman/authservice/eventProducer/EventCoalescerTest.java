@@ -0,0 +1,93 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.EventDispatchProperties;
+import com.aman.authservice.events.TokenRefreshedEvent;
+import com.aman.authservice.events.UserActivitySummaryEvent;
+import com.aman.authservice.events.UserPasswordChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCoalescerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @Test
+    void foldsRepeatedEventsIntoOneSummaryPerWindow() {
+        EventCoalescer coalescer = coalescer(2);
+        for (int i = 0; i < 500; i++) {
+            assertThat(coalescer.absorb(new TokenRefreshedEvent("u-1"), "u-1", "203.0.113." + (i % 4))).isTrue();
+        }
+        assertThat(coalescer.absorb(new TokenRefreshedEvent("u-2"), "u-2", "198.51.100.1")).isTrue();
+        assertThat(coalescer.drainDue()).isEmpty();
+
+        clock.advance(Duration.ofSeconds(10));
+        List<EventCoalescer.Emission> emissions = coalescer.drainDue();
+
+        assertThat(emissions).hasSize(2);
+        UserActivitySummaryEvent summary = emissions.stream()
+                .map(EventCoalescer.Emission::event)
+                .filter(UserActivitySummaryEvent.class::isInstance)
+                .map(UserActivitySummaryEvent.class::cast)
+                .findFirst().orElseThrow();
+        assertThat(summary.getUserId()).isEqualTo("u-1");
+        assertThat(summary.getSummarizedEventType()).isEqualTo("TOKEN_REFRESHED");
+        assertThat(summary.getCount()).isEqualTo(500);
+        assertThat(summary.getDistinctIps()).containsExactly("203.0.113.0", "203.0.113.1");
+        assertThat(summary.isDistinctIpsTruncated()).isTrue();
+        assertThat(emissions).extracting(EventCoalescer.Emission::event)
+                .anySatisfy(event -> assertThat(event).isInstanceOf(TokenRefreshedEvent.class));
+        assertThat(coalescer.drainAll()).isEmpty();
+    }
+
+    @Test
+    void passesThroughUnconfiguredTypesAndWhenDisabled() {
+        EventCoalescer coalescer = coalescer(16);
+        assertThat(coalescer.absorb(new UserPasswordChangedEvent("u-1"), "u-1", null)).isFalse();
+
+        EventDispatchProperties disabled = new EventDispatchProperties();
+        assertThat(new EventCoalescer(disabled, clock, new SimpleMeterRegistry())
+                .absorb(new TokenRefreshedEvent("u-1"), "u-1", null)).isFalse();
+    }
+
+    private EventCoalescer coalescer(int maxDistinctIps) {
+        EventDispatchProperties properties = new EventDispatchProperties();
+        properties.getCoalescing().setEnabled(true);
+        properties.getCoalescing().setMaxDistinctIps(maxDistinctIps);
+        return new EventCoalescer(properties, clock, new SimpleMeterRegistry());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
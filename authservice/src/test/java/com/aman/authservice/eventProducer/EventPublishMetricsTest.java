@@ -0,0 +1,68 @@
+package com.aman.authservice.eventProducer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPublishMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EventPublishMetrics metrics = new EventPublishMetrics(registry);
+
+    @Test
+    void tagsEachCompletedSendWithItsOutcome() {
+        metrics.track(EventPublishMetrics.PATH_DIRECT, "UserLoggedInEvent", CompletableFuture.completedFuture("ok"));
+        metrics.track(EventPublishMetrics.PATH_DIRECT, "UserLoggedInEvent",
+                CompletableFuture.failedFuture(new KafkaException("send failed", new TimeoutException("expired"))));
+        metrics.track(EventPublishMetrics.PATH_OUTBOX, "UserInfoEvent",
+                CompletableFuture.failedFuture(new IllegalStateException("closed")));
+
+        assertThat(count("direct", "UserLoggedInEvent", "acknowledged")).isEqualTo(1);
+        assertThat(count("direct", "UserLoggedInEvent", "timeout")).isEqualTo(1);
+        assertThat(count("outbox", "UserInfoEvent", "failed")).isEqualTo(1);
+    }
+
+    @Test
+    void recordsOnlyWhenTheSendCompletes() {
+        CompletableFuture<String> send = new CompletableFuture<>();
+        metrics.track(EventPublishMetrics.PATH_DISPATCH, "TokenRefreshedEvent", send);
+        assertThat(registry.find("kafka_event_publish_seconds").timer()).isNull();
+
+        send.complete("ok");
+        assertThat(count("dispatch", "TokenRefreshedEvent", "acknowledged")).isEqualTo(1);
+    }
+
+    @Test
+    void countsCallersThatStoppedWaiting() {
+        metrics.awaitTimedOut(EventPublishMetrics.PATH_DIRECT, "UserLoggedInEvent");
+        metrics.awaitTimedOut(EventPublishMetrics.PATH_DIRECT, "UserLoggedInEvent");
+
+        assertThat(registry.get("kafka_event_publish_await_timeout_total")
+                .tag("event_type", "UserLoggedInEvent").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void reusesOneMeterPerTagSet() {
+        metrics.track(EventPublishMetrics.PATH_DIRECT, "UserLoggedInEvent", CompletableFuture.completedFuture("ok"));
+        Timer first = registry.get("kafka_event_publish_seconds").timer();
+        metrics.track(EventPublishMetrics.PATH_DIRECT, "UserLoggedInEvent", CompletableFuture.completedFuture("ok"));
+        metrics.awaitTimedOut(EventPublishMetrics.PATH_OUTBOX, "UserInfoEvent");
+        metrics.awaitTimedOut(EventPublishMetrics.PATH_OUTBOX, "UserInfoEvent");
+
+        assertThat(registry.get("kafka_event_publish_seconds").timers()).containsExactly(first);
+        assertThat(first.count()).isEqualTo(2);
+        assertThat(registry.get("kafka_event_publish_await_timeout_total").counters()).hasSize(1);
+    }
+
+    private long count(String path, String eventType, String outcome) {
+        return registry.get("kafka_event_publish_seconds")
+                .tag("path", path).tag("event_type", eventType).tag("outcome", outcome)
+                .timer().count();
+    }
+}
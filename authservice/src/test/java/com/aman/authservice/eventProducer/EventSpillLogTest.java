@@ -0,0 +1,66 @@
+package com.aman.authservice.eventProducer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSpillLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysInAppendOrderAcrossSegmentsAndRestarts() throws Exception {
+        EventSpillLog spill = new EventSpillLog(directory, 256, 8);
+        for (int i = 0; i < 20; i++) {
+            assertThat(spill.append(entry(i))).isTrue();
+        }
+        assertThat(spill.segmentCount()).isGreaterThan(1);
+
+        List<EventSpillLog.Entry> first = spill.peek(3);
+        assertThat(first).extracting(EventSpillLog.Entry::key).containsExactly("user-0", "user-1", "user-2");
+        spill.commit(3);
+        spill.close();
+
+        EventSpillLog reopened = new EventSpillLog(directory, 256, 8);
+        StringBuilder keys = new StringBuilder();
+        while (!reopened.isEmpty()) {
+            List<EventSpillLog.Entry> batch = reopened.peek(4);
+            batch.forEach(entry -> keys.append(entry.key()).append(','));
+            reopened.commit(batch.size());
+        }
+        StringBuilder expected = new StringBuilder();
+        for (int i = 3; i < 20; i++) {
+            expected.append("user-").append(i).append(',');
+        }
+        assertThat(keys.toString()).isEqualTo(expected.toString());
+        assertThat(reopened.peek(1)).isEmpty();
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void refusesAppendsBeyondMaxSegmentsAndKeepsNullKeys() throws Exception {
+        EventSpillLog spill = new EventSpillLog(directory, 128, 2);
+        int accepted = 0;
+        while (spill.append(new EventSpillLog.Entry(null, "UserLoginFailedEvent", new byte[40]))) {
+            accepted++;
+        }
+        assertThat(accepted).isGreaterThan(0);
+        assertThat(spill.segmentCount()).isEqualTo(2);
+        assertThat(spill.peek(1).get(0).key()).isNull();
+        assertThat(spill.peek(1).get(0).payload()).hasSize(40);
+    }
+
+    private static EventSpillLog.Entry entry(int i) {
+        return new EventSpillLog.Entry("user-" + i, "UserLoggedInEvent",
+                ("{\"userId\":\"user-" + i + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.TopicRoutingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventTopicRouterTest {
+
+    private static final String DEFAULT_TOPIC = "user_service";
+
+    private final TopicRoutingProperties properties = new TopicRoutingProperties();
+
+    @Test
+    void routedTypesGoToTheirTopicAndOthersToTheDefault() {
+        properties.setEnabled(true);
+        properties.setRoutes(Map.of(
+                "UserInfoEvent", "user_lifecycle",
+                "UserLoggedInEvent", "user_activity"));
+        EventTopicRouter router = new EventTopicRouter(properties, DEFAULT_TOPIC);
+
+        assertThat(router.topicFor("UserInfoEvent")).isEqualTo("user_lifecycle");
+        assertThat(router.topicFor("UserLoggedInEvent")).isEqualTo("user_activity");
+        assertThat(router.topicFor("UserLoggedOutEvent")).isEqualTo(DEFAULT_TOPIC);
+    }
+
+    @Test
+    void disabledRoutingSendsEverythingToTheDefaultButStillDeclaresTheRoutes() {
+        properties.setRoutes(Map.of("UserInfoEvent", "user_lifecycle"));
+        EventTopicRouter router = new EventTopicRouter(properties, DEFAULT_TOPIC);
+
+        assertThat(router.topicFor("UserInfoEvent")).isEqualTo(DEFAULT_TOPIC);
+        assertThat(router.declaredTopics()).containsExactly("user_lifecycle", DEFAULT_TOPIC);
+    }
+
+    @Test
+    void routesAreCopiedWhenTheRouterIsBuilt() {
+        properties.setEnabled(true);
+        properties.getRoutes().put("UserInfoEvent", "user_lifecycle");
+        EventTopicRouter router = new EventTopicRouter(properties, DEFAULT_TOPIC);
+
+        properties.getRoutes().put("UserInfoEvent", "elsewhere");
+
+        assertThat(router.topicFor("UserInfoEvent")).isEqualTo("user_lifecycle");
+    }
+}
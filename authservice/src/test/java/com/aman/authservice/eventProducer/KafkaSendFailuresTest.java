@@ -0,0 +1,33 @@
+package com.aman.authservice.eventProducer;
+
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TopicAuthorizationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaSendFailuresTest {
+
+    @Test
+    void transientFailuresAreRetriableWhereverTheyAreInTheCauseChain() {
+        assertThat(KafkaSendFailures.isRetriable(new NotLeaderOrFollowerException("leader moved"))).isTrue();
+        assertThat(KafkaSendFailures.isRetriable(new TimeoutException("send timeout"))).isTrue();
+        assertThat(KafkaSendFailures.isRetriable(new InterruptedException())).isTrue();
+        assertThat(KafkaSendFailures.isRetriable(new CompletionException(
+                new KafkaException("Send failed", new NotLeaderOrFollowerException("leader moved"))))).isTrue();
+    }
+
+    @Test
+    void failuresThatRepeatOnEveryAttemptAreNot() {
+        assertThat(KafkaSendFailures.isRetriable(new RecordTooLargeException("too large"))).isFalse();
+        assertThat(KafkaSendFailures.isRetriable(new TopicAuthorizationException(Set.of("user_service")))).isFalse();
+        assertThat(KafkaSendFailures.isRetriable(new KafkaException("serialization failed"))).isFalse();
+        assertThat(KafkaSendFailures.isRetriable(new IllegalStateException("producer closed"))).isFalse();
+    }
+}
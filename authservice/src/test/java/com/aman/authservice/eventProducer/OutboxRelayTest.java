@@ -0,0 +1,171 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.OutboxProperties;
+import com.aman.authservice.entities.OutboxEvent;
+import com.aman.authservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private static final String TOPIC = "user_service";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final OutboxProperties properties = new OutboxProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Long, CompletableFuture<SendResult<String, Object>>> sends = new HashMap<>();
+    private final List<ProducerRecord<String, Object>> sent = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(kafkaTemplate.send(anyRecord())).thenAnswer(invocation -> {
+            ProducerRecord<String, Object> record = invocation.getArgument(0);
+            sent.add(record);
+            long id = Long.parseLong(new String(
+                    record.headers().lastHeader(OutboxRelay.OUTBOX_ID_HEADER).value(), StandardCharsets.UTF_8));
+            return sends.getOrDefault(id, CompletableFuture.completedFuture(null));
+        });
+        relay = new OutboxRelay(repository, kafkaTemplate, transactionManager, properties,
+                Clock.fixed(NOW, ZoneOffset.UTC), new EventPublishMetrics(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void claimsInOneTransactionSendsOutsideItAndDeletesInAnother() {
+        claimable(event(1, "alice"), event(2, "bob"));
+
+        relay.relay();
+
+        InOrder order = inOrder(repository, transactionManager, kafkaTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).findClaimable(eq(NOW), any(Pageable.class));
+        order.verify(repository).claim(List.of(1L, 2L), NOW.plus(properties.getClaimTimeout()));
+        order.verify(transactionManager).commit(any());
+        order.verify(kafkaTemplate, times(2)).send(anyRecord());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).deleteByIds(List.of(1L, 2L));
+        order.verify(transactionManager).commit(any());
+
+        assertThat(sent).extracting(ProducerRecord::key).containsExactly("alice", "bob");
+        assertThat(sent.get(0).topic()).isEqualTo(TOPIC);
+        assertThat(meterRegistry.get("outbox_published_total").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void eventWhoseKeyHasAnEarlierPendingEventIsNotClaimed() {
+        claimable(event(5, "alice"), event(6, "bob"));
+        when(repository.findFirstPendingIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"alice", 3L}, new Object[]{"bob", 6L}));
+
+        relay.relay();
+
+        verify(repository).claim(List.of(6L), NOW.plus(properties.getClaimTimeout()));
+        assertThat(sent).extracting(ProducerRecord::key).containsExactly("bob");
+    }
+
+    @Test
+    void failedSendReleasesItsKeyFromTheFailureOnAndStopsTheRun() {
+        properties.setBatchSize(3);
+        claimable(event(1, "alice"), event(2, "alice"), event(3, "bob"));
+        sends.put(1L, CompletableFuture.failedFuture(new NotLeaderOrFollowerException("leader moved")));
+
+        relay.relay();
+
+        verify(repository).recordFailure(List.of(1L));
+        // Acknowledged, but behind a failed event of the same key: released so the key is retried in order
+        verify(repository).release(List.of(2L));
+        verify(repository).deleteByIds(List.of(3L));
+        verify(repository, never()).park(anyCollection(), any());
+        // A full batch would normally be followed by another; a failure ends the run instead
+        verify(repository, times(1)).findClaimable(any(), any(Pageable.class));
+        assertThat(meterRegistry.get("outbox_publish_failures_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void eventFailingNonRetriablyAtTheLastAttemptIsParked() {
+        OutboxEvent poison = event(1, "alice");
+        poison.setAttempts(properties.getMaxAttempts() - 1);
+        OutboxEvent stillRetrying = event(2, "bob");
+        stillRetrying.setAttempts(properties.getMaxAttempts() - 1);
+        claimable(poison, stillRetrying, event(3, "carol"));
+        sends.put(1L, CompletableFuture.failedFuture(new RecordTooLargeException("too large")));
+        sends.put(2L, CompletableFuture.failedFuture(new NotLeaderOrFollowerException("leader moved")));
+
+        relay.relay();
+
+        verify(repository).park(List.of(1L), NOW);
+        verify(repository).recordFailure(List.of(2L));
+        verify(repository).deleteByIds(List.of(3L));
+        assertThat(meterRegistry.get("outbox_parked_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sendThatThrowsIsTreatedAsAFailedSend() {
+        properties.setMaxAttempts(1);
+        claimable(event(1, "alice"));
+        doThrow(new IllegalStateException("producer closed")).when(kafkaTemplate).send(anyRecord());
+
+        relay.relay();
+
+        verify(repository).park(List.of(1L), NOW);
+        verify(repository, never()).deleteByIds(anyCollection());
+    }
+
+    private void claimable(OutboxEvent... events) {
+        when(repository.findClaimable(any(), any(Pageable.class)))
+                .thenReturn(List.of(events))
+                .thenReturn(List.of());
+    }
+
+    private static ProducerRecord<String, Object> anyRecord() {
+        return any();
+    }
+
+    private static OutboxEvent event(long id, String key) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .messageKey(key)
+                .eventType("UserInfoEvent")
+                .payload(new byte[]{1})
+                .createdAt(NOW.minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.TopicProvisioningProperties;
+import com.aman.authservice.config.TopicRoutingProperties;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.CreatePartitionsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the endpoint against a mocked {@link AdminClient}, which it creates per call.
+ */
+class TopicPartitionsEndpointTest {
+
+    private final AdminClient admin = mock(AdminClient.class);
+    private final Map<String, Integer> partitionCounts = Map.of("user.lifecycle", 3, "user_service", 6);
+    private final TopicProvisioningProperties properties = new TopicProvisioningProperties();
+    private TopicPartitionsEndpoint endpoint;
+    private MockedStatic<AdminClient> adminFactory;
+
+    @BeforeEach
+    void setUp() {
+        adminFactory = mockStatic(AdminClient.class);
+        adminFactory.when(() -> AdminClient.create(anyMap())).thenReturn(admin);
+        when(admin.describeTopics(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            DescribeTopicsResult result = mock(DescribeTopicsResult.class);
+            when(result.allTopicNames()).thenReturn(KafkaFuture.completedFuture(names.stream()
+                    .collect(Collectors.toMap(name -> name, name -> describe(name, partitionCounts.get(name))))));
+            return result;
+        });
+
+        TopicRoutingProperties routing = new TopicRoutingProperties();
+        routing.setRoutes(Map.of("UserInfoEvent", "user.lifecycle"));
+        endpoint = new TopicPartitionsEndpoint(new KafkaAdmin(Map.of()), new EventTopicRouter(routing, "user_service"),
+                properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminFactory.close();
+    }
+
+    @Test
+    void listsThePartitionCountOfEveryDeclaredTopic() throws Exception {
+        assertThat(endpoint.partitions()).containsExactly(Map.entry("user.lifecycle", 3), Map.entry("user_service", 6));
+        verify(admin).close();
+    }
+
+    @Test
+    void expansionIsADryRunUnlessExplicitlyApplied() throws Exception {
+        TopicPartitionsEndpoint.Expansion dryRun = endpoint.expand("user.lifecycle", 6, null);
+
+        assertThat(dryRun).isEqualTo(new TopicPartitionsEndpoint.Expansion("user.lifecycle", 3, 6, false,
+                "Dry run; repeat with dryRun=false to add 3 partitions"));
+        verify(admin, never()).createPartitions(anyMap());
+    }
+
+    @Test
+    void appliedExpansionIncreasesThePartitionCount() throws Exception {
+        CreatePartitionsResult created = mock(CreatePartitionsResult.class);
+        when(created.all()).thenReturn(KafkaFuture.completedFuture(null));
+        when(admin.createPartitions(anyMap())).thenReturn(created);
+
+        TopicPartitionsEndpoint.Expansion expansion = endpoint.expand("user.lifecycle", 6, false);
+
+        assertThat(expansion.applied()).isTrue();
+        ArgumentCaptor<Map<String, NewPartitions>> request = newPartitionsCaptor();
+        verify(admin).createPartitions(request.capture());
+        assertThat(request.getValue()).containsOnlyKeys("user.lifecycle");
+        assertThat(request.getValue().get("user.lifecycle").totalCount()).isEqualTo(6);
+    }
+
+    @Test
+    void partitionsAreNeverRemoved() throws Exception {
+        TopicPartitionsEndpoint.Expansion expansion = endpoint.expand("user_service", 4, false);
+
+        assertThat(expansion.applied()).isFalse();
+        assertThat(expansion.message()).contains("already has 6 partitions");
+        verify(admin, never()).createPartitions(anyMap());
+    }
+
+    @Test
+    void rejectsUndeclaredTopicsAndCountsAboveTheCap() {
+        assertThatThrownBy(() -> endpoint.expand("__consumer_offsets", 8, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> endpoint.expand("user_service", properties.getMaxPartitions() + 1, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        adminFactory.verifyNoInteractions();
+    }
+
+    private static TopicDescription describe(String name, int partitions) {
+        return new TopicDescription(name, false, IntStream.range(0, partitions)
+                .mapToObj(partition -> new TopicPartitionInfo(partition, null, List.of(), List.of()))
+                .toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Map<String, NewPartitions>> newPartitionsCaptor() {
+        return ArgumentCaptor.forClass((Class<Map<String, NewPartitions>>) (Class<?>) Map.class);
+    }
+}
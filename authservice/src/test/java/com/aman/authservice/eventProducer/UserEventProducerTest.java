@@ -0,0 +1,124 @@
+package com.aman.authservice.eventProducer;
+
+import com.aman.authservice.config.DeliveryProperties;
+import com.aman.authservice.config.EventDispatchProperties;
+import com.aman.authservice.config.TopicRoutingProperties;
+import com.aman.authservice.events.TokenRefreshedEvent;
+import com.aman.authservice.events.UserLoggedInEvent;
+import com.aman.authservice.events.UserPasswordChangedEvent;
+import com.aman.authservice.repository.OutboxEventRepository;
+import com.aman.authservice.serializer.UserEventSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dispatches through the real dispatcher and telemetry sender, with the two producers mocked, to check that each
+ * delivery class reaches its own producer and the routed topic.
+ */
+class UserEventProducerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> durableTemplate = mock(KafkaTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> telemetryTemplate = mock(KafkaTemplate.class);
+    private final EventPublishMetrics publishMetrics = new EventPublishMetrics(meterRegistry);
+    private final EventTopicRouter topicRouter = router();
+    private final AsyncEventDispatcher dispatcher = dispatcher();
+    private final UserEventProducer producer = new UserEventProducer(
+            durableTemplate,
+            mock(OutboxEventRepository.class),
+            dispatcher,
+            new TelemetryEventSender(telemetryTemplate, publishMetrics, topicRouter),
+            new DeliveryProperties(),
+            new EventCoalescer(new EventDispatchProperties(), Clock.systemUTC(), meterRegistry),
+            publishMetrics,
+            Clock.systemUTC(),
+            new UserEventSerializer(),
+            topicRouter);
+
+    @AfterEach
+    void stopDispatcher() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void durableEventsGoThroughTheDispatcherToTheDurableProducer() {
+        when(durableTemplate.send(anyRecord())).thenReturn(CompletableFuture.completedFuture(null));
+
+        producer.dispatch(new UserLoggedInEvent("u-1", "10.0.0.1", "curl"), "u-1");
+        producer.dispatch(new UserPasswordChangedEvent("u-1"), "u-1");
+
+        ArgumentCaptor<ProducerRecord<String, Object>> records = recordCaptor();
+        verify(durableTemplate, timeout(5_000).times(2)).send(records.capture());
+        assertThat(records.getAllValues())
+                .extracting(ProducerRecord::topic, ProducerRecord::key, UserEventProducerTest::eventType)
+                .containsExactly(
+                        tuple("user_auth", "u-1", "UserLoggedInEvent"),
+                        tuple("user_lifecycle", "u-1", "UserPasswordChangedEvent"));
+        verify(telemetryTemplate, never()).send(anyString(), any(), any());
+    }
+
+    @Test
+    void telemetryEventsGoToTheTelemetryProducerAndItsRoute() {
+        CompletableFuture<SendResult<String, Object>> buffered = new CompletableFuture<>();
+        when(telemetryTemplate.send(anyString(), any(), any())).thenReturn(buffered);
+        TokenRefreshedEvent event = new TokenRefreshedEvent("u-1");
+
+        producer.dispatch(event, "u-1");
+
+        verify(telemetryTemplate, times(1)).send("user_activity", "u-1", event);
+        verify(durableTemplate, never()).send(anyRecord());
+    }
+
+    private static String eventType(ProducerRecord<String, Object> record) {
+        return new String(record.headers().lastHeader(UserEventSerializer.EVENT_TYPE_HEADER).value(),
+                StandardCharsets.UTF_8);
+    }
+
+    private static ProducerRecord<String, Object> anyRecord() {
+        return any();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<ProducerRecord<String, Object>> recordCaptor() {
+        return ArgumentCaptor.forClass((Class<ProducerRecord<String, Object>>) (Class<?>) ProducerRecord.class);
+    }
+
+    private static EventTopicRouter router() {
+        TopicRoutingProperties properties = new TopicRoutingProperties();
+        properties.setEnabled(true);
+        properties.setRoutes(Map.of(
+                "UserLoggedInEvent", "user_auth",
+                "UserPasswordChangedEvent", "user_lifecycle",
+                "TokenRefreshedEvent", "user_activity"));
+        return new EventTopicRouter(properties, "user_service");
+    }
+
+    private AsyncEventDispatcher dispatcher() {
+        EventDispatchProperties properties = new EventDispatchProperties();
+        properties.getSpill().setDirectory("");
+        return new AsyncEventDispatcher(durableTemplate, properties, topicRouter, publishMetrics, meterRegistry);
+    }
+}
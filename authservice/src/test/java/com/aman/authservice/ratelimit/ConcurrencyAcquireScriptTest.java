@@ -0,0 +1,81 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code lua/concurrency_acquire.lua} against a real Redis: permits are sorted-set members scored by their
+ * expiry, released with {@code ZREM} and pruned once their lease has passed. Skipped when no Docker daemon is
+ * available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ConcurrencyAcquireScriptTest {
+
+    private static final long LEASE_MILLIS = 30_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2.4-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+    private static RedisScript<List<Long>> script;
+
+    private final long now = System.currentTimeMillis();
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+        script = new RateLimitingConfiguration().concurrencyAcquireScript();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void permitsAreCappedAndFreedByRelease() {
+        String key = "rl:{cl-test:release}:cl";
+
+        assertThat(run(key, "node-a:1", now, 2)).containsExactly(1L, 1L);
+        assertThat(run(key, "node-b:1", now, 2)).containsExactly(1L, 2L);
+        assertThat(run(key, "node-a:2", now, 2)).containsExactly(0L, 2L);
+        assertThat(template.opsForZSet().score(key, "node-a:1")).isEqualTo((double) (now + LEASE_MILLIS));
+
+        template.opsForZSet().remove(key, "node-a:1");
+        assertThat(run(key, "node-a:2", now, 2)).containsExactly(1L, 2L);
+        assertThat(template.getExpire(key)).isPositive();
+    }
+
+    @Test
+    void permitsPastTheirLeaseArePruned() {
+        String key = "rl:{cl-test:expiry}:cl";
+        run(key, "crashed-node:1", now, 1);
+
+        assertThat(run(key, "node-a:1", now + LEASE_MILLIS - 1, 1)).containsExactly(0L, 1L);
+        assertThat(run(key, "node-a:1", now + LEASE_MILLIS, 1)).containsExactly(1L, 1L);
+        assertThat(template.opsForZSet().score(key, "crashed-node:1")).isNull();
+    }
+
+    private List<Long> run(String key, String permit, long nowMillis, int max) {
+        return template.execute(script, List.of(key), permit, String.valueOf(nowMillis),
+                String.valueOf(LEASE_MILLIS), String.valueOf(max));
+    }
+}
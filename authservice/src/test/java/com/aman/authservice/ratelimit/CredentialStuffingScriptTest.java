@@ -0,0 +1,94 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingConfiguration;
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code lua/credential_stuffing.lua} against a real Redis: distinct members are counted with HyperLogLog over
+ * the current and previous window bucket, and the subject is blocked once the count exceeds the threshold. Skipped
+ * when no Docker daemon is available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CredentialStuffingScriptTest {
+
+    private static final int USERNAMES_PER_IP = 20;
+    private static final long WINDOW_MILLIS = 600_000;
+    private static final long BLOCK_MILLIS = 900_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2.4-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+    private static RedisScript<List<Long>> script;
+
+    private final RedisKeyLayout keyLayout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+        script = new RateLimitingConfiguration().credentialStuffingScript();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void ipIsBlockedOnceItFailsAgainstMoreDistinctUsernamesThanTheThreshold() {
+        List<String> keys = keyLayout.credentialStuffingKeys("ip", "10.0.0.1", 1_000);
+
+        for (int i = 1; i <= USERNAMES_PER_IP; i++) {
+            assertThat(run(keys, "user" + i + "@example.com")).containsExactly(1L, 0L, (long) i, 0L);
+        }
+        // Repeating a username does not grow the distinct count
+        assertThat(run(keys, "user1@example.com")).containsExactly(1L, 0L, (long) USERNAMES_PER_IP, 0L);
+
+        assertThat(run(keys, "user21@example.com")).containsExactly(0L, BLOCK_MILLIS, 21L, 1L);
+
+        List<Long> alreadyBlocked = run(keys, "user22@example.com");
+        assertThat(alreadyBlocked.get(0)).isZero();
+        assertThat(alreadyBlocked.get(1)).isPositive().isLessThanOrEqualTo(BLOCK_MILLIS);
+        assertThat(alreadyBlocked.get(3)).isZero();
+        assertThat(template.getExpire(keyLayout.credentialStuffingBlockKey("ip", "10.0.0.1"))).isPositive();
+    }
+
+    @Test
+    void previousBucketCountsTowardsTheThreshold() {
+        List<String> previous = keyLayout.credentialStuffingKeys("ip", "10.0.0.2", 2_000);
+        List<String> current = keyLayout.credentialStuffingKeys("ip", "10.0.0.2", 2_001);
+        for (int i = 1; i <= 15; i++) {
+            run(previous, "user" + i + "@example.com");
+        }
+
+        for (int i = 16; i <= USERNAMES_PER_IP; i++) {
+            assertThat(run(current, "user" + i + "@example.com").get(0)).isEqualTo(1L);
+        }
+        assertThat(run(current, "user21@example.com").get(3)).isEqualTo(1L);
+    }
+
+    private List<Long> run(List<String> keys, String member) {
+        return template.execute(script, keys, member, String.valueOf(USERNAMES_PER_IP),
+                String.valueOf(WINDOW_MILLIS), String.valueOf(BLOCK_MILLIS));
+    }
+}
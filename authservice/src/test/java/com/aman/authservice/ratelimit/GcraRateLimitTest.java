@@ -0,0 +1,172 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.controller.AuthController;
+import com.aman.authservice.controller.TokenController;
+import com.aman.authservice.dto.UserInfoDTO;
+import com.aman.authservice.ratelimit.annotation.RateLimiter;
+import com.aman.authservice.ratelimit.metrics.HeavyHitterTracker;
+import com.aman.authservice.ratelimit.metrics.RateLimiterMetrics;
+import com.aman.authservice.ratelimit.model.RateLimitAlgorithm;
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
+import com.aman.authservice.ratelimit.model.RateLimitHeaders;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.aman.authservice.ratelimit.registry.RateLimiterDefinitionRegistry;
+import com.aman.authservice.ratelimit.resolver.FixedWindowBucketResolver;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.aman.authservice.ratelimit.resolver.SlidingWindowResolver;
+import com.aman.authservice.ratelimit.service.BruteForceProtectionService;
+import com.aman.authservice.ratelimit.service.CredentialStuffingDetector;
+import com.aman.authservice.ratelimit.service.QuotaLeaseManager;
+import com.aman.authservice.ratelimit.service.RedisRateLimiterService;
+import com.aman.authservice.request.RefreshTokenRequestDTO;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how GCRA limiters are built from {@link RateLimiter} and evaluated next to the windows. The script itself
+ * is covered by {@link GcraScriptTest}.
+ */
+class GcraRateLimitTest {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private final RateLimitingProperties properties = new RateLimitingProperties();
+    private final RateLimiterDefinitionRegistry registry =
+            new RateLimiterDefinitionRegistry(properties, new DefaultListableBeanFactory());
+
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+    private final RedisScript<List<Long>> fixedWindowScript = script("return 'fixed_window'");
+    private final RedisScript<List<Long>> slidingWindowScript = script("return 'sliding_window'");
+    private final RedisScript<List<Long>> gcraScript = script("return 'gcra'");
+    private final RateLimitKeyResolver keyResolver =
+            new RateLimitKeyResolver(null, new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED));
+    private final RedisRateLimiterService service = new RedisRateLimiterService(redis,
+            fixedWindowScript, slidingWindowScript, gcraScript,
+            new FixedWindowBucketResolver(CLOCK), new SlidingWindowResolver(CLOCK), keyResolver,
+            mock(BruteForceProtectionService.class), mock(CredentialStuffingDetector.class),
+            new HeavyHitterTracker(properties, new SimpleMeterRegistry()), mock(QuotaLeaseManager.class),
+            new RateLimiterMetrics(new SimpleMeterRegistry(), properties), CircuitBreaker.ofDefaults("test"),
+            properties, new SimpleMeterRegistry());
+
+    @Test
+    void signupAndRefreshKeepTheirWindowsAndShareOneGcraBudget() throws Exception {
+        RateLimiterDefinition signup = definition(AuthController.class.getMethod("signup", UserInfoDTO.class));
+        RateLimiterDefinition refresh = definition(TokenController.class.getMethod("refreshToken",
+                RefreshTokenRequestDTO.class, HttpServletRequest.class));
+
+        assertThat(signup.isFixedWindowEnabled()).isTrue();
+        assertThat(signup.getFixedWindowKeyStrategy()).isEqualTo(RateLimitKeyStrategy.IP);
+        assertThat(signup.isSlidingWindowEnabled()).isTrue();
+        assertThat(signup.getSlidingWindowKeyStrategy()).isEqualTo(RateLimitKeyStrategy.IP_USERNAME_TENANT);
+        assertThat(refresh.isFixedWindowEnabled()).isTrue();
+        assertThat(refresh.isSlidingWindowEnabled()).isTrue();
+        assertThat(refresh.getSlidingWindowKeyStrategy()).isEqualTo(RateLimitKeyStrategy.IP_USERNAME);
+
+        assertThat(signup.isGcraEnabled()).isTrue();
+        assertThat(refresh.isGcraEnabled()).isTrue();
+        assertThat(signup.getGcraKeyName()).isEqualTo(refresh.getGcraKeyName()).isNotEqualTo(signup.getKeyName());
+        assertThat(signup.getCost()).isEqualTo(5);
+        assertThat(refresh.getCost()).isEqualTo(1);
+
+        RateLimitKeyResolver.RateLimitRequestMetadata client = keyResolver.buildMetadata("10.0.0.1", "t", "alice");
+        assertThat(keyResolver.gcraBaseKey(signup, client).append(":gcra").build())
+                .isEqualTo(keyResolver.gcraBaseKey(refresh, client).append(":gcra").build());
+    }
+
+    @Test
+    void gcraRejectionWinsOverAllowedWindowsAndCarriesRetryAfter() {
+        RateLimiterDefinition definition = windowAndGcra();
+        List<List<String>> gcraArgs = new ArrayList<>();
+        List<List<String>> windowArgs = new ArrayList<>();
+        when(redis.execute(eq(fixedWindowScript), anyList(), anyList())).thenAnswer(invocation -> {
+            windowArgs.add(invocation.getArgument(2));
+            return Flux.just(List.of(1L, 4L, 60_000L));
+        });
+        when(redis.execute(eq(slidingWindowScript), anyList(), anyList())).thenAnswer(invocation -> {
+            windowArgs.add(invocation.getArgument(2));
+            return Flux.just(List.of(1L, 9L, 300_000L));
+        });
+        when(redis.execute(eq(gcraScript), anyList(), anyList())).thenAnswer(invocation -> {
+            gcraArgs.add(invocation.getArgument(2));
+            return Flux.just(List.of(0L, 0L, 2_500L));
+        });
+
+        RateLimitDecision decision = service.evaluate(definition, keyResolver.buildMetadata("10.0.0.1", "t", "alice"));
+
+        assertThat(decision.isAllowed()).isFalse();
+        assertThat(decision.getResetMillis()).isEqualTo(2_500L);
+        assertThat(RateLimitHeaders.toHttpHeaders(decision).getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        // The GCRA script is charged the cost; the windows count the call once
+        assertThat(gcraArgs).singleElement().satisfies(args -> assertThat(args.get(2)).isEqualTo("5"));
+        assertThat(windowArgs).hasSize(2).allSatisfy(args -> assertThat(args.get(args.size() - 1)).isEqualTo("1"));
+    }
+
+    @Test
+    void allowedGcraReportsTheTighterRemainingQuota() {
+        RateLimiterDefinition definition = windowAndGcra();
+        when(redis.execute(eq(fixedWindowScript), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 4L, 60_000L)));
+        when(redis.execute(eq(slidingWindowScript), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 9L, 300_000L)));
+        when(redis.execute(eq(gcraScript), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 2L, 24_000L)));
+
+        RateLimitDecision decision = service.evaluate(definition, keyResolver.buildMetadata("10.0.0.1", "t", "alice"));
+
+        assertThat(decision.isAllowed()).isTrue();
+        assertThat(decision.getRemaining()).isEqualTo(2L);
+        assertThat(decision.getLimit()).isEqualTo(10L);
+        assertThat(RateLimitHeaders.toHttpHeaders(decision).containsKey(HttpHeaders.RETRY_AFTER)).isFalse();
+    }
+
+    private RateLimiterDefinition definition(Method method) {
+        return registry.get(method, method.getAnnotation(RateLimiter.class));
+    }
+
+    private static RateLimiterDefinition windowAndGcra() {
+        return RateLimiterDefinition.builder()
+                .name("register")
+                .keyName("register")
+                .algorithm(RateLimitAlgorithm.WINDOW_AND_GCRA)
+                .cost(5)
+                .fixedWindowKeyStrategy(RateLimitKeyStrategy.IP)
+                .fixedWindowLimit(5)
+                .fixedWindowDuration(Duration.ofMinutes(1))
+                .slidingWindowKeyStrategy(RateLimitKeyStrategy.IP_USERNAME)
+                .slidingWindowLimit(10)
+                .slidingWindowDuration(Duration.ofMinutes(5))
+                .gcraKeyStrategy(RateLimitKeyStrategy.IP)
+                .gcraKeyName("auth-ip-budget")
+                .gcraLimit(20)
+                .gcraPeriod(Duration.ofMinutes(1))
+                .gcraBurst(10)
+                .build();
+    }
+
+    private static RedisScript<List<Long>> script(String source) {
+        return new DefaultRedisScript<>(source);
+    }
+}
@@ -0,0 +1,109 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code lua/gcra.lua}, loaded as the application loads it, against a real Redis. The script takes the current
+ * time as an argument, so each test drives the clock explicitly. Skipped when no Docker daemon is available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class GcraScriptTest {
+
+    /**
+     * 60 requests per minute: one unit every second.
+     */
+    private static final long INTERVAL_MILLIS = 1_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2.4-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+    private static RedisScript<List<Long>> script;
+
+    private final long now = System.currentTimeMillis();
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+        script = new RateLimitingConfiguration().gcraScript();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void allowsTheBurstThenRejectsWithRetryAfterOneInterval() {
+        String key = "rl:{gcra-test:burst}:gcra";
+
+        assertThat(run(key, 3, 1, now)).containsExactly(1L, 2L, 1_000L);
+        assertThat(run(key, 3, 1, now)).containsExactly(1L, 1L, 2_000L);
+        assertThat(run(key, 3, 1, now)).containsExactly(1L, 0L, 3_000L);
+
+        List<Long> rejected = run(key, 3, 1, now);
+        assertThat(rejected.get(0)).isZero();
+        assertThat(rejected.get(1)).isZero();
+        assertThat(rejected.get(2)).isEqualTo(INTERVAL_MILLIS);
+    }
+
+    @Test
+    void rejectionDoesNotConsumeAndTheBudgetReplenishesOverTime() {
+        String key = "rl:{gcra-test:replenish}:gcra";
+        for (int i = 0; i < 3; i++) {
+            run(key, 3, 1, now);
+        }
+
+        assertThat(run(key, 3, 1, now + 400).get(2)).isEqualTo(600L);
+        assertThat(run(key, 3, 1, now + 999).get(0)).isZero();
+        assertThat(run(key, 3, 1, now + 1_000).get(0)).isEqualTo(1L);
+        assertThat(run(key, 3, 1, now + 1_000).get(0)).isZero();
+    }
+
+    @Test
+    void costWeighsCallsThatShareTheBudget() {
+        String key = "rl:{gcra-test:cost}:gcra";
+
+        assertThat(run(key, 10, 5, now)).containsExactly(1L, 5L, 5_000L);
+        assertThat(run(key, 10, 5, now)).containsExactly(1L, 0L, 10_000L);
+
+        List<Long> cheapCall = run(key, 10, 1, now);
+        assertThat(cheapCall.get(0)).isZero();
+        assertThat(cheapCall.get(2)).isEqualTo(INTERVAL_MILLIS);
+
+        List<Long> expensiveCall = run(key, 10, 5, now + 1_000);
+        assertThat(expensiveCall.get(0)).isZero();
+        assertThat(expensiveCall.get(2)).isEqualTo(4_000L);
+        assertThat(run(key, 10, 1, now + 1_000).get(0)).isEqualTo(1L);
+    }
+
+    @Test
+    void costAboveTheBurstIsNeverAllowed() {
+        assertThat(run("rl:{gcra-test:oversized}:gcra", 3, 5, now).get(0)).isZero();
+    }
+
+    private List<Long> run(String key, int burst, int cost, long nowMillis) {
+        return template.execute(script, List.of(key),
+                String.valueOf((double) INTERVAL_MILLIS), String.valueOf(burst), String.valueOf(cost),
+                String.valueOf(nowMillis));
+    }
+}
@@ -0,0 +1,45 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.metrics.HeavyHitterTracker;
+import com.aman.authservice.ratelimit.metrics.HeavyHittersEndpoint;
+import com.aman.authservice.ratelimit.metrics.SpaceSavingTopK;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class HeavyHittersEndpointTest {
+
+    private final HeavyHitterTracker tracker =
+            new HeavyHitterTracker(new RateLimitingProperties(), new SimpleMeterRegistry());
+    private final HeavyHittersEndpoint endpoint = new HeavyHittersEndpoint(tracker);
+
+    @Test
+    void sourceSelectorAcceptsTheKebabCaseName() {
+        tracker.record(HeavyHitterTracker.Source.BRUTE_FORCE, "10.0.0.1", "Alice", "acme");
+        tracker.record(HeavyHitterTracker.Source.BRUTE_FORCE, "10.0.0.1", "alice", "acme");
+
+        Map<HeavyHitterTracker.Dimension, List<SpaceSavingTopK.HeavyHitter>> bruteForce =
+                endpoint.source("brute-force", null);
+
+        assertThat(bruteForce.get(HeavyHitterTracker.Dimension.USERNAME))
+                .extracting(SpaceSavingTopK.HeavyHitter::key, SpaceSavingTopK.HeavyHitter::count)
+                .containsExactly(tuple("alice", 2L));
+        assertThat(endpoint.source("rate_limit", null).get(HeavyHitterTracker.Dimension.IP)).isEmpty();
+    }
+
+    @Test
+    void unknownSourceIsABadRequestListingTheAcceptedValues() {
+        assertThatThrownBy(() -> endpoint.source("logins", null))
+                .isInstanceOf(InvalidEndpointRequestException.class)
+                .satisfies(ex -> assertThat(((InvalidEndpointRequestException) ex).getReason())
+                        .contains("logins", "rate-limit", "brute-force"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.aman.authservice.ratelimit.resolver.FixedWindowBucketResolver;
+import com.aman.authservice.ratelimit.resolver.KeyDigest;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.aman.authservice.ratelimit.resolver.SlidingWindowResolver;
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the hashed key encoding and compares Redis memory for plain and hashed keys on a synthetic attack: many
+ * IPs, each trying a long e-mail address against login (fixed window by IP, sliding window by IP and username, plus
+ * the brute-force counter) and registration (GCRA by IP, username and tenant).
+ */
+class RedisKeyEncodingTest {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+    private static final int CLIENTS = 50_000;
+    /**
+     * Per-key cost that does not depend on the key name: main dict entry, expires dict entry and value object.
+     */
+    private static final int FIXED_OVERHEAD_BYTES = 24 + 24 + 16;
+    private static final int[] JEMALLOC_CLASSES = {8, 16, 24, 32, 48, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320,
+            384, 448, 512};
+
+    private final FixedWindowBucketResolver fixedWindow = new FixedWindowBucketResolver(CLOCK);
+    private final SlidingWindowResolver slidingWindow = new SlidingWindowResolver(CLOCK);
+
+    @Test
+    void hashedKeysAreFixedLengthAndKeepTheSlot() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED,
+                RateLimitingProperties.KeyEncoding.HASHED, null);
+        RateLimitKeyResolver resolver = new RateLimitKeyResolver(null, layout);
+        RateLimiterDefinition definition = definition("register-rate-limiter", RateLimitKeyStrategy.IP_USERNAME_TENANT);
+
+        RateLimitKeyResolver.RateLimitRequestMetadata shortClient = resolver.buildMetadata("1.2.3.4", "t", "a@b.c");
+        RateLimitKeyResolver.RateLimitRequestMetadata longClient = resolver.buildMetadata(
+                "2001:db8:85a3::8a2e:370:7334", "tenant-with-a-long-name", "firstname.lastname.1234@example-mail.com");
+
+        String shortKey = slidingWindow.resolveKey(
+                resolver.baseKey(definition, RateLimitKeyStrategy.IP_USERNAME_TENANT, shortClient));
+        String longKey = slidingWindow.resolveKey(
+                resolver.baseKey(definition, RateLimitKeyStrategy.IP_USERNAME_TENANT, longClient));
+        String gcraKey = resolver.baseKey(definition, RateLimitKeyStrategy.IP_USERNAME_TENANT, longClient)
+                .append(":gcra")
+                .build();
+
+        assertThat(shortKey).hasSameSizeAs(longKey).matches("rl:\\{[A-Za-z0-9_-]{4}:[A-Za-z0-9_-]{16}}:sw");
+        assertThat(SlotHash.getSlot(longKey)).isEqualTo(SlotHash.getSlot(gcraKey));
+        assertThat(layout.bruteForceFailureKey("10.0.0.1", "Alice"))
+                .isEqualTo("bf:{" + KeyDigest.of("10.0.0.1:alice") + "}:fail")
+                .isNotEqualTo(layout.bruteForceFailureKey("10.0.0.1", "bob"));
+        assertThat(SlotHash.getSlot(layout.bruteForceFailureKey("10.0.0.1", "alice")))
+                .isEqualTo(SlotHash.getSlot(layout.bruteForceLockKey("10.0.0.1", "alice")));
+    }
+
+    @Test
+    void legacyBruteForceLookupsStayPlainWhenHashed() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.MIGRATING,
+                RateLimitingProperties.KeyEncoding.HASHED, null);
+
+        assertThat(layout.legacyBruteForceLockKey("10.0.0.1", "alice")).isEqualTo("bf:lock:10.0.0.1:alice");
+    }
+
+    @Test
+    void hashedEncodingShrinksRedisMemoryForSyntheticAttack() {
+        List<String> plain = syntheticKeys(RateLimitingProperties.KeyEncoding.PLAIN);
+        List<String> hashed = syntheticKeys(RateLimitingProperties.KeyEncoding.HASHED);
+
+        long plainNameBytes = nameBytes(plain);
+        long hashedNameBytes = nameBytes(hashed);
+        long plainMemory = estimatedMemory(plain);
+        long hashedMemory = estimatedMemory(hashed);
+
+        assertThat(hashed).hasSameSizeAs(plain).doesNotHaveDuplicates();
+        assertThat(plainNameBytes).isGreaterThan(2 * hashedNameBytes);
+        assertThat(plainMemory).isGreaterThan(hashedMemory * 5 / 4);
+    }
+
+    private List<String> syntheticKeys(RateLimitingProperties.KeyEncoding encoding) {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED, encoding, null);
+        RateLimitKeyResolver resolver = new RateLimitKeyResolver(null, layout);
+        RateLimiterDefinition login = definition("login-rate-limiter", RateLimitKeyStrategy.IP_USERNAME);
+        RateLimiterDefinition register = definition("register-rate-limiter", RateLimitKeyStrategy.IP_USERNAME_TENANT);
+
+        List<String> keys = new ArrayList<>(CLIENTS * 5);
+        for (int i = 0; i < CLIENTS; i++) {
+            String ip = "203." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+            String email = "victim.account." + i + "@example-mail.com";
+            RateLimitKeyResolver.RateLimitRequestMetadata metadata = resolver.buildMetadata(ip, "tenant-" + i % 50, email);
+
+            keys.add(fixedWindow.resolveBucketKey(
+                    resolver.baseKey(login, RateLimitKeyStrategy.IP, metadata), Duration.ofMinutes(1)));
+            keys.add(slidingWindow.resolveKey(resolver.baseKey(login, RateLimitKeyStrategy.IP_USERNAME, metadata)));
+            keys.add(resolver.baseKey(register, RateLimitKeyStrategy.IP_USERNAME_TENANT, metadata)
+                    .append(":gcra")
+                    .build());
+            keys.add(layout.bruteForceFailureKey(ip, email));
+            keys.add(layout.bruteForceLockKey(ip, email));
+        }
+        return keys;
+    }
+
+    private static long nameBytes(List<String> keys) {
+        return keys.stream().mapToLong(key -> key.getBytes(StandardCharsets.UTF_8).length).sum();
+    }
+
+    /**
+     * Key name stored as an sds string (3-byte header, NUL terminator) rounded up to a jemalloc size class, plus the
+     * name-independent per-key overhead.
+     */
+    private static long estimatedMemory(List<String> keys) {
+        long total = 0;
+        for (String key : keys) {
+            total += jemallocSize(key.getBytes(StandardCharsets.UTF_8).length + 4) + FIXED_OVERHEAD_BYTES;
+        }
+        return total;
+    }
+
+    private static int jemallocSize(int bytes) {
+        for (int size : JEMALLOC_CLASSES) {
+            if (bytes <= size) {
+                return size;
+            }
+        }
+        return bytes;
+    }
+
+    private static RateLimiterDefinition definition(String name, RateLimitKeyStrategy strategy) {
+        return RateLimiterDefinition.builder()
+                .name(name)
+                .keyName(name)
+                .fixedWindowKeyStrategy(RateLimitKeyStrategy.IP)
+                .slidingWindowKeyStrategy(strategy)
+                .gcraKeyStrategy(strategy)
+                .build();
+    }
+}
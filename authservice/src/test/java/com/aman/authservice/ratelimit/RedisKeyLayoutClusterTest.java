@@ -0,0 +1,154 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.aman.authservice.ratelimit.resolver.FixedWindowBucketResolver;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.aman.authservice.ratelimit.resolver.SlidingWindowResolver;
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the hash-tagged key layout against an in-process stand-in for a three-master Redis Cluster: keys are
+ * routed by CRC16 slot exactly as a cluster client would, and multi-key commands spanning slots fail with
+ * {@code CROSSSLOT}.
+ */
+class RedisKeyLayoutClusterTest {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private final LocalCluster cluster = new LocalCluster(3);
+
+    @Test
+    void bruteForceScriptKeysShareSlotWhenHashTagged() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+
+        for (int i = 0; i < 500; i++) {
+            String ip = "10.0." + (i / 256) + "." + (i % 256);
+            String user = "user" + i + "@example.com";
+            List<String> keys = List.of(layout.bruteForceFailureKey(ip, user), layout.bruteForceLockKey(ip, user));
+
+            assertThat(cluster.route(keys)).isNotNull();
+        }
+    }
+
+    @Test
+    void legacyBruteForceKeysCrossSlots() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.LEGACY);
+
+        assertThatThrownBy(() -> cluster.route(List.of(
+                layout.bruteForceFailureKey("10.0.0.1", "alice"),
+                layout.bruteForceLockKey("10.0.0.1", "alice"))))
+                .hasMessageStartingWith("CROSSSLOT");
+    }
+
+    @Test
+    void rateLimitKeysForOneClientShareSlot() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+        RateLimitKeyResolver resolver = new RateLimitKeyResolver(null, layout);
+        FixedWindowBucketResolver fixedWindow = new FixedWindowBucketResolver(CLOCK);
+        SlidingWindowResolver slidingWindow = new SlidingWindowResolver(CLOCK);
+        RateLimiterDefinition definition = definition(RateLimitKeyStrategy.IP_USERNAME);
+        RateLimitKeyResolver.RateLimitRequestMetadata metadata =
+                resolver.buildMetadata("203.0.113.7", "tenant-a", "bob@example.com");
+
+        String fixedKey = fixedWindow.resolveBucketKey(
+                resolver.baseKey(definition, RateLimitKeyStrategy.IP_USERNAME, metadata), Duration.ofMinutes(1));
+        String slidingKey = slidingWindow.resolveKey(
+                resolver.baseKey(definition, RateLimitKeyStrategy.IP_USERNAME, metadata));
+        String gcraKey = resolver.baseKey(definition, RateLimitKeyStrategy.IP_USERNAME, metadata)
+                .append(":gcra")
+                .build();
+
+        assertThat(fixedKey).startsWith("rl:{login:ip-user:203.0.113.7:bob@example.com}:fw:");
+        assertThat(cluster.route(List.of(fixedKey, slidingKey, gcraKey))).isNotNull();
+    }
+
+    @Test
+    void differentClientsSpreadAcrossNodes() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+        RateLimitKeyResolver resolver = new RateLimitKeyResolver(null, layout);
+        RateLimiterDefinition definition = definition(RateLimitKeyStrategy.IP);
+
+        Set<Integer> slots = new HashSet<>();
+        Set<Integer> nodes = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            String key = resolver.baseKey(definition, RateLimitKeyStrategy.IP,
+                    resolver.buildMetadata("198.51.100." + i, "public", null)).append(":sw").build();
+            slots.add(SlotHash.getSlot(key));
+            nodes.add(cluster.route(List.of(key)));
+        }
+
+        assertThat(nodes).hasSize(3);
+        assertThat(slots).hasSizeGreaterThan(250);
+    }
+
+    @Test
+    void bracesInUserInputCannotEscapeTheTag() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+
+        String failureKey = layout.bruteForceFailureKey("10.0.0.1", "}evil{");
+        String lockKey = layout.bruteForceLockKey("10.0.0.1", "}evil{");
+
+        assertThat(failureKey).isEqualTo("bf:{10.0.0.1:_evil_}:fail");
+        assertThat(cluster.route(List.of(failureKey, lockKey))).isNotNull();
+    }
+
+    @Test
+    void migratingModeWritesTaggedKeysAndKeepsLegacyLookups() {
+        RedisKeyLayout layout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.MIGRATING);
+
+        assertThat(layout.isHashTagged()).isTrue();
+        assertThat(layout.isMigrating()).isTrue();
+        assertThat(layout.bruteForceLockKey("10.0.0.1", "alice")).isEqualTo("bf:{10.0.0.1:alice}:lock");
+        assertThat(layout.legacyBruteForceLockKey("10.0.0.1", "alice")).isEqualTo("bf:lock:10.0.0.1:alice");
+    }
+
+    private static RateLimiterDefinition definition(RateLimitKeyStrategy strategy) {
+        return RateLimiterDefinition.builder()
+                .name("login")
+                .keyName("login")
+                .fixedWindowKeyStrategy(strategy)
+                .slidingWindowKeyStrategy(strategy)
+                .gcraKeyStrategy(strategy)
+                .build();
+    }
+
+    /**
+     * Minimal cluster stand-in: slots are split evenly across masters and routing follows Redis Cluster rules.
+     */
+    private static final class LocalCluster {
+
+        private final int nodes;
+
+        LocalCluster(int nodes) {
+            this.nodes = nodes;
+        }
+
+        /**
+         * Returns the node that would execute a command on the given keys.
+         *
+         * @throws IllegalStateException with a {@code CROSSSLOT} message if the keys hash to different slots
+         */
+        int route(List<String> keys) {
+            Set<Integer> slots = keys.stream().map(SlotHash::getSlot).collect(Collectors.toSet());
+            if (slots.size() > 1) {
+                throw new IllegalStateException("CROSSSLOT Keys in request don't hash to the same slot: " + keys);
+            }
+            int slot = slots.iterator().next();
+            return slot * nodes / SlotHash.SLOT_COUNT;
+        }
+    }
+}
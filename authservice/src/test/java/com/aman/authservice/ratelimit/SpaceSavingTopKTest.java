@@ -0,0 +1,46 @@
+package com.aman.authservice.ratelimit;
+
+import com.aman.authservice.ratelimit.metrics.SpaceSavingTopK;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTopKTest {
+
+    @Test
+    void heavyHittersSurviveLongTailWithinFixedCapacity() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(64);
+
+        for (int i = 0; i < 100_000; i++) {
+            topK.add("tail-" + i);
+            if (i % 10 == 0) {
+                topK.add("203.0.113.7");
+            }
+            if (i % 25 == 0) {
+                topK.add("198.51.100.9");
+            }
+        }
+
+        List<SpaceSavingTopK.HeavyHitter> top = topK.top(2);
+        assertThat(topK.size()).isEqualTo(64);
+        assertThat(top).extracting(SpaceSavingTopK.HeavyHitter::key).containsExactly("203.0.113.7", "198.51.100.9");
+        assertThat(top.get(0).count() - top.get(0).error()).isLessThanOrEqualTo(10_000);
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(10_000);
+    }
+
+    @Test
+    void decayHalvesCountsAndFreesEmptySlots() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(4);
+        for (int i = 0; i < 8; i++) {
+            topK.add("busy");
+        }
+        topK.add("once");
+
+        topK.decay();
+
+        assertThat(topK.size()).isEqualTo(1);
+        assertThat(topK.top(5)).containsExactly(new SpaceSavingTopK.HeavyHitter("busy", 4, 0));
+    }
+}
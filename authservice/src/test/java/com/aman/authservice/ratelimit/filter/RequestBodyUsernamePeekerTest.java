@@ -0,0 +1,40 @@
+package com.aman.authservice.ratelimit.filter;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBodyUsernamePeekerTest {
+
+    private final RequestBodyUsernamePeeker peeker = new RequestBodyUsernamePeeker(new ObjectMapper(),
+            new RateLimitKeyResolver(null, new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED,
+                    RateLimitingProperties.KeyEncoding.HASHED, null)));
+
+    @Test
+    void peeksNormalizedUsernameThenEmail() {
+        assertThat(peek("{\"password\":\"x\",\"username\":\" Alice \"}")).isEqualTo("alice");
+        assertThat(peek("{\"username\":\"\",\"email\":\"Bob@Example.com\"}")).isEqualTo("bob@example.com");
+    }
+
+    @Test
+    void duplicateKeysYieldNoUsername() {
+        assertThat(peek("{\"username\":\"decoy\",\"username\":\"victim\"}")).isNull();
+        assertThat(peek("{\"email\":\"decoy@x.io\",\"password\":\"x\",\"email\":\"victim@x.io\"}")).isNull();
+    }
+
+    @Test
+    void nonObjectBodiesYieldNoUsername() {
+        assertThat(peek("[\"alice\"]")).isNull();
+        assertThat(peek("{\"username\":")).isNull();
+    }
+
+    private String peek(String json) {
+        return peeker.peek(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,166 @@
+package com.aman.authservice.ratelimit.policy;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitAlgorithm;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.model.RateLimitPolicy;
+import com.aman.authservice.ratelimit.model.RateLimiterDefinition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitPolicyStoreTest {
+
+    private static final String HASH_KEY = "rl:policies";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+    private final Map<Object, Object> entries = new LinkedHashMap<>();
+    private RateLimitPolicyStore store;
+
+    private final RateLimiterDefinition login = RateLimiterDefinition.builder()
+            .name("login-rate-limiter")
+            .keyName("login-rate-limiter")
+            .fixedWindowKeyStrategy(RateLimitKeyStrategy.IP)
+            .fixedWindowLimit(5)
+            .fixedWindowDuration(Duration.ofMinutes(1))
+            .slidingWindowKeyStrategy(RateLimitKeyStrategy.IP_USERNAME)
+            .slidingWindowLimit(10)
+            .slidingWindowDuration(Duration.ofMinutes(5))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(redis.<Object, Object>opsForHash()).thenReturn(hash);
+        when(hash.entries(HASH_KEY)).thenAnswer(invocation -> Map.copyOf(entries));
+        RateLimitingProperties properties = new RateLimitingProperties();
+        properties.getPolicy().setHashKey(HASH_KEY);
+        store = new RateLimitPolicyStore(redis, objectMapper, properties);
+    }
+
+    @Test
+    void tenantPolicyWinsOverTheWildcardAndOthersKeepTheDefinition() throws Exception {
+        put(RateLimitPolicy.builder().tenant("ACME").limiter("login-rate-limiter").fixedWindowLimit(50).build());
+        put(RateLimitPolicy.builder().tenant(RateLimitPolicy.ANY_TENANT).limiter("login-rate-limiter")
+                .fixedWindowLimit(2).build());
+        store.afterSingletonsInstantiated();
+
+        assertThat(store.resolve(login, " Acme ").getFixedWindowLimit()).isEqualTo(50);
+        assertThat(store.resolve(login, "globex").getFixedWindowLimit()).isEqualTo(2);
+        RateLimiterDefinition token = login.toBuilder().name("token-rate-limiter").build();
+        assertThat(store.resolve(token, "acme")).isSameAs(token);
+        assertThat(store.resolve(login, "acme")).isSameAs(store.resolve(login, "ACME"));
+    }
+
+    @Test
+    void policyOverridesOnlyTheFieldsItSets() {
+        RateLimiterDefinition applied = RateLimitPolicy.builder()
+                .tenant("acme")
+                .limiter("login-rate-limiter")
+                .algorithm(RateLimitAlgorithm.WINDOW_AND_GCRA)
+                .cost(0)
+                .slidingWindowSeconds(30)
+                .gcraLimit(40)
+                .gcraPeriodSeconds(60)
+                .gcraBurst(4)
+                .build()
+                .applyTo(login);
+
+        assertThat(applied.getAlgorithm()).isEqualTo(RateLimitAlgorithm.WINDOW_AND_GCRA);
+        assertThat(applied.getCost()).isEqualTo(1);
+        assertThat(applied.getFixedWindowLimit()).isEqualTo(5);
+        assertThat(applied.getFixedWindowDuration()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(applied.getSlidingWindowLimit()).isEqualTo(10);
+        assertThat(applied.getSlidingWindowDuration()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(applied.getGcraLimit()).isEqualTo(40);
+        assertThat(applied.getGcraBurst()).isEqualTo(4);
+        assertThat(applied.getName()).isEqualTo(login.getName());
+    }
+
+    @Test
+    void changeNotificationSwapsTheSnapshot() throws Exception {
+        put(RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter").fixedWindowLimit(50).build());
+        store.afterSingletonsInstantiated();
+        RateLimiterDefinition before = store.resolve(login, "acme");
+
+        entries.clear();
+        put(RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter").fixedWindowLimit(7).build());
+        store.onMessage(new DefaultMessage("rl:policies:changed".getBytes(StandardCharsets.UTF_8),
+                "acme:login-rate-limiter".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(before.getFixedWindowLimit()).isEqualTo(50);
+        assertThat(store.resolve(login, "acme").getFixedWindowLimit()).isEqualTo(7);
+        assertThat(store.findAll()).singleElement()
+                .satisfies(policy -> assertThat(policy.getFixedWindowLimit()).isEqualTo(7));
+    }
+
+    @Test
+    void scheduledReloadPicksUpMissedChangesAndKeepsTheSnapshotWhileRedisIsDown() throws Exception {
+        store.afterSingletonsInstantiated();
+        assertThat(store.resolve(login, "acme")).isSameAs(login);
+
+        put(RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter").fixedWindowLimit(50).build());
+        store.scheduledReload();
+        assertThat(store.resolve(login, "acme").getFixedWindowLimit()).isEqualTo(50);
+
+        when(hash.entries(HASH_KEY)).thenThrow(new RedisConnectionFailureException("down"));
+        store.scheduledReload();
+        assertThat(store.resolve(login, "acme").getFixedWindowLimit()).isEqualTo(50);
+    }
+
+    @Test
+    void malformedEntriesAreSkipped() throws Exception {
+        entries.put("acme:broken", "{not json");
+        put(RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter").fixedWindowLimit(50).build());
+
+        store.reload();
+
+        assertThat(store.findAll()).hasSize(1);
+        assertThat(store.find("ACME", "login-rate-limiter")).isPresent();
+    }
+
+    @Test
+    void saveWritesTheHashAndNotifiesEveryNode() throws Exception {
+        RateLimitPolicy policy = RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter")
+                .fixedWindowLimit(50).build();
+
+        store.save(policy);
+
+        verify(hash).put(eq(HASH_KEY), eq("acme:login-rate-limiter"), anyString());
+        verify(redis).convertAndSend("rl:policies:changed", "acme:login-rate-limiter");
+    }
+
+    @Test
+    void failedNotificationReloadsLocally() throws Exception {
+        doThrow(new RedisConnectionFailureException("pubsub down"))
+                .when(redis).convertAndSend(anyString(), anyString());
+        put(RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter").fixedWindowLimit(50).build());
+
+        store.save(RateLimitPolicy.builder().tenant("acme").limiter("login-rate-limiter").fixedWindowLimit(50).build());
+
+        assertThat(store.resolve(login, "acme").getFixedWindowLimit()).isEqualTo(50);
+    }
+
+    private void put(RateLimitPolicy policy) throws Exception {
+        entries.put(policy.id(), objectMapper.writeValueAsString(policy));
+    }
+}
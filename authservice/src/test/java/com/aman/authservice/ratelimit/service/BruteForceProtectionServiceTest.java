@@ -0,0 +1,103 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.metrics.HeavyHitterTracker;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BruteForceProtectionServiceTest {
+
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+    private final RedisScript<List<Long>> script = new DefaultRedisScript<>("return {1, 0, 0}");
+    private final CircuitBreaker breaker = CircuitBreaker.ofDefaults("test");
+    private final BruteForceProtectionService service = service();
+
+    @Test
+    void lockoutFromTheScriptIsCachedLocally() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.just(List.of(0L, 900_000L, 1L)));
+
+        Duration first = service.recordFailure("10.0.0.1", "Alice");
+        Duration second = service.recordFailure("10.0.0.1", "alice");
+
+        assertThat(first).isEqualTo(Duration.ofMinutes(15));
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+        verify(redis, times(1)).execute(eq(script), anyList(), anyList());
+    }
+
+    @Test
+    void slowRedisDoesNotHoldTheLoginThread() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.never());
+
+        long start = System.nanoTime();
+        Duration lock = service.recordFailure("10.0.0.1", "alice");
+
+        assertThat(lock).isZero();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void openBreakerSkipsRedis() {
+        breaker.transitionToOpenState();
+
+        assertThat(service.recordFailure("10.0.0.1", "alice")).isZero();
+        verify(redis, never()).execute(anyScript(), anyList(), anyList());
+    }
+
+    @Test
+    void legacyLayoutKeysTheUsernameAsSubmittedLikeLegacyNodes() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.just(List.of(1L, 0L, 0L)));
+
+        service(RateLimitingProperties.KeyLayout.LEGACY).recordFailure("10.0.0.1", "Alice");
+
+        verify(redis).execute(eq(script), eq(List.of("bf:fail:10.0.0.1:Alice", "bf:lock:10.0.0.1:Alice")), anyList());
+    }
+
+    @Test
+    void taggedLayoutsKeyTheNormalizedUsername() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.just(List.of(1L, 0L, 0L)));
+
+        service.recordFailure("10.0.0.1", " Alice");
+
+        verify(redis).execute(eq(script), eq(List.of("bf:{10.0.0.1:alice}:fail", "bf:{10.0.0.1:alice}:lock")),
+                anyList());
+    }
+
+    private BruteForceProtectionService service() {
+        return service(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+    }
+
+    private BruteForceProtectionService service(RateLimitingProperties.KeyLayout keyLayout) {
+        RateLimitingProperties properties = new RateLimitingProperties();
+        properties.setRedisTimeout(Duration.ofMillis(100));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new BruteForceProtectionService(redis, script, properties,
+                new RedisKeyLayout(keyLayout),
+                mock(CredentialStuffingDetector.class), new HeavyHitterTracker(properties, registry), breaker,
+                Clock.systemUTC(), registry);
+    }
+
+    private static RedisScript<List<Long>> anyScript() {
+        return any();
+    }
+}
@@ -0,0 +1,127 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitKeyStrategy;
+import com.aman.authservice.ratelimit.resolver.RateLimitKeyResolver;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the local fast path, release and fallback of the concurrency limiter against a mocked Redis. The sorted-set
+ * semaphore itself is exercised against Redis by {@code ConcurrencyAcquireScriptTest}.
+ */
+class ConcurrencyLimiterServiceTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveZSetOperations<String, String> zSet = mock(ReactiveZSetOperations.class);
+    private final RedisScript<List<Long>> script = new DefaultRedisScript<>("return {1, 1}");
+    private final CircuitBreaker breaker = CircuitBreaker.ofDefaults("test");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitKeyResolver keyResolver =
+            new RateLimitKeyResolver(null, new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED));
+    private final RateLimitKeyResolver.RateLimitRequestMetadata alice =
+            keyResolver.buildMetadata("10.0.0.1", "public", "alice");
+    private final ConcurrencyLimiterService service = service();
+
+    @Test
+    void permitIsTakenInRedisWithItsLeaseAndReleasedFromTheSortedSet() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.just(List.of(1L, 1L)));
+        when(redis.opsForZSet()).thenReturn(zSet);
+        when(zSet.remove(any(), any())).thenReturn(Mono.just(1L));
+
+        ConcurrencyLimiterService.Permit permit = acquire(2);
+
+        assertThat(permit).isNotNull();
+        assertThat(permit.key()).endsWith(":cl");
+        verify(redis).execute(script, List.of(permit.key()),
+                List.of(permit.id(), "1767225600000", "30000", "2"));
+
+        service.release(permit);
+        verify(zSet).remove(permit.key(), permit.id());
+    }
+
+    @Test
+    void nodeHoldingTheMaximumRejectsWithoutAskingRedis() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.just(List.of(1L, 1L)));
+        when(redis.opsForZSet()).thenReturn(zSet);
+        when(zSet.remove(any(), any())).thenReturn(Mono.just(1L));
+
+        ConcurrencyLimiterService.Permit first = acquire(1);
+        assertThat(acquire(1)).isNull();
+        verify(redis, times(1)).execute(eq(script), anyList(), anyList());
+        assertThat(rejected("local")).isEqualTo(1.0);
+
+        service.release(first);
+        assertThat(acquire(1)).isNotNull();
+        verify(redis, times(2)).execute(eq(script), anyList(), anyList());
+    }
+
+    @Test
+    void permitsHeldByOtherNodesRejectThroughRedisAndFreeTheLocalSlot() {
+        when(redis.execute(eq(script), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(0L, 2L)))
+                .thenReturn(Flux.just(List.of(1L, 2L)));
+
+        assertThat(acquire(2)).isNull();
+        assertThat(rejected("redis")).isEqualTo(1.0);
+        // The rejected call did not keep its local slot, so the node can still take both permits
+        assertThat(acquire(2)).isNotNull();
+        assertThat(acquire(2)).isNotNull();
+    }
+
+    @Test
+    void unavailableRedisFailsOpen() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenReturn(Flux.never());
+
+        assertThat(acquire(1)).isNotNull();
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+
+        breaker.transitionToOpenState();
+        assertThat(service.tryAcquire("export", RateLimitKeyStrategy.IP_USERNAME,
+                keyResolver.buildMetadata("10.0.0.2", "public", "bob"), 1, LEASE)).isNotNull();
+        verify(redis, times(1)).execute(eq(script), anyList(), anyList());
+        verify(redis, never()).opsForZSet();
+    }
+
+    private ConcurrencyLimiterService.Permit acquire(int maxInFlight) {
+        return service.tryAcquire("export", RateLimitKeyStrategy.IP_USERNAME, alice, maxInFlight, LEASE);
+    }
+
+    private double rejected(String source) {
+        return meterRegistry.get("concurrency_limit_rejected_total").tag("source", source).counter().count();
+    }
+
+    private ConcurrencyLimiterService service() {
+        RateLimitingProperties properties = new RateLimitingProperties();
+        properties.setRedisTimeout(Duration.ofMillis(100));
+        return new ConcurrencyLimiterService(redis, script, keyResolver, breaker, properties,
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC), meterRegistry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.resolver.RedisKeyLayout;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how the detector drives {@code credential_stuffing.lua} and caches the blocks it reports. The HyperLogLog
+ * threshold itself is exercised against Redis by {@link CredentialStuffingScriptTest}.
+ */
+class CredentialStuffingDetectorTest {
+
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+    private final RedisScript<List<Long>> script = new DefaultRedisScript<>("return {1, 0, 0, 0}");
+    private final RedisKeyLayout keyLayout = new RedisKeyLayout(RateLimitingProperties.KeyLayout.HASH_TAGGED);
+    private final RateLimitingProperties properties = new RateLimitingProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:05:00Z"), ZoneOffset.UTC);
+    private final List<Call> calls = new ArrayList<>();
+
+    @Test
+    void feedsBothDimensionsWithTheirThresholds() {
+        stubScript(List.of(1L, 0L, 3L, 0L));
+
+        detector().recordFailure("10.0.0.1", " Alice@Example.com ");
+
+        assertThat(calls).hasSize(2);
+        Call byIp = call("{ip:");
+        assertThat(byIp.args()).containsExactly("alice@example.com", "20", "600000", "900000");
+        assertThat(byIp.keys()).containsExactly(
+                keyLayout.credentialStuffingKeys("ip", "10.0.0.1", bucket()).toArray(String[]::new));
+        Call byUser = call("{user:");
+        assertThat(byUser.args()).containsExactly("10.0.0.1", "10", "600000", "300000");
+    }
+
+    @Test
+    void ipOverTheDistinctUsernameThresholdIsBlockedForEveryAccount() {
+        when(redis.execute(eq(script), anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            return Flux.just(keys.get(0).startsWith("cs:{ip:")
+                    ? List.of(0L, 900_000L, 21L, 1L)
+                    : List.of(1L, 0L, 1L, 0L));
+        });
+        when(redis.getExpire(anyString())).thenReturn(Mono.just(Duration.ofSeconds(-2)));
+        CredentialStuffingDetector detector = detector();
+
+        detector.recordFailure("10.0.0.1", "user21@example.com");
+        Duration blocked = detector.blockRemaining("10.0.0.1", "someone-else@example.com").block();
+        Duration otherIp = detector.blockRemaining("10.0.0.2", "someone-else@example.com").block();
+
+        assertThat(blocked).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(15));
+        assertThat(otherIp).isZero();
+        // The IP block came from the local cache; only the other subjects were looked up
+        verify(redis, never()).getExpire(keyLayout.credentialStuffingBlockKey("ip", "10.0.0.1"));
+        assertThat(meterRegistry.get("credential_stuffing_block_total").tag("dimension", "ip").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void blockedSubjectIsNotRecordedAgain() {
+        stubScript(List.of(0L, 900_000L, 21L, 1L));
+        CredentialStuffingDetector detector = detector();
+
+        detector.recordFailure("10.0.0.1", "alice");
+        calls.clear();
+        detector.recordFailure("10.0.0.1", "bob");
+
+        assertThat(calls).extracting(call -> call.keys().get(0)).noneMatch(key -> key.startsWith("cs:{ip:"));
+    }
+
+    @Test
+    void disabledDetectorNeverTouchesRedis() {
+        properties.getCredentialStuffing().setEnabled(false);
+        CredentialStuffingDetector detector = detector();
+
+        detector.recordFailure("10.0.0.1", "alice");
+
+        assertThat(detector.blockRemaining("10.0.0.1", "alice").block()).isZero();
+        verify(redis, never()).execute(anyScript(), anyList(), anyList());
+        verify(redis, never()).getExpire(anyString());
+    }
+
+    private void stubScript(List<Long> result) {
+        when(redis.execute(eq(script), anyList(), anyList())).thenAnswer(invocation -> {
+            calls.add(new Call(invocation.getArgument(1), invocation.getArgument(2)));
+            return Flux.just(result);
+        });
+    }
+
+    private Call call(String tag) {
+        return calls.stream().filter(call -> call.keys().get(0).contains(tag)).findFirst().orElseThrow();
+    }
+
+    private long bucket() {
+        return clock.millis() / properties.getCredentialStuffing().getWindow().toMillis();
+    }
+
+    private CredentialStuffingDetector detector() {
+        return new CredentialStuffingDetector(redis, script, properties, keyLayout, clock, meterRegistry);
+    }
+
+    private record Call(List<String> keys, List<String> args) {
+    }
+
+    private static RedisScript<List<Long>> anyScript() {
+        return any();
+    }
+}
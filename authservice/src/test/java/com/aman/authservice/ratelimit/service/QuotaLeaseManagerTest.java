@@ -0,0 +1,150 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import com.aman.authservice.ratelimit.model.RateLimitDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the local lease against a scripted {@code lease.lua}: each Redis call pops the next
+ * {@code {granted, globalRemaining, ttl}} reply.
+ */
+class QuotaLeaseManagerTest {
+
+    private static final String BUCKET = "rl:{login:ip:10.0.0.1}:fw:100";
+    private static final int LIMIT = 100;
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+    private final RedisScript<List<Long>> script = new DefaultRedisScript<>("return {0, 0, 0}");
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Deque<List<Long>> replies = new ArrayDeque<>();
+    private final List<List<String>> requests = new ArrayList<>();
+    private final QuotaLeaseManager manager = manager();
+
+    @Test
+    void firstCallLeasesASliceAndLaterCallsSpendItLocally() {
+        replies.add(List.of(10L, 90L, 60_000L));
+
+        RateLimitDecision first = acquire(1);
+        assertThat(first.isAllowed()).isTrue();
+        assertThat(first.getRemaining()).isEqualTo(99);
+        assertThat(requests).containsExactly(List.of("100", "60000", "10"));
+
+        clock.advance(Duration.ofSeconds(10));
+        for (int i = 0; i < 9; i++) {
+            RateLimitDecision local = acquire(1);
+            assertThat(local.isAllowed()).isTrue();
+            assertThat(local.getRemaining()).isEqualTo(98 - i);
+            assertThat(local.getResetMillis()).isEqualTo(50_000);
+        }
+        assertThat(requests).hasSize(1);
+        assertThat(meterRegistry.get("rate_limit_lease_local_hit_total").counter().count()).isEqualTo(9.0);
+    }
+
+    @Test
+    void exhaustedLeaseIsRefilledFromRedis() {
+        replies.add(List.of(2L, 98L, 60_000L));
+        replies.add(List.of(10L, 88L, 59_000L));
+
+        acquire(1);
+        acquire(1);
+        RateLimitDecision refilled = acquire(1);
+
+        assertThat(refilled.isAllowed()).isTrue();
+        assertThat(refilled.getRemaining()).isEqualTo(9 + 88);
+        assertThat(requests).hasSize(2);
+        assertThat(meterRegistry.get("rate_limit_lease_total").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shortGrantIsRejectedButKeptForCheaperCalls() {
+        replies.add(List.of(3L, 0L, 60_000L));
+
+        RateLimitDecision expensive = acquire(5);
+        RateLimitDecision cheap = acquire(3);
+        RateLimitDecision exhausted = acquire(1);
+
+        assertThat(expensive.isAllowed()).isFalse();
+        assertThat(cheap.isAllowed()).isTrue();
+        assertThat(cheap.getRemaining()).isZero();
+        // Redis reported no quota left, so the empty lease answers without another round trip
+        assertThat(exhausted.isAllowed()).isFalse();
+        assertThat(exhausted.getResetMillis()).isEqualTo(60_000);
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void expiredLeaseIsDroppedAndLeasedAgain() {
+        replies.add(List.of(10L, 90L, 1_000L));
+        replies.add(List.of(10L, 80L, 60_000L));
+        acquire(1);
+
+        clock.advance(Duration.ofSeconds(2));
+        RateLimitDecision renewed = acquire(1);
+
+        assertThat(renewed.isAllowed()).isTrue();
+        assertThat(renewed.getRemaining()).isEqualTo(9 + 80);
+        assertThat(requests).hasSize(2);
+    }
+
+    private RateLimitDecision acquire(int cost) {
+        return manager.acquire(BUCKET, LIMIT, WINDOW, cost, 10).block();
+    }
+
+    private QuotaLeaseManager manager() {
+        when(redis.execute(eq(script), eq(List.of(BUCKET)), anyList())).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(2));
+            return Flux.just(replies.removeFirst());
+        });
+        return new QuotaLeaseManager(redis, script, new RateLimitingProperties(), clock, meterRegistry);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
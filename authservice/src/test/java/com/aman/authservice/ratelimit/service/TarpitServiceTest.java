@@ -0,0 +1,136 @@
+package com.aman.authservice.ratelimit.service;
+
+import com.aman.authservice.config.RateLimitingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TarpitServiceTest {
+
+    private final RateLimitingProperties properties = new RateLimitingProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TarpitService service;
+
+    @AfterEach
+    void stopTimer() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void heldResponseGoesAsyncAndIsReleasedByTheTimer() throws Exception {
+        service = service(Duration.ofMillis(200), 10);
+        MockHttpServletRequest request = asyncRequest();
+
+        long start = System.nanoTime();
+        assertThat(service.hold(request)).isTrue();
+        CountDownLatch released = onComplete(request);
+
+        assertThat(request.isAsyncStarted()).isTrue();
+        assertThat(request.getAsyncContext().getTimeout()).isGreaterThan(200);
+        assertThat(pending()).isEqualTo(1.0);
+
+        assertThat(released.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+        assertThat(request.isAsyncStarted()).isFalse();
+        assertThat(pending()).isZero();
+        assertThat(meterRegistry.get("tarpit_delayed_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void callersBeyondTheCapAreAnsweredImmediately() {
+        service = service(Duration.ofSeconds(30), 2);
+
+        assertThat(service.hold(asyncRequest())).isTrue();
+        assertThat(service.hold(asyncRequest())).isTrue();
+        MockHttpServletRequest overflow = asyncRequest();
+        assertThat(service.hold(overflow)).isFalse();
+
+        assertThat(overflow.isAsyncStarted()).isFalse();
+        assertThat(pending()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("tarpit_overflow_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void disabledTarpitAndSyncRequestsAreNeverHeld() {
+        service = service(Duration.ofSeconds(30), 10);
+        MockHttpServletRequest syncRequest = new MockHttpServletRequest();
+
+        assertThat(service.hold(syncRequest)).isFalse();
+        assertThat(syncRequest.isAsyncStarted()).isFalse();
+
+        properties.getTarpit().setEnabled(false);
+        TarpitService disabled = new TarpitService(properties, new SimpleMeterRegistry());
+        try {
+            assertThat(disabled.hold(asyncRequest())).isFalse();
+        } finally {
+            disabled.shutdown();
+        }
+    }
+
+    @Test
+    void shutdownReleasesEveryHeldResponse() throws Exception {
+        service = service(Duration.ofSeconds(30), 10);
+        MockHttpServletRequest request = asyncRequest();
+        service.hold(request);
+        CountDownLatch released = onComplete(request);
+
+        service.shutdown();
+
+        assertThat(released.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(pending()).isZero();
+    }
+
+    private TarpitService service(Duration delay, int maxPending) {
+        RateLimitingProperties.Tarpit tarpit = properties.getTarpit();
+        tarpit.setEnabled(true);
+        tarpit.setDelay(delay);
+        tarpit.setJitter(Duration.ZERO);
+        tarpit.setMaxPending(maxPending);
+        tarpit.setTickDuration(Duration.ofMillis(10));
+        return new TarpitService(properties, meterRegistry);
+    }
+
+    private double pending() {
+        return meterRegistry.get("tarpit_pending").gauge().value();
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/v1/login");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static CountDownLatch onComplete(MockHttpServletRequest request) {
+        CountDownLatch latch = new CountDownLatch(1);
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        return latch;
+    }
+}
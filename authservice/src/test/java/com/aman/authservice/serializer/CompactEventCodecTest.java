@@ -0,0 +1,91 @@
+package com.aman.authservice.serializer;
+
+import com.aman.authservice.events.TokenRefreshedEvent;
+import com.aman.authservice.events.UserInfoEvent;
+import com.aman.authservice.events.UserLoggedInEvent;
+import com.aman.authservice.events.UserLoginFailedEvent;
+import org.apache.kafka.common.compress.Compression;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.utils.ByteBufferOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips of the compact encoding, and record sizes against JSON for a batch of login events compressed with
+ * Kafka's own producer codecs.
+ */
+class CompactEventCodecTest {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36";
+    private static final int BATCH = 100;
+
+    private final UserEventSerializer json = new UserEventSerializer(EventEncoding.JSON);
+    private final UserEventSerializer compact = new UserEventSerializer(EventEncoding.COMPACT);
+
+    @Test
+    void roundTripsEveryEventType() {
+        UserLoggedInEvent loggedIn = new UserLoggedInEvent("u-1", "203.0.113.42", USER_AGENT);
+        UserLoggedInEvent decoded = (UserLoggedInEvent) CompactEventCodec.decode(compact.serialize("t", loggedIn));
+        assertThat(decoded.getUserId()).isEqualTo("u-1");
+        assertThat(decoded.getEventType()).isEqualTo("USER_LOGGED_IN");
+        assertThat(decoded.getIpAddress()).isEqualTo("203.0.113.42");
+        assertThat(decoded.getUserAgent()).isEqualTo(USER_AGENT);
+        assertThat(decoded.getEventTimestamp()).isEqualTo(loggedIn.getEventTimestamp().truncatedTo(ChronoUnit.MILLIS));
+
+        UserLoggedInEvent ipv6 = new UserLoggedInEvent("u-1", "2001:db8::1", null);
+        assertThat(((UserLoggedInEvent) CompactEventCodec.decode(compact.serialize("t", ipv6))).getIpAddress())
+                .isEqualTo("2001:db8::1");
+        UserLoggedInEvent leadingZero = new UserLoggedInEvent("u-1", "10.01.0.1", null);
+        assertThat(((UserLoggedInEvent) CompactEventCodec.decode(compact.serialize("t", leadingZero))).getIpAddress())
+                .isEqualTo("10.01.0.1");
+
+        UserLoginFailedEvent failed = (UserLoginFailedEvent) CompactEventCodec.decode(
+                compact.serialize("t", new UserLoginFailedEvent("bob", "Bad credentials")));
+        assertThat(failed.getReason()).isEqualTo("Bad credentials");
+        assertThat(failed.getAttemptedUsername()).isEqualTo("bob");
+
+        assertThat(CompactEventCodec.decode(compact.serialize("t", new TokenRefreshedEvent("u-2"))))
+                .isInstanceOf(TokenRefreshedEvent.class)
+                .extracting("userId").isEqualTo("u-2");
+
+        UserInfoEvent info = UserInfoEvent.builder().userId("u-3").username("zoë").firstName("Zoë").lastName("Ng")
+                .email("zoe@example.com").phoneNumber(null).build();
+        UserInfoEvent decodedInfo = (UserInfoEvent) CompactEventCodec.decode(compact.serialize("t", info));
+        assertThat(decodedInfo).usingRecursiveComparison().isEqualTo(info);
+    }
+
+    @Test
+    void compactRecordsAreSmallerThanJsonUnderEachProducerCompression() throws Exception {
+        UserLoggedInEvent[] events = new UserLoggedInEvent[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            events[i] = new UserLoggedInEvent(UUID.randomUUID().toString(), "203.0.113." + i, USER_AGENT);
+        }
+
+        for (Compression compression : new Compression[]{
+                Compression.NONE, Compression.gzip().build(), Compression.lz4().build()}) {
+            double jsonPerEvent = (double) batchBytes(json, compression, events) / BATCH;
+            double compactPerEvent = (double) batchBytes(compact, compression, events) / BATCH;
+            assertThat(compactPerEvent).as("bytes/event with %s", compression.type().name).isLessThan(jsonPerEvent);
+            if (compression == Compression.NONE) {
+                assertThat(compactPerEvent).isLessThan(jsonPerEvent / 1.5);
+            }
+        }
+    }
+
+    private static int batchBytes(UserEventSerializer serializer, Compression compression, UserLoggedInEvent[] events)
+            throws Exception {
+        ByteBufferOutputStream buffer = new ByteBufferOutputStream(16 * 1024);
+        try (OutputStream out = compression.wrapForOutput(buffer, RecordBatch.CURRENT_MAGIC_VALUE)) {
+            for (UserLoggedInEvent event : events) {
+                out.write(serializer.serialize("t", event));
+            }
+        }
+        return buffer.position();
+    }
+}
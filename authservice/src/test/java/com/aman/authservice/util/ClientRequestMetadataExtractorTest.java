@@ -0,0 +1,58 @@
+package com.aman.authservice.util;
+
+import com.aman.authservice.ratelimit.model.RateLimitPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRequestMetadataExtractorTest {
+
+    private final ClientRequestMetadataExtractor extractor = new ClientRequestMetadataExtractor();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void policyIdsMatchTheResolvedTenantRegardlessOfCase() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-ID", " AcmeCorp ");
+
+        String tenant = extractor.resolveTenant(request, "X-Tenant-ID", "public");
+
+        assertThat(tenant).isEqualTo("acmecorp");
+        assertThat(RateLimitPolicy.id("AcmeCorp", "login")).isEqualTo(RateLimitPolicy.id(tenant, "login"));
+    }
+
+    @Test
+    void headerTenantIsIgnoredForPoliciesWithoutAuthentication() {
+        assertThat(extractor.resolvePolicyTenant("acmecorp", "public")).isEqualTo("public");
+    }
+
+    @Test
+    void headerTenantIsIgnoredWhenThePrincipalBelongsToAnotherTenant() {
+        authenticate("TENANT_OTHER");
+
+        assertThat(extractor.resolvePolicyTenant("acmecorp", "public")).isEqualTo("public");
+    }
+
+    @Test
+    void headerTenantAppliesWhenThePrincipalHoldsItsAuthority() {
+        authenticate("TENANT_ACMECORP");
+
+        assertThat(extractor.resolvePolicyTenant("acmecorp", "public")).isEqualTo("acmecorp");
+    }
+
+    private static void authenticate(String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority(authority))));
+    }
+}
@@ -55,6 +55,12 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.enable-auto-commit:false}")
     private Boolean enableAutoCommit;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private Integer concurrency;
+
+    @Value("${app.kafka.batch.max-records:500}")
+    private Integer batchMaxRecords;
+
     /**
      * Creates consumer factory with production-ready settings.
      * Manual acknowledgment is enabled for exactly-once processing.
@@ -125,12 +131,41 @@ public class KafkaConsumerConfig {
         ));
 
         // Concurrency: process multiple partitions in parallel
-        factory.setConcurrency(3);
+        // More threads than partitions leaves the surplus idle; see TopicPartitionCheck
+        factory.setConcurrency(concurrency);
 
         // Set batch listener to false (we process one record at a time for better error handling)
         factory.setBatchListener(false);
 
-        log.info("Kafka listener container factory configured | concurrency=3 | ackMode=MANUAL_IMMEDIATE");
+        log.info("Kafka listener container factory configured | concurrency={} | ackMode=MANUAL_IMMEDIATE", concurrency);
+
+        return factory;
+    }
+
+    /**
+     * Container factory for {@code BatchAuthServiceConsumer}: hands whole polls of up to
+     * {@code app.kafka.batch.max-records} to the listener, which acknowledges once per batch. Values are decoded
+     * through {@link ErrorHandlingDeserializer}, so an undecodable record reaches the listener as a null value with the
+     * exception in a header instead of failing every poll.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler(
+                new org.springframework.util.backoff.FixedBackOff(1000L, 3L)
+        ));
+        factory.setConcurrency(concurrency);
+
+        log.info("Kafka batch listener container factory configured | concurrency={} | maxPollRecords={} | ackMode=MANUAL",
+                concurrency, batchMaxRecords);
 
         return factory;
     }
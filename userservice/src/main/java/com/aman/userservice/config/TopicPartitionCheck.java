@@ -0,0 +1,80 @@
+package com.aman.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warns at startup when a consumed topic has fewer partitions than the consumer threads listening on it; the
+ * surplus threads get no partition and stay idle. Never fails startup.
+ */
+@Slf4j
+@Component
+public class TopicPartitionCheck {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final KafkaAdmin kafkaAdmin;
+    private final Map<String, Integer> concurrencyByTopic = new LinkedHashMap<>();
+
+    public TopicPartitionCheck(KafkaAdmin kafkaAdmin,
+                               @Value("${spring.kafka.topic-json.name:user_service}") String sharedTopic,
+                               @Value("${spring.kafka.listener.concurrency:3}") int sharedConcurrency,
+                               @Value("${app.kafka.listeners.lifecycle.topic:user.lifecycle}") String lifecycleTopic,
+                               @Value("${app.kafka.listeners.lifecycle.concurrency:2}") int lifecycleConcurrency,
+                               @Value("${app.kafka.listeners.activity.topic:user.activity}") String activityTopic,
+                               @Value("${app.kafka.listeners.activity.concurrency:3}") int activityConcurrency) {
+        this.kafkaAdmin = kafkaAdmin;
+        // Containers of one group on the same topic share its partitions
+        concurrencyByTopic.merge(sharedTopic, sharedConcurrency, Integer::sum);
+        concurrencyByTopic.merge(lifecycleTopic, lifecycleConcurrency, Integer::sum);
+        concurrencyByTopic.merge(activityTopic, activityConcurrency, Integer::sum);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            Map<String, KafkaFuture<TopicDescription>> descriptions =
+                    admin.describeTopics(concurrencyByTopic.keySet()).topicNameValues();
+            concurrencyByTopic.forEach((topic, concurrency) -> check(topic, concurrency, descriptions.get(topic)));
+        } catch (Exception ex) {
+            log.warn("Topic partition check skipped | error={}", ex.getMessage());
+        }
+    }
+
+    private void check(String topic, int concurrency, KafkaFuture<TopicDescription> description) {
+        try {
+            int partitions = description.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).partitions().size();
+            if (partitions < concurrency) {
+                log.warn("Topic has fewer partitions than consumer threads - {} threads will be idle | topic={} | partitions={} | concurrency={}",
+                        concurrency - partitions, topic, partitions, concurrency);
+            } else {
+                log.info("Topic partitions checked | topic={} | partitions={} | concurrency={}",
+                        topic, partitions, concurrency);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof UnknownTopicOrPartitionException) {
+                log.warn("Topic does not exist yet; broker auto-creation may give it a single partition | topic={} | concurrency={}",
+                        topic, concurrency);
+            } else {
+                log.warn("Topic partition check failed | topic={} | error={}", topic, ex.getMessage());
+            }
+        } catch (Exception ex) {
+            log.warn("Topic partition check failed | topic={} | error={}", topic, ex.getMessage());
+        }
+    }
+}
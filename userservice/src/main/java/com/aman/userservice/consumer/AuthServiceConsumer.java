@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
@@ -24,10 +25,12 @@ import java.util.UUID;
  * - Structured logging with correlation IDs
  * - Manual acknowledgment for exactly-once processing
  * - Dead-letter queue (DLQ) support via error handler
+ * {@link BatchAuthServiceConsumer} replaces it when {@code app.kafka.batch.enabled} is set.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class AuthServiceConsumer {
 
     private final UserService userService;
@@ -38,8 +41,8 @@ public class AuthServiceConsumer {
 
     /**
      * Consumes events from Kafka with idempotency checks and error handling.
+     * Reads the shared topic, which carries every event type until authservice routes by type.
      *
-     * 
      * @param record Kafka consumer record with metadata
      * @param acknowledgment Manual acknowledgment for exactly-once processing
      */
@@ -50,6 +53,42 @@ public class AuthServiceConsumer {
     )
     @Transactional
     public void consume(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        process(record, acknowledgment);
+    }
+
+    /**
+     * Consumes signup and password-change events. Runs in its own container so activity spikes never delay them.
+     */
+    @KafkaListener(
+            id = "lifecycle",
+            idIsGroup = false,
+            topics = "${app.kafka.listeners.lifecycle.topic:user.lifecycle}",
+            groupId = "${spring.kafka.consumer.group-id:user-service}",
+            concurrency = "${app.kafka.listeners.lifecycle.concurrency:2}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    @Transactional
+    public void consumeLifecycle(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        process(record, acknowledgment);
+    }
+
+    /**
+     * Consumes login, logout, refresh and activity summary events, scaled independently of lifecycle events.
+     */
+    @KafkaListener(
+            id = "activity",
+            idIsGroup = false,
+            topics = "${app.kafka.listeners.activity.topic:user.activity}",
+            groupId = "${spring.kafka.consumer.group-id:user-service}",
+            concurrency = "${app.kafka.listeners.activity.concurrency:3}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    @Transactional
+    public void consumeActivity(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        process(record, acknowledgment);
+    }
+
+    private void process(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
         String correlationId = UUID.randomUUID().toString();
         String eventId = EventLog.createEventId(record.topic(), record.partition(), record.offset());
         
@@ -0,0 +1,94 @@
+package com.aman.userservice.consumer;
+
+import com.aman.userservice.service.EventBatchWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch counterpart of {@link AuthServiceConsumer}, active when {@code app.kafka.batch.enabled} is set.
+ * <p>
+ * Each poll is written by {@link EventBatchWriter} in one transaction and acknowledged once. If the batch write
+ * fails, the records are retried one transaction each; the first record that still fails is reported to the error
+ * handler, which commits the records before it, retries it and finally skips it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.batch.enabled", havingValue = "true")
+public class BatchAuthServiceConsumer {
+
+    private final EventBatchWriter eventBatchWriter;
+
+    @KafkaListener(
+            topics = "${spring.kafka.topic-json.name:user_service}",
+            groupId = "${spring.kafka.consumer.group-id:user-service}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consume(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        process(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            id = "lifecycle",
+            idIsGroup = false,
+            topics = "${app.kafka.listeners.lifecycle.topic:user.lifecycle}",
+            groupId = "${spring.kafka.consumer.group-id:user-service}",
+            concurrency = "${app.kafka.listeners.lifecycle.concurrency:2}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeLifecycle(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        process(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            id = "activity",
+            idIsGroup = false,
+            topics = "${app.kafka.listeners.activity.topic:user.activity}",
+            groupId = "${spring.kafka.consumer.group-id:user-service}",
+            concurrency = "${app.kafka.listeners.activity.concurrency:3}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeActivity(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        process(records, acknowledgment);
+    }
+
+    private void process(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long startNanos = System.nanoTime();
+        EventBatchWriter.Result result;
+        try {
+            result = eventBatchWriter.write(records);
+        } catch (Exception ex) {
+            log.warn("Batch write failed, retrying record by record | size={} | error={}", records.size(), ex.getMessage());
+            result = writeEach(records);
+        }
+        acknowledgment.acknowledge();
+
+        log.info("Event batch processed | size={} | written={} | duplicates={} | skipped={} | durationMs={}",
+                records.size(), result.written(), result.duplicates(), result.skipped(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private EventBatchWriter.Result writeEach(List<ConsumerRecord<String, Object>> records) {
+        EventBatchWriter.Result total = new EventBatchWriter.Result(0, 0, 0);
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, Object> record = records.get(i);
+            try {
+                total = total.plus(eventBatchWriter.write(List.of(record)));
+            } catch (Exception ex) {
+                log.error("Error processing event | topic={} | partition={} | offset={} | error={}",
+                        record.topic(), record.partition(), record.offset(), ex.getMessage(), ex);
+                throw new BatchListenerFailedException("Failed to process event: " + ex.getMessage(), ex, i);
+            }
+        }
+        return total;
+    }
+}
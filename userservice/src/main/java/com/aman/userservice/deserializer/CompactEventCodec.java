@@ -0,0 +1,97 @@
+package com.aman.userservice.deserializer;
+
+import com.aman.userservice.domain.UserInfoDTO;
+import com.aman.userservice.events.UserEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reader for the compact binary event encoding written by authservice ({@code CompactEventCodec} there).
+ * <p>
+ * Layout (version 1): magic byte {@code 0xC5}, version byte, event type code, then the fields of that type in a
+ * fixed order. Strings are a varint of {@code length + 1} ({@code 0} for null) followed by UTF-8; timestamps are
+ * varint epoch milliseconds. Trailing fields this service does not keep (IP, User-Agent, failure reason) are not read.
+ */
+public final class CompactEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC5;
+    public static final byte MAX_VERSION = 1;
+
+    private static final byte USER_INFO = 1;
+    private static final byte USER_LOGGED_IN = 2;
+    private static final byte USER_LOGIN_FAILED = 3;
+    private static final byte TOKEN_REFRESHED = 4;
+    private static final byte PASSWORD_CHANGED = 5;
+    private static final byte USER_LOGGED_OUT = 6;
+
+    private CompactEventCodec() {
+    }
+
+    public static boolean isCompact(byte[] bytes) {
+        return bytes.length > 2 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * @return {@link UserInfoDTO} for signup events, {@link UserEvent} otherwise
+     * @throws IllegalArgumentException for a newer version or an unknown event type
+     */
+    public static Object decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        in.get();
+        byte version = in.get();
+        if (version < 1 || version > MAX_VERSION) {
+            throw new IllegalArgumentException("Unsupported compact event version " + version);
+        }
+        byte type = in.get();
+        if (type == USER_INFO) {
+            UserInfoDTO info = new UserInfoDTO();
+            info.setUserId(readString(in));
+            info.setUsername(readString(in));
+            info.setFirstName(readString(in));
+            info.setLastName(readString(in));
+            info.setEmail(readString(in));
+            info.setPhoneNumber(readOptionalLong(in));
+            return info;
+        }
+
+        String eventType = switch (type) {
+            case USER_LOGGED_IN -> "USER_LOGGED_IN";
+            case USER_LOGIN_FAILED -> "USER_LOGIN_FAILED";
+            case TOKEN_REFRESHED -> "TOKEN_REFRESHED";
+            case PASSWORD_CHANGED -> "PASSWORD_CHANGED";
+            case USER_LOGGED_OUT -> "USER_LOGGED_OUT";
+            default -> throw new IllegalArgumentException("Unknown compact event type " + type);
+        };
+        String userId = readString(in);
+        Long millis = readOptionalLong(in);
+        return new UserEvent(userId, eventType, millis != null ? Instant.ofEpochMilli(millis) : null);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static Long readOptionalLong(ByteBuffer in) {
+        return in.get() == 0 ? null : readVarLong(in);
+    }
+}
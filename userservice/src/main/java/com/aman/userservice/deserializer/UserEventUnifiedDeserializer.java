@@ -4,27 +4,51 @@ import com.aman.userservice.domain.UserInfoDTO;
 import com.aman.userservice.events.UserEvent;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
  * Production-ready unified deserializer that handles all event types.
  * Properly deserializes UserInfoEvent (signup) and UserEvent (auth events).
  * Handles deserialization errors gracefully with proper logging.
+ * Reads both JSON and the compact binary encoding ({@link CompactEventCodec}), told apart by the first byte.
+ * <p>
+ * When the producer set the {@link #EVENT_TYPE_HEADER}, JSON is bound in one streaming pass by a reader cached per
+ * event type, and unknown types are skipped without parsing. Records without the header take the tree-based path.
  */
 @Slf4j
 public class UserEventUnifiedDeserializer implements Deserializer<Object> {
 
+    /**
+     * Header set by authservice with the event class name.
+     */
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
     private final ObjectMapper mapper;
+    private final Map<String, ObjectReader> readers;
 
     public UserEventUnifiedDeserializer() {
         mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        ObjectReader authEventReader = mapper.readerFor(UserEvent.class);
+        readers = Map.of(
+                "UserInfoEvent", mapper.readerFor(UserInfoDTO.class),
+                "UserLoggedInEvent", authEventReader,
+                "UserLoggedOutEvent", authEventReader,
+                "UserLoginFailedEvent", authEventReader,
+                "TokenRefreshedEvent", authEventReader,
+                "UserPasswordChangedEvent", authEventReader,
+                "UserActivitySummaryEvent", authEventReader);
     }
 
     @Override
@@ -32,6 +56,34 @@ public class UserEventUnifiedDeserializer implements Deserializer<Object> {
         // Configuration is handled in constructor
     }
 
+    /**
+     * Binds the record with the reader for its {@link #EVENT_TYPE_HEADER}; falls back to
+     * {@link #deserialize(String, byte[])} when there is no header or the value is compact.
+     *
+     * @return the event, or {@code null} for an event type this service does not consume
+     */
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] bytes) {
+        Header header = headers != null ? headers.lastHeader(EVENT_TYPE_HEADER) : null;
+        if (header == null || bytes == null || bytes.length == 0 || CompactEventCodec.isCompact(bytes)) {
+            return deserialize(topic, bytes);
+        }
+
+        String eventType = new String(header.value(), StandardCharsets.UTF_8);
+        ObjectReader reader = readers.get(eventType);
+        if (reader == null) {
+            log.debug("Skipping event of unconsumed type | topic={} | eventType={}", topic, eventType);
+            return null;
+        }
+        try {
+            return reader.readValue(bytes);
+        } catch (Exception e) {
+            log.error("Failed to deserialize event | topic={} | eventType={} | error={} | bytesLength={}",
+                    topic, eventType, e.getMessage(), bytes.length, e);
+            throw new RuntimeException("Failed to deserialize " + eventType + " from topic " + topic + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Deserializes Kafka message bytes to appropriate event type.
      * Handles:
@@ -50,6 +102,19 @@ public class UserEventUnifiedDeserializer implements Deserializer<Object> {
             return null;
         }
 
+        if (CompactEventCodec.isCompact(bytes)) {
+            try {
+                Object event = CompactEventCodec.decode(bytes);
+                log.debug("Deserialized compact event | topic={} | version={} | type={}",
+                        topic, bytes[1], event.getClass().getSimpleName());
+                return event;
+            } catch (Exception e) {
+                log.error("Failed to deserialize compact event | topic={} | version={} | error={}",
+                        topic, bytes[1], e.getMessage(), e);
+                throw new RuntimeException("Failed to deserialize compact event: " + e.getMessage(), e);
+            }
+        }
+
         try {
             JsonNode node = mapper.readTree(bytes);
 
@@ -2,10 +2,14 @@ package com.aman.userservice.repository;
 
 import com.aman.userservice.domain.EventLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository for event logs with idempotency support.
@@ -21,4 +25,13 @@ public interface EventLogRepository extends JpaRepository<EventLog, Long> {
      * @return Optional EventLog if event was already processed
      */
     Optional<EventLog> findByEventId(String eventId);
+
+    /**
+     * Bulk idempotency check for batch consumption.
+     *
+     * @param eventIds Event identifiers of one batch
+     * @return The subset of {@code eventIds} that was already processed
+     */
+    @Query("select e.eventId from EventLog e where e.eventId in :eventIds")
+    Set<String> findProcessedEventIds(@Param("eventIds") Collection<String> eventIds);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.aman.userservice.repository;
 
 import com.aman.userservice.domain.UserInfo;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,12 @@ import java.util.Optional;
 public interface UserRepository extends CrudRepository<UserInfo, String> {
     Optional<UserInfo> findByUserId(String userId);
     Optional<UserInfo> findByUsername(String username);
+
+    /**
+     * Users that a batch of signups may update or collide with on the unique username and email columns.
+     */
+    @Query("select u from UserInfo u where u.userId in :userIds or u.username in :usernames or u.email in :emails")
+    List<UserInfo> findSignupCandidates(@Param("userIds") Collection<String> userIds,
+                                        @Param("usernames") Collection<String> usernames,
+                                        @Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,227 @@
+package com.aman.userservice.service;
+
+import com.aman.userservice.domain.EventLog;
+import com.aman.userservice.domain.UserInfo;
+import com.aman.userservice.domain.UserInfoDTO;
+import com.aman.userservice.events.UserEvent;
+import com.aman.userservice.repository.EventLogRepository;
+import com.aman.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a batch of consumed events in one transaction: a single {@code event_id IN (...)} idempotency query, then
+ * JDBC batch upserts into {@code users} and inserts into {@code auth_events}. With {@code rewriteBatchedStatements}
+ * each batch becomes a few multi-row statements instead of one round trip per row.
+ * <p>
+ * Records that cannot be processed (undecodable, unknown type, missing user id) are logged and skipped, so they never
+ * fail the rest of the batch. So are signups whose username or email belongs to another user: they are checked
+ * against the stored users and the signups before them in the batch, and get no {@code auth_events} row. Auth
+ * events only need their {@code auth_events} row; {@link UserService#handleAuthEvent} has no further side effects.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventBatchWriter {
+
+    /**
+     * A row whose username or email belongs to a different user id is left unchanged instead of being overwritten.
+     * Such signups are filtered out beforehand; the guard only covers a user created concurrently.
+     */
+    private static final String UPSERT_USER = """
+            INSERT INTO users (user_id, username, first_name, last_name, phone_number, email, profile_pic)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                username = IF(user_id = VALUES(user_id), VALUES(username), username),
+                first_name = IF(user_id = VALUES(user_id), VALUES(first_name), first_name),
+                last_name = IF(user_id = VALUES(user_id), VALUES(last_name), last_name),
+                phone_number = IF(user_id = VALUES(user_id), VALUES(phone_number), phone_number),
+                email = IF(user_id = VALUES(user_id), VALUES(email), email),
+                profile_pic = IF(user_id = VALUES(user_id), VALUES(profile_pic), profile_pic)
+            """;
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO auth_events (event_id, user_id, event_type, event_timestamp, topic, partition_id, offset_value,
+                                     processed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE event_id = event_id
+            """;
+
+    public record Result(int written, int duplicates, int skipped) {
+
+        public Result plus(Result other) {
+            return new Result(written + other.written, duplicates + other.duplicates, skipped + other.skipped);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventLogRepository eventLogRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public Result write(List<ConsumerRecord<String, Object>> records) {
+        Map<String, ConsumerRecord<String, Object>> byEventId = new LinkedHashMap<>();
+        int skipped = 0;
+        for (ConsumerRecord<String, Object> record : records) {
+            if (isProcessable(record)) {
+                byEventId.put(EventLog.createEventId(record.topic(), record.partition(), record.offset()), record);
+            } else {
+                skipped++;
+            }
+        }
+        if (byEventId.isEmpty()) {
+            return new Result(0, 0, skipped);
+        }
+
+        Set<String> processed = eventLogRepository.findProcessedEventIds(byEventId.keySet());
+        SignupOwners owners = loadSignupOwners(byEventId, processed);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> events = new ArrayList<>();
+        for (Map.Entry<String, ConsumerRecord<String, Object>> entry : byEventId.entrySet()) {
+            String eventId = entry.getKey();
+            ConsumerRecord<String, Object> record = entry.getValue();
+            if (processed.contains(eventId)) {
+                continue;
+            }
+            if (record.value() instanceof UserInfoDTO signup) {
+                String userId = signup.getUserId().trim();
+                if (!owners.claim(userId, signup.getUsername(), signup.getEmail())) {
+                    log.error("Skipping signup whose username or email belongs to another user | userId={} "
+                                    + "| username={} | email={} | topic={} | partition={} | offset={}",
+                            userId, signup.getUsername(), signup.getEmail(), record.topic(), record.partition(),
+                            record.offset());
+                    skipped++;
+                    continue;
+                }
+                users.add(new Object[]{userId, signup.getUsername(), signup.getFirstName(), signup.getLastName(),
+                        signup.getPhoneNumber(), signup.getEmail(), signup.getProfilePic()});
+                events.add(eventRow(eventId, record, userId, "USER_SIGNUP", now, now));
+            } else {
+                UserEvent event = (UserEvent) record.value();
+                Timestamp eventTimestamp = event.getEventTimestamp() != null
+                        ? Timestamp.from(event.getEventTimestamp()) : null;
+                events.add(eventRow(eventId, record, event.getUserId(), event.getEventType(), eventTimestamp, now));
+            }
+        }
+
+        if (!users.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_USER, users);
+        }
+        if (!events.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EVENT, events);
+        }
+        return new Result(events.size(), processed.size(), skipped);
+    }
+
+    private SignupOwners loadSignupOwners(Map<String, ConsumerRecord<String, Object>> byEventId,
+                                          Set<String> processed) {
+        Set<String> userIds = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        byEventId.forEach((eventId, record) -> {
+            if (!processed.contains(eventId) && record.value() instanceof UserInfoDTO signup) {
+                userIds.add(signup.getUserId().trim());
+                usernames.add(signup.getUsername());
+                emails.add(signup.getEmail());
+            }
+        });
+        SignupOwners owners = new SignupOwners();
+        if (!userIds.isEmpty()) {
+            for (UserInfo user : userRepository.findSignupCandidates(userIds, usernames, emails)) {
+                owners.put(user.getUserId(), user.getUsername(), user.getEmail());
+            }
+        }
+        return owners;
+    }
+
+    private static Object[] eventRow(String eventId, ConsumerRecord<String, Object> record, String userId,
+                                     String eventType, Timestamp eventTimestamp, Timestamp processedAt) {
+        return new Object[]{eventId, userId, eventType, eventTimestamp, record.topic(), record.partition(),
+                record.offset(), processedAt};
+    }
+
+    private static boolean isProcessable(ConsumerRecord<String, Object> record) {
+        Object value = record.value();
+        String reason = null;
+        if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+            reason = "undecodable value";
+        } else if (value == null) {
+            // Unknown event types deserialize to null, as in the per-record consumer
+            return false;
+        } else if (value instanceof UserInfoDTO signup) {
+            reason = isBlank(signup.getUserId()) ? "signup without user id" : null;
+        } else if (value instanceof UserEvent event) {
+            reason = isBlank(event.getUserId()) ? "auth event without user id" : null;
+        } else {
+            reason = "unknown event class " + value.getClass().getName();
+        }
+        if (reason != null) {
+            log.error("Skipping unprocessable event | reason={} | topic={} | partition={} | offset={} | key={}",
+                    reason, record.topic(), record.partition(), record.offset(), record.key());
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Owner user id of each username and email: the stored users, updated with every signup accepted so far in the
+     * batch. Keys are lower-cased, as the unique indexes compare case-insensitively.
+     */
+    private static final class SignupOwners {
+
+        private final Map<String, String> usernames = new HashMap<>();
+        private final Map<String, String> emails = new HashMap<>();
+        private final Map<String, String[]> byUserId = new HashMap<>();
+
+        /**
+         * @return {@code false} if the username or email is owned by another user; the signup is then not recorded
+         */
+        boolean claim(String userId, String username, String email) {
+            if (ownedByOther(usernames, username, userId) || ownedByOther(emails, email, userId)) {
+                return false;
+            }
+            put(userId, username, email);
+            return true;
+        }
+
+        void put(String userId, String username, String email) {
+            String[] previous = byUserId.put(userId, new String[]{username, email});
+            if (previous != null) {
+                usernames.remove(key(previous[0]), userId);
+                emails.remove(key(previous[1]), userId);
+            }
+            usernames.put(key(username), userId);
+            emails.put(key(email), userId);
+        }
+
+        private static boolean ownedByOther(Map<String, String> owners, String value, String userId) {
+            String owner = owners.get(key(value));
+            return owner != null && !owner.equals(userId);
+        }
+
+        private static String key(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.aman.userservice.config;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.MockedStatic;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the startup check against a mocked {@link AdminClient} and reads the warnings from the log output.
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class TopicPartitionCheckTest {
+
+    private final AdminClient admin = mock(AdminClient.class);
+    private final Map<String, KafkaFuture<TopicDescription>> descriptions = new HashMap<>();
+    private MockedStatic<AdminClient> adminFactory;
+
+    @BeforeEach
+    void setUp() {
+        adminFactory = mockStatic(AdminClient.class);
+        adminFactory.when(() -> AdminClient.create(anyMap())).thenReturn(admin);
+        when(admin.describeTopics(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            Map<String, KafkaFuture<TopicDescription>> requested = new HashMap<>();
+            names.forEach(name -> requested.put(name, descriptions.get(name)));
+            DescribeTopicsResult result = mock(DescribeTopicsResult.class);
+            when(result.topicNameValues()).thenReturn(requested);
+            return result;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminFactory.close();
+    }
+
+    @Test
+    void warnsWhenATopicHasFewerPartitionsThanItsConsumerThreads(CapturedOutput output) {
+        descriptions.put("user_service", partitions("user_service", 6));
+        descriptions.put("user.lifecycle", partitions("user.lifecycle", 1));
+        descriptions.put("user.activity", partitions("user.activity", 3));
+
+        check(3, 2, 3).check();
+
+        assertThat(output).contains("1 threads will be idle | topic=user.lifecycle | partitions=1 | concurrency=2");
+        assertThat(output).doesNotContain("idle | topic=user_service").doesNotContain("idle | topic=user.activity");
+    }
+
+    @Test
+    void listenersSharingATopicAreCountedTogether(CapturedOutput output) {
+        descriptions.put("user_service", partitions("user_service", 4));
+
+        new TopicPartitionCheck(new KafkaAdmin(Map.of()), "user_service", 3, "user_service", 2, "user_service", 1)
+                .check();
+
+        assertThat(output).contains("2 threads will be idle | topic=user_service | partitions=4 | concurrency=6");
+    }
+
+    @Test
+    void missingTopicIsReportedWithoutFailingStartup(CapturedOutput output) {
+        KafkaFutureImpl<TopicDescription> missing = new KafkaFutureImpl<>();
+        missing.completeExceptionally(new UnknownTopicOrPartitionException("unknown"));
+        descriptions.put("user_service", partitions("user_service", 6));
+        descriptions.put("user.lifecycle", missing);
+        descriptions.put("user.activity", partitions("user.activity", 3));
+
+        check(3, 2, 3).check();
+
+        assertThat(output).contains("Topic does not exist yet").contains("topic=user.lifecycle");
+    }
+
+    private static TopicPartitionCheck check(int sharedConcurrency, int lifecycleConcurrency, int activityConcurrency) {
+        return new TopicPartitionCheck(new KafkaAdmin(Map.of()), "user_service", sharedConcurrency,
+                "user.lifecycle", lifecycleConcurrency, "user.activity", activityConcurrency);
+    }
+
+    private static KafkaFuture<TopicDescription> partitions(String topic, int count) {
+        return KafkaFuture.completedFuture(new TopicDescription(topic, false, IntStream.range(0, count)
+                .mapToObj(partition -> new TopicPartitionInfo(partition, null, List.of(), List.of()))
+                .toList()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.aman.userservice.consumer;
+
+import com.aman.userservice.service.EventBatchWriter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchAuthServiceConsumerTest {
+
+    private final EventBatchWriter writer = mock(EventBatchWriter.class);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final BatchAuthServiceConsumer consumer = new BatchAuthServiceConsumer(writer);
+
+    private final List<ConsumerRecord<String, Object>> records = List.of(
+            new ConsumerRecord<>("user_service", 0, 1, "a", "one"),
+            new ConsumerRecord<>("user_service", 0, 2, "b", "two"),
+            new ConsumerRecord<>("user_service", 0, 3, "c", "three"));
+
+    @Test
+    void failedBatchIsRetriedRecordByRecordAndAcknowledged() {
+        when(writer.write(records)).thenThrow(new IllegalStateException("deadlock"));
+        when(writer.write(List.of(records.get(0)))).thenReturn(new EventBatchWriter.Result(1, 0, 0));
+        when(writer.write(List.of(records.get(1)))).thenReturn(new EventBatchWriter.Result(0, 1, 0));
+        when(writer.write(List.of(records.get(2)))).thenReturn(new EventBatchWriter.Result(0, 0, 1));
+
+        consumer.consume(records, acknowledgment);
+
+        verify(writer).write(List.of(records.get(2)));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void recordFailingOnItsOwnIsReportedByIndex() {
+        when(writer.write(records)).thenThrow(new IllegalStateException("deadlock"));
+        when(writer.write(List.of(records.get(0)))).thenReturn(new EventBatchWriter.Result(1, 0, 0));
+        when(writer.write(List.of(records.get(1)))).thenThrow(new IllegalStateException("bad row"));
+
+        assertThatThrownBy(() -> consumer.consume(records, acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getIndex()).isEqualTo(1));
+        verify(writer, never()).write(List.of(records.get(2)));
+        verify(acknowledgment, never()).acknowledge();
+    }
+}
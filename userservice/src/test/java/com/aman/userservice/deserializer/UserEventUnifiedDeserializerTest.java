@@ -0,0 +1,73 @@
+package com.aman.userservice.deserializer;
+
+import com.aman.userservice.domain.UserInfoDTO;
+import com.aman.userservice.events.UserEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserEventUnifiedDeserializerTest {
+
+    private static final String TOPIC = "user_service";
+    private static final byte[] LOGGED_IN = bytes("""
+            {"userId":"u-1","eventType":"USER_LOGGED_IN","eventTimestamp":"2026-01-01T00:00:00Z","ip":"10.0.0.1"}""");
+    private static final byte[] SIGNUP = bytes("""
+            {"user_id":"u-2","username":"alice","first_name":"Alice","last_name":"Smith",\
+            "email":"alice@example.com","phone_number":5550100}""");
+
+    private final UserEventUnifiedDeserializer deserializer = new UserEventUnifiedDeserializer();
+
+    @Test
+    void knownEventTypeHeaderBindsWithTheReaderForThatType() {
+        Object authEvent = deserializer.deserialize(TOPIC, headers("UserLoggedInEvent"), LOGGED_IN);
+        Object signup = deserializer.deserialize(TOPIC, headers("UserInfoEvent"), SIGNUP);
+
+        assertThat(authEvent).isInstanceOfSatisfying(UserEvent.class, event -> {
+            assertThat(event.getUserId()).isEqualTo("u-1");
+            assertThat(event.getEventType()).isEqualTo("USER_LOGGED_IN");
+            assertThat(event.getEventTimestamp()).isEqualTo(Instant.parse("2026-01-01T00:00:00Z"));
+        });
+        assertThat(signup).isInstanceOfSatisfying(UserInfoDTO.class, user -> {
+            assertThat(user.getUserId()).isEqualTo("u-2");
+            assertThat(user.getEmail()).isEqualTo("alice@example.com");
+        });
+    }
+
+    @Test
+    void unknownEventTypeHeaderIsSkippedWithoutParsing() {
+        assertThat(deserializer.deserialize(TOPIC, headers("InvoicePaidEvent"), bytes("{not json"))).isNull();
+    }
+
+    @Test
+    void missingHeaderFallsBackToTheLegacyPath() {
+        Object authEvent = deserializer.deserialize(TOPIC, new RecordHeaders(), LOGGED_IN);
+        Object signup = deserializer.deserialize(TOPIC, null, SIGNUP);
+
+        assertThat(authEvent).isInstanceOfSatisfying(UserEvent.class,
+                event -> assertThat(event.getEventType()).isEqualTo("USER_LOGGED_IN"));
+        assertThat(signup).isInstanceOfSatisfying(UserInfoDTO.class,
+                user -> assertThat(user.getUsername()).isEqualTo("alice"));
+    }
+
+    @Test
+    void malformedRecordOfAKnownTypeFails() {
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, headers("UserLoggedInEvent"), bytes("{not json")))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("UserLoggedInEvent");
+    }
+
+    private static RecordHeaders headers(String eventType) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(UserEventUnifiedDeserializer.EVENT_TYPE_HEADER, bytes(eventType));
+        return headers;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
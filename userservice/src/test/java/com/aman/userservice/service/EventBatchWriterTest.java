@@ -0,0 +1,117 @@
+package com.aman.userservice.service;
+
+import com.aman.userservice.domain.UserInfo;
+import com.aman.userservice.domain.UserInfoDTO;
+import com.aman.userservice.events.UserEvent;
+import com.aman.userservice.repository.EventLogRepository;
+import com.aman.userservice.repository.UserRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventBatchWriterTest {
+
+    private static final String TOPIC = "user_service";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EventLogRepository eventLogRepository = mock(EventLogRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EventBatchWriter writer = new EventBatchWriter(jdbcTemplate, eventLogRepository, userRepository);
+
+    @Test
+    void alreadyProcessedEventsAreCountedAsDuplicatesAndNotWritten() {
+        when(eventLogRepository.findProcessedEventIds(anyCollection())).thenReturn(Set.of(TOPIC + "-0-1"));
+
+        EventBatchWriter.Result result = writer.write(List.of(
+                record(1, new UserEvent("u-1", "USER_LOGGED_IN", Instant.now())),
+                record(2, new UserEvent("u-1", "TOKEN_REFRESHED", Instant.now()))));
+
+        assertThat(result).isEqualTo(new EventBatchWriter.Result(1, 1, 0));
+        assertThat(eventIds(writtenRows("INSERT INTO auth_events"))).containsExactly(TOPIC + "-0-2");
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO users"), anyList());
+    }
+
+    @Test
+    void unprocessableRecordsAreSkipped() {
+        when(eventLogRepository.findProcessedEventIds(anyCollection())).thenReturn(Set.of());
+        ConsumerRecord<String, Object> undecodable = record(1, null);
+        undecodable.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER,
+                "boom".getBytes(StandardCharsets.UTF_8));
+
+        EventBatchWriter.Result result = writer.write(List.of(
+                undecodable,
+                record(2, null),
+                record(3, new UserEvent(" ", "USER_LOGGED_IN", Instant.now())),
+                record(4, signup(" ", "carol", "carol@example.com")),
+                record(5, new UserEvent("u-1", "USER_LOGGED_IN", Instant.now()))));
+
+        assertThat(result).isEqualTo(new EventBatchWriter.Result(1, 0, 4));
+        assertThat(eventIds(writtenRows("INSERT INTO auth_events"))).containsExactly(TOPIC + "-0-5");
+    }
+
+    @Test
+    void signupsTakingAnotherUsersUsernameOrEmailAreSkippedWithoutAnEventRow() {
+        when(eventLogRepository.findProcessedEventIds(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findSignupCandidates(anyCollection(), anyCollection(), anyCollection())).thenReturn(List.of(
+                new UserInfo("u-1", "alice", "Alice", "A", null, "alice@example.com", null),
+                new UserInfo("u-2", "bob", "Bob", "B", null, "bob@example.com", null)));
+
+        EventBatchWriter.Result result = writer.write(List.of(
+                record(1, signup("u-3", "Alice", "new@example.com")),
+                record(2, signup("u-4", "dave", "BOB@example.com")),
+                record(3, signup("u-2", "robert", "bob@example.com")),
+                record(4, signup("u-5", "bob", "bobby@example.com")),
+                record(5, signup("u-6", "erin", "erin@example.com")),
+                record(6, signup("u-7", "erin", "erin2@example.com"))));
+
+        assertThat(result).isEqualTo(new EventBatchWriter.Result(3, 0, 3));
+        assertThat(writtenRows("INSERT INTO users")).extracting(row -> row[0]).containsExactly("u-2", "u-5", "u-6");
+        assertThat(eventIds(writtenRows("INSERT INTO auth_events")))
+                .containsExactly(TOPIC + "-0-3", TOPIC + "-0-4", TOPIC + "-0-5");
+    }
+
+    @Test
+    void batchWithOnlySkippedRecordsTouchesNothing() {
+        EventBatchWriter.Result result = writer.write(List.of(record(1, null)));
+
+        assertThat(result).isEqualTo(new EventBatchWriter.Result(0, 0, 1));
+        verify(eventLogRepository, never()).findProcessedEventIds(any());
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> writtenRows(String statementPrefix) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(statementPrefix), rows.capture());
+        return rows.getValue();
+    }
+
+    private static List<Object> eventIds(List<Object[]> eventRows) {
+        return eventRows.stream().map(row -> row[0]).toList();
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, "key-" + offset, value);
+    }
+
+    private static UserInfoDTO signup(String userId, String username, String email) {
+        return new UserInfoDTO(userId, username, "First", "Last", null, email, null);
+    }
+}